@@ -0,0 +1,82 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator: {@code concurrency} clients send GET
+ * requests back to back for {@code seconds} and the throughput and latency
+ * percentiles are printed. Run with {@code java LoadTest.java <url>
+ * <concurrency> <seconds> [authorization]}.
+ */
+public class LoadTest {
+
+	public static void main(String[] args) throws Exception {
+		URI uri = URI.create(args[0]);
+		int concurrency = Integer.parseInt(args[1]);
+		long seconds = Long.parseLong(args[2]);
+		String authorization = args.length > 3 ? args[3] : null;
+
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+		HttpRequest.Builder builder = HttpRequest.newBuilder(uri).GET();
+		if (authorization != null) {
+			builder.header("Authorization", authorization);
+		}
+		HttpRequest request = builder.build();
+
+		long[][] latencies = new long[concurrency][];
+		int[] counts = new int[concurrency];
+		AtomicLong errors = new AtomicLong();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+		ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+		for (int c = 0; c < concurrency; c++) {
+			int id = c;
+			latencies[id] = new long[1024];
+			clients.execute(() -> {
+				while (System.nanoTime() < deadline) {
+					long start = System.nanoTime();
+					try {
+						HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() != 200) {
+							errors.incrementAndGet();
+						}
+					} catch (Exception e) {
+						errors.incrementAndGet();
+					}
+					if (counts[id] == latencies[id].length) {
+						latencies[id] = Arrays.copyOf(latencies[id], counts[id] * 2);
+					}
+					latencies[id][counts[id]++] = System.nanoTime() - start;
+				}
+			});
+		}
+		clients.shutdown();
+		clients.awaitTermination(seconds + 60, TimeUnit.SECONDS);
+
+		int total = Arrays.stream(counts).sum();
+		long[] all = new long[total];
+		for (int c = 0, offset = 0; c < concurrency; offset += counts[c], c++) {
+			System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+		}
+		Arrays.sort(all);
+
+		System.out.printf("requests=%d errors=%d throughput=%.1f req/s p50=%.2f ms p99=%.2f ms max=%.2f ms%n", total,
+				errors.get(), total / (double) seconds, percentile(all, 0.50), percentile(all, 0.99),
+				all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+	}
+
+	private static double percentile(long[] sorted, double p) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+	}
+
+}
@@ -0,0 +1,75 @@
+#!/usr/bin/env bash
+# Compara o tempo de inicializacao e a latencia da primeira requisicao do jar
+# comum, do jar com AOT + AppCDS + perfil "lazy" (perfil Maven "cds") e da imagem
+# nativa (perfil Maven "native", so se native-image estiver disponivel ou
+# NATIVE=1). Inicializacao: do processo ate a porta aceitar conexoes. Primeira
+# requisicao: GET /api/tasks autenticado logo depois, com o BCrypt e os beans
+# criados nela. RSS: memoria residente apos a primeira requisicao.
+#
+#   scripts/compare-startup.sh [execucoes]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+AUTH="Basic $(printf 'root:123' | base64)"
+BASE="http://localhost:$PORT"
+NATIVE=${NATIVE:-$(command -v native-image >/dev/null && echo 1 || echo 0)}
+
+MVN=${MVN:-$(command -v mvn || echo "sh ./mvnw")}
+OUT=$(mktemp -d)
+trap 'rm -rf "$OUT"' EXIT
+
+# Cada build limpa target; os artefatos ficam em $OUT
+$MVN -B -q clean package -DskipTests
+cp "$(ls target/to-do-list-*.jar | grep -v original | head -1)" "$OUT/app.jar"
+$MVN -B -q clean package -Pcds -DskipTests
+cp -r target/cds "$OUT/cds"
+if [ "$NATIVE" = 1 ]; then
+	$MVN -B -q clean native:compile -Pnative -DskipTests
+	cp target/to-do-list "$OUT/native"
+fi
+
+now() {
+	date +%s%N
+}
+
+run() {
+	local name=$1
+	shift
+	local total_start=0 total_first=0
+	for i in $(seq 1 "$RUNS"); do
+		local start
+		start=$(now)
+		"$@" --server.port="$PORT" >"$OUT/$name-$i.log" 2>&1 &
+		local pid=$!
+
+		until (exec 3<>"/dev/tcp/127.0.0.1/$PORT") 2>/dev/null; do
+			kill -0 $pid 2>/dev/null || { cat "$OUT/$name-$i.log"; exit 1; }
+			sleep 0.01
+		done
+		local ready=$(( ($(now) - start) / 1000000 ))
+
+		local first
+		first=$(curl -sf -o /dev/null -w '%{time_total}' -H "Authorization: $AUTH" "$BASE/api/tasks?limit=50" |
+			awk '{ printf "%d", $1 * 1000 }')
+		local rss
+		rss=$(ps -o rss= -p $pid | awk '{ printf "%d", $1 / 1024 }')
+
+		kill $pid
+		wait $pid 2>/dev/null || true
+		echo "$name #$i: inicio ${ready} ms, primeira requisicao ${first} ms, RSS ${rss} MB"
+		total_start=$((total_start + ready))
+		total_first=$((total_first + first))
+	done
+	echo "$name: media inicio $((total_start / RUNS)) ms, media primeira requisicao $((total_first / RUNS)) ms"
+	echo
+}
+
+run jvm "$JAVA" -jar "$OUT/app.jar"
+(cd "$OUT/cds" && run cds "$JAVA" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+	-jar "$(ls to-do-list-*.jar | head -1)" --spring.profiles.active=lazy)
+if [ "$NATIVE" = 1 ]; then
+	run native "$OUT/native"
+fi
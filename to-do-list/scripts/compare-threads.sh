@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+# Compara vazao e p99 de GET /api/tasks com threads de plataforma e com threads
+# virtuais (perfil "virtual"). Requer JDK 21+ no PATH ou em JAVA_HOME.
+#
+#   scripts/compare-threads.sh [concorrencia] [segundos] [tarefas]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+CONCURRENCY=${1:-400}
+SECONDS_PER_RUN=${2:-30}
+TASKS=${3:-1000}
+PORT=${PORT:-18080}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+AUTH="Basic $(printf 'root:123' | base64)"
+BASE="http://localhost:$PORT"
+
+MVN=${MVN:-$(command -v mvn || echo "sh ./mvnw")}
+$MVN -B -q package -DskipTests
+JAR=$(ls target/to-do-list-*.jar | grep -v original | head -1)
+
+run() {
+	local profile=$1
+	"$JAVA" -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profile" >"target/compare-$profile.log" 2>&1 &
+	local pid=$!
+	trap 'kill $pid 2>/dev/null || true' RETURN
+
+	until curl -sf -o /dev/null -H "Authorization: $AUTH" "$BASE/api/users"; do sleep 1; done
+
+	curl -sf -o /dev/null -H "Authorization: $AUTH" -H 'Content-Type: application/json' \
+		-d '{"username":"root","nivel":"1"}' "$BASE/api/users"
+	local user_id
+	user_id=$(curl -sf -H "Authorization: $AUTH" "$BASE/api/users" | sed -E 's/.*"id":([0-9]+),"username":"root".*/\1/')
+	seq 1 "$TASKS" | sed "s/.*/{\"user_id\":$user_id,\"title\":\"Tarefa &\",\"status\":\"PENDENTE\"}/" | paste -sd, |
+		sed 's/^/[/; s/$/]/' | curl -sf -o /dev/null -H "Authorization: $AUTH" -H 'Content-Type: application/json' \
+		--data-binary @- "$BASE/api/tasks/batch"
+
+	# Aquecimento, depois a medicao
+	"$JAVA" scripts/LoadTest.java "$BASE/api/tasks?limit=50" "$CONCURRENCY" 10 "$AUTH" >/dev/null
+	echo -n "$profile: "
+	"$JAVA" scripts/LoadTest.java "$BASE/api/tasks?limit=50" "$CONCURRENCY" "$SECONDS_PER_RUN" "$AUTH"
+}
+
+run default
+run virtual
@@ -0,0 +1,93 @@
+package com.selaz.to_do_list.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import com.selaz.to_do_list.ToDoListApplication;
+import com.selaz.to_do_list.dto.BatchResultDto;
+import com.selaz.to_do_list.dto.TaskDto;
+import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.model.User;
+import com.selaz.to_do_list.repository.UserRepository;
+import com.selaz.to_do_list.service.TaskBatchService;
+
+/**
+ * The whole application on an in-memory H2 database, seeded with one user
+ * ("root") owning {@link #tasks} tasks.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+	@Param("10000")
+	public int tasks;
+
+	public ConfigurableApplicationContext context;
+
+	public User owner;
+
+	public long firstTaskId;
+
+	public long lastTaskId;
+
+	@Setup(Level.Trial)
+	public void start() {
+		context = new SpringApplicationBuilder(ToDoListApplication.class).run("--server.port=0",
+				"--spring.main.banner-mode=off");
+
+		owner = bean(UserRepository.class).save(new User(null, "root", "1"));
+
+		Status[] statuses = Status.values();
+		long day = 24L * 60 * 60 * 1000;
+		firstTaskId = Long.MAX_VALUE;
+		for (int from = 0; from < tasks; from += 5000) {
+			List<TaskDto> taskDtos = new ArrayList<>();
+			for (int i = from; i < Math.min(from + 5000, tasks); i++) {
+				TaskDto taskDto = new TaskDto();
+				taskDto.setUser_id(owner.getId());
+				taskDto.setTitle("Tarefa " + i);
+				taskDto.setDescription("Descrição da tarefa " + i);
+				taskDto.setDueDate(new Date(System.currentTimeMillis() + (i % 365) * day));
+				taskDto.setStatus(statuses[i % statuses.length]);
+				taskDtos.add(taskDto);
+			}
+			for (BatchResultDto result : bean(TaskBatchService.class).createTasks(taskDtos)) {
+				firstTaskId = Math.min(firstTaskId, result.getId());
+				lastTaskId = Math.max(lastTaskId, result.getId());
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	public <T> T bean(Class<T> type) {
+		return context.getBean(type);
+	}
+
+	/**
+	 * Authenticates the calling thread as the owner, as the security filter chain
+	 * would for an HTTP request.
+	 */
+	public void authenticateCurrentThread() {
+		UserDetails user = bean(UserDetailsService.class).loadUserByUsername("root");
+		SecurityContextHolder.getContext().setAuthentication(
+				UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.selaz.to_do_list.benchmark;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import com.selaz.to_do_list.security.CachingDaoAuthenticationProvider;
+import com.selaz.to_do_list.security.TokenService;
+import com.selaz.to_do_list.security.VerifiedCredentialsCache;
+
+/**
+ * Cost of authenticating one request: plain BCrypt as configured in
+ * {@code SecurityConfiguration}, a verified-credentials cache hit and a bearer
+ * token check.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthenticationBenchmark {
+
+	private DaoAuthenticationProvider bcrypt;
+
+	private CachingDaoAuthenticationProvider cached;
+
+	private TokenService tokenService;
+
+	private String token;
+
+	@Setup
+	public void setUp() {
+		PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+		UserDetails root = User.withUsername("root").password(passwordEncoder.encode("123")).roles("USER").build();
+		InMemoryUserDetailsManager userDetailsService = new InMemoryUserDetailsManager(root);
+
+		bcrypt = new DaoAuthenticationProvider(passwordEncoder);
+		bcrypt.setUserDetailsService(userDetailsService);
+
+		cached = new CachingDaoAuthenticationProvider(passwordEncoder,
+				new VerifiedCredentialsCache(10_000, Duration.ofMinutes(5), Clock.systemUTC()));
+		cached.setUserDetailsService(userDetailsService);
+		cached.authenticate(login());
+
+		tokenService = new TokenService(new byte[32], Duration.ofMinutes(15), Clock.systemUTC(), userDetailsService);
+		token = tokenService.issue(root).getToken();
+	}
+
+	@Benchmark
+	public Authentication basicWithBCrypt() {
+		return bcrypt.authenticate(login());
+	}
+
+	@Benchmark
+	public Authentication basicWithCredentialsCache() {
+		return cached.authenticate(login());
+	}
+
+	@Benchmark
+	public UserDetails bearerToken() {
+		return tokenService.verify(token);
+	}
+
+	private static UsernamePasswordAuthenticationToken login() {
+		return UsernamePasswordAuthenticationToken.unauthenticated("root", "123");
+	}
+
+}
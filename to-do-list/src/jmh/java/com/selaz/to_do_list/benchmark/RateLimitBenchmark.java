@@ -0,0 +1,68 @@
+package com.selaz.to_do_list.benchmark;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.selaz.to_do_list.security.RateLimiter;
+
+/**
+ * Cost of one admission decision: a single user hammering the limiter (every
+ * thread on the same stripe) and 10k users spread over all stripes. Limits are
+ * high enough that nothing is refused, which is the path every request takes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitBenchmark {
+
+	@Param({ "1", "10000" })
+	public int users;
+
+	private RateLimiter limiter;
+
+	private String[] names;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		RateLimiter.Limit unlimited = new RateLimiter.Limit(Integer.MAX_VALUE, 1e9);
+		limiter = new RateLimiter(Map.of(RateLimiter.Kind.READ, unlimited, RateLimiter.Kind.WRITE, unlimited,
+				RateLimiter.Kind.BULK, unlimited), 100_000, Duration.ofMinutes(10), Clock.systemUTC());
+		names = new String[users];
+		for (int i = 0; i < users; i++) {
+			names[i] = "user" + i;
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public long acquire1() {
+		return limiter.tryAcquire(names[ThreadLocalRandom.current().nextInt(users)], RateLimiter.Kind.READ);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public long acquire8() {
+		return limiter.tryAcquire(names[ThreadLocalRandom.current().nextInt(users)], RateLimiter.Kind.READ);
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.selaz.to_do_list.benchmark;
+
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.selaz.to_do_list.dto.TaskCursor;
+import com.selaz.to_do_list.dto.TaskFilter;
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.dto.TaskSort;
+import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.model.User;
+import com.selaz.to_do_list.repository.TaskRepository;
+import com.selaz.to_do_list.repository.UserRepository;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+	@State(Scope.Thread)
+	public static class Repositories {
+
+		TaskRepository taskRepository;
+
+		UserRepository userRepository;
+
+		User owner;
+
+		TaskFilter ownerFilter;
+
+		TaskCursor ownerSecondPage;
+
+		TaskFilter statusAndDueRangeFilter;
+
+		@Setup
+		public void setUp(ApplicationState app) {
+			taskRepository = app.bean(TaskRepository.class);
+			userRepository = app.bean(UserRepository.class);
+			owner = app.owner;
+
+			ownerFilter = new TaskFilter();
+			ownerFilter.setUserId(owner.getId());
+			// Cursor da segunda página, como o controller devolve depois da primeira
+			List<TaskItemDto> firstPage = taskRepository.search(ownerFilter, null, 51);
+			ownerSecondPage = TaskCursor.of(firstPage.get(firstPage.size() - 2), ownerFilter.getSort());
+
+			statusAndDueRangeFilter = new TaskFilter();
+			statusAndDueRangeFilter.setUserId(owner.getId());
+			statusAndDueRangeFilter.setStatus(EnumSet.of(Status.PENDENTE));
+			statusAndDueRangeFilter.setDueFrom(new Date());
+			statusAndDueRangeFilter.setDueTo(new Date(System.currentTimeMillis() + 30L * 24 * 60 * 60 * 1000));
+			statusAndDueRangeFilter.setSort(TaskSort.DUE_DATE);
+		}
+
+	}
+
+	@Benchmark
+	public List<TaskItemDto> searchByOwner(Repositories repositories) {
+		return repositories.taskRepository.search(repositories.ownerFilter, null, 51);
+	}
+
+	@Benchmark
+	public List<TaskItemDto> searchByStatusAndDueRange(Repositories repositories) {
+		return repositories.taskRepository.search(repositories.statusAndDueRangeFilter, null, 51);
+	}
+
+	@Benchmark
+	public List<TaskItemDto> searchByOwnerNextPage(Repositories repositories) {
+		return repositories.taskRepository.search(repositories.ownerFilter, repositories.ownerSecondPage, 51);
+	}
+
+	@Benchmark
+	public User findUserByUsername(Repositories repositories) {
+		return repositories.userRepository.findByUsername("root");
+	}
+
+	@Benchmark
+	public Optional<User> findUserById(Repositories repositories) {
+		return repositories.userRepository.findById(repositories.owner.getId());
+	}
+
+}
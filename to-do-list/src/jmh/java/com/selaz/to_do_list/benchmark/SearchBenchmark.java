@@ -0,0 +1,135 @@
+package com.selaz.to_do_list.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.selaz.to_do_list.service.TaskSearchIndex;
+
+/**
+ * {@link TaskSearchIndex} against {@code LIKE '%term%'} on H2, both over the
+ * same generated tasks. {@code users} controls how many tasks each query is
+ * scoped to: with one user, LIKE has to scan the whole table.
+ * <p>
+ * Seeding a million rows takes a while; try {@code -p tasks=100000} first.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+	private static final String[] WORDS = { "relatório", "reunião", "orçamento", "cliente", "fornecedor", "contrato",
+			"revisão", "entrega", "planejamento", "apresentação", "pagamento", "fatura", "projeto", "equipe", "análise",
+			"migração", "servidor", "backup", "auditoria", "treinamento", "campanha", "vendas", "estoque", "compras",
+			"logística", "suporte", "chamado", "documentação", "requisitos", "protótipo", "teste", "implantação",
+			"manutenção", "segurança", "acesso", "senha", "cadastro", "relatórios", "indicadores", "metas", "trimestral",
+			"mensal", "anual", "diretoria", "financeiro", "jurídico", "marketing", "produto", "design", "pesquisa" };
+
+	@Param("1000000")
+	public int tasks;
+
+	@Param({ "1", "100" })
+	public int users;
+
+	private Connection connection;
+
+	private PreparedStatement like;
+
+	private TaskSearchIndex index;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		connection = DriverManager.getConnection("jdbc:h2:mem:search;DB_CLOSE_DELAY=-1", "sa", "");
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS tb_task");
+			statement.execute("CREATE TABLE tb_task (id BIGINT PRIMARY KEY, user_id BIGINT, title VARCHAR(255), "
+					+ "description VARCHAR(255))");
+			statement.execute("CREATE INDEX idx_task_user ON tb_task (user_id, id)");
+		}
+
+		index = new TaskSearchIndex();
+		Random random = new Random(42);
+		connection.setAutoCommit(false);
+		try (PreparedStatement insert = connection.prepareStatement("INSERT INTO tb_task VALUES (?, ?, ?, ?)")) {
+			for (long id = 1; id <= tasks; id++) {
+				long userId = id % users;
+				String title = words(random, 3);
+				String description = words(random, 8);
+				insert.setLong(1, id);
+				insert.setLong(2, userId);
+				insert.setString(3, title);
+				insert.setString(4, description);
+				insert.addBatch();
+				index.index(id, userId, 0L, title, description);
+				if (id % 1000 == 0) {
+					insert.executeBatch();
+				}
+			}
+			insert.executeBatch();
+		}
+		connection.commit();
+
+		like = connection.prepareStatement("SELECT id FROM tb_task WHERE user_id = ? "
+				+ "AND LOWER(CONCAT(title, ' ', description)) LIKE ? "
+				+ "AND LOWER(CONCAT(title, ' ', description)) LIKE ? ORDER BY id DESC LIMIT 20");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		connection.close();
+	}
+
+	@Benchmark
+	public List<Long> invertedIndex() {
+		return index.search(0L, "relatório trimestral", 20);
+	}
+
+	@Benchmark
+	public List<Long> sqlLike() throws SQLException {
+		like.setLong(1, 0L);
+		like.setString(2, "%relatório%");
+		like.setString(3, "%trimestral%");
+		List<Long> ids = new ArrayList<>();
+		try (ResultSet rows = like.executeQuery()) {
+			while (rows.next()) {
+				ids.add(rows.getLong(1));
+			}
+		}
+		return ids;
+	}
+
+	// Distribuição enviesada: poucas palavras muito comuns, muitas raras
+	private static String words(Random random, int count) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			double skewed = random.nextDouble();
+			text.append(i == 0 ? "" : " ").append(WORDS[(int) (skewed * skewed * WORDS.length)]);
+		}
+		return text.toString();
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.selaz.to_do_list.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.selaz.to_do_list.config.WebConfiguration;
+import com.selaz.to_do_list.dto.CursorPage;
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.model.Status;
+
+/**
+ * Writing and reading one page of the task list in each representation the
+ * API negotiates. JSON is configured like Spring Boot's (ISO dates), CBOR and
+ * Smile like {@link WebConfiguration}. The size of each page is printed during
+ * setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+	private static final TypeReference<CursorPage<TaskItemDto>> PAGE = new TypeReference<>() {
+	};
+
+	@Param({ "json", "cbor", "smile" })
+	public String format;
+
+	@Param({ "50", "500" })
+	public int items;
+
+	private ObjectMapper mapper;
+
+	private CursorPage<TaskItemDto> page;
+
+	private byte[] encoded;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		mapper = switch (format) {
+		case "cbor" -> WebConfiguration.binaryMapper(Jackson2ObjectMapperBuilder.json(), new CBORFactory());
+		case "smile" -> WebConfiguration.binaryMapper(Jackson2ObjectMapperBuilder.json(), new SmileFactory());
+		default -> Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build();
+		};
+
+		Random random = new Random(42);
+		List<TaskItemDto> tasks = new ArrayList<>(items);
+		long now = System.currentTimeMillis();
+		for (long id = 1; id <= items; id++) {
+			tasks.add(new TaskItemDto(100_000L + id, "Revisar relatório de vendas " + random.nextInt(1000),
+					Status.values()[random.nextInt(3)], random.nextBoolean() ? new Date(now + random.nextInt()) : null,
+					new Date(now - random.nextInt(Integer.MAX_VALUE)), 42L, (long) random.nextInt(5)));
+		}
+		page = new CursorPage<>(tasks, "eyJpZCI6MTAwNTAwfQ");
+		encoded = mapper.writeValueAsBytes(page);
+		System.out.println(format + " with " + items + " items: " + encoded.length + " bytes");
+	}
+
+	@Benchmark
+	public byte[] write() throws IOException {
+		return mapper.writeValueAsBytes(page);
+	}
+
+	@Benchmark
+	public CursorPage<TaskItemDto> read() throws IOException {
+		return mapper.readValue(encoded, PAGE);
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.selaz.to_do_list.benchmark;
+
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.selaz.to_do_list.controller.TaskController;
+import com.selaz.to_do_list.dto.CursorPage;
+import com.selaz.to_do_list.dto.TaskCursor;
+import com.selaz.to_do_list.dto.TaskDto;
+import com.selaz.to_do_list.dto.TaskFilter;
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.dto.TaskSort;
+import com.selaz.to_do_list.model.Status;
+
+/**
+ * {@link TaskController} called through its Spring proxy, down to Hibernate
+ * and H2. HTTP, security filters and JSON are left out; see
+ * {@link SerializationBenchmark} and {@link AuthenticationBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskControllerBenchmark {
+
+	@State(Scope.Thread)
+	public static class Caller {
+
+		TaskController controller;
+
+		String deepCursor;
+
+		TaskDto newTask;
+
+		@Setup
+		public void setUp(ApplicationState app) {
+			app.authenticateCurrentThread();
+			controller = app.bean(TaskController.class);
+			deepCursor = new TaskCursor(null, app.lastTaskId - 100).encode();
+
+			newTask = new TaskDto();
+			newTask.setUser_id(app.owner.getId());
+			newTask.setTitle("Nova tarefa");
+			newTask.setDueDate(new Date());
+			newTask.setStatus(Status.PENDENTE);
+		}
+
+	}
+
+	@Benchmark
+	public CursorPage<TaskItemDto> getAllTasksFirstPage(Caller caller) {
+		return caller.controller.getAllTasks(new TaskFilter(), null, 50, request());
+	}
+
+	@Benchmark
+	public CursorPage<TaskItemDto> getAllTasksDeepPage(Caller caller) {
+		return caller.controller.getAllTasks(new TaskFilter(), caller.deepCursor, 50, request());
+	}
+
+	@Benchmark
+	public CursorPage<TaskItemDto> getAllTasksByStatusSortedByDueDate(Caller caller) {
+		TaskFilter filter = new TaskFilter();
+		filter.setStatus(EnumSet.of(Status.PENDENTE, Status.EM_ANDAMENTO));
+		filter.setSort(TaskSort.DUE_DATE);
+		return caller.controller.getAllTasks(filter, null, 50, request());
+	}
+
+	@Benchmark
+	public ResponseEntity<TaskItemDto> createTask(Caller caller) {
+		return caller.controller.createTask(caller.newTask);
+	}
+
+	// Sem If-None-Match: mede a consulta completa, não a resposta 304
+	private static ServletWebRequest request() {
+		return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/tasks"), new MockHttpServletResponse());
+	}
+
+}
@@ -0,0 +1,144 @@
+package com.selaz.to_do_list.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selaz.to_do_list.ToDoListApplication;
+
+/**
+ * End-to-end load test: starts the application on a random port with an
+ * in-memory H2 database, seeds users and tasks over HTTP, then runs each
+ * workload for a warmup and a measured period and checks the results against
+ * the limits in {@code loadtest.properties}. Exits with status 1 when a limit
+ * is missed, which fails the Maven build.
+ * <p>
+ * Run with {@code LoadTest <result.json> [key=value...]}.
+ */
+public class LoadTest {
+
+	public static void main(String[] args) throws Exception {
+		Path output = Path.of(args[0]);
+		LoadTestConfig config = new LoadTestConfig(Arrays.copyOfRange(args, 1, args.length));
+
+		List<String> arguments = new ArrayList<>(List.of("--server.port=0", "--spring.main.banner-mode=off"));
+		arguments.addAll(config.applicationArguments());
+
+		List<String> violations = new ArrayList<>();
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ToDoListApplication.class)
+				.run(arguments.toArray(String[]::new))) {
+			TaskApiClient api = new TaskApiClient(((WebServerApplicationContext) context).getWebServer().getPort());
+
+			long start = System.nanoTime();
+			List<Long> users = api.createUsers(config.users());
+			List<Long> tasks = api.createTasks(users, config.tasks());
+			System.out.printf("Seeded %d users and %d tasks in %d ms%n", users.size(), tasks.size(),
+					(System.nanoTime() - start) / 1_000_000);
+
+			List<Map<String, Object>> json = new ArrayList<>();
+			for (Workload workload : config.workloads()) {
+				WorkloadResult result = run(workload, config, api, users, tasks);
+				result.print(System.out);
+				violations.addAll(result.violations(config));
+				json.add(result.toJson());
+			}
+
+			Files.createDirectories(output.toAbsolutePath().getParent());
+			new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output.toFile(), json);
+		}
+
+		if (!violations.isEmpty()) {
+			System.out.println("Limits missed:");
+			violations.forEach(violation -> System.out.println("  " + violation));
+			System.exit(1);
+		}
+		System.out.println("All limits met");
+	}
+
+	/**
+	 * Runs {@code workload} on {@link LoadTestConfig#concurrency()} clients,
+	 * recording only requests due after the warmup. Closed loop by default;
+	 * with a rate, each client sends on a fixed schedule and latency counts
+	 * from when the request was due, so a stall is charged to every request
+	 * it delayed and not just to the one that hit it.
+	 */
+	private static WorkloadResult run(Workload workload, LoadTestConfig config, TaskApiClient api, List<Long> users,
+			List<Long> tasks) throws Exception {
+		int clients = config.concurrency();
+		Duration measured = config.duration();
+		WorkloadResult result = new WorkloadResult(workload, measured);
+
+		long begin = System.nanoTime();
+		long measureFrom = begin + config.warmup().toNanos();
+		long end = measureFrom + measured.toNanos();
+		long interval = config.rate() > 0 ? (long) (clients * 1e9 / config.rate()) : 0;
+
+		ExecutorService executor = Executors.newFixedThreadPool(clients);
+		try {
+			List<Future<?>> futures = new ArrayList<>(clients);
+			for (int c = 0; c < clients; c++) {
+				Operation.Session session = new Operation.Session(api, c, clients, users, tasks, config.batchSize());
+				long first = begin + interval * c / clients;
+				futures.add(executor.submit(() -> {
+					client(workload, session, result, first, interval, measureFrom, end);
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		result.finish();
+		return result;
+	}
+
+	private static void client(Workload workload, Operation.Session session, WorkloadResult result, long first,
+			long interval, long measureFrom, long end) throws InterruptedException {
+		long due = first;
+		while (true) {
+			if (interval > 0) {
+				long wait;
+				while ((wait = due - System.nanoTime()) > 0) {
+					LockSupport.parkNanos(wait);
+				}
+			} else {
+				due = System.nanoTime();
+			}
+			if (due >= end) {
+				return;
+			}
+
+			Operation operation = workload.pick(session);
+			boolean ok;
+			try {
+				HttpResponse<byte[]> response = operation.send(session);
+				ok = response.statusCode() / 100 == 2;
+			} catch (IOException e) {
+				ok = false;
+			}
+			if (due >= measureFrom) {
+				result.record(operation, System.nanoTime() - due, ok);
+			}
+			due += interval;
+		}
+	}
+
+}
@@ -0,0 +1,108 @@
+package com.selaz.to_do_list.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Settings of a run: {@code loadtest.properties} from the classpath, with
+ * {@code key=value} arguments on top.
+ */
+public class LoadTestConfig {
+
+	private static final String APP_PREFIX = "app.";
+
+	private final Properties properties = new Properties();
+
+	public LoadTestConfig(String... overrides) throws IOException {
+		try (InputStream in = LoadTestConfig.class.getResourceAsStream("/loadtest.properties")) {
+			if (in != null) {
+				properties.load(in);
+			}
+		}
+		for (String override : overrides) {
+			int equals = override.indexOf('=');
+			if (equals <= 0) {
+				throw new IllegalArgumentException("Expected key=value, got " + override);
+			}
+			properties.setProperty(override.substring(0, equals).trim(), override.substring(equals + 1).trim());
+		}
+	}
+
+	public int users() {
+		return Math.max(1, Integer.parseInt(get("users", "100")));
+	}
+
+	public int tasks() {
+		return Math.max(1, Integer.parseInt(get("tasks", "10000")));
+	}
+
+	public int concurrency() {
+		return Math.max(1, Integer.parseInt(get("concurrency", "32")));
+	}
+
+	public Duration warmup() {
+		return Duration.parse(get("warmup", "PT10S"));
+	}
+
+	public Duration duration() {
+		return Duration.parse(get("duration", "PT30S"));
+	}
+
+	public double rate() {
+		return Double.parseDouble(get("rate", "0"));
+	}
+
+	public int batchSize() {
+		return Math.max(1, Integer.parseInt(get("batch-size", "100")));
+	}
+
+	public List<Workload> workloads() {
+		List<Workload> workloads = new ArrayList<>();
+		for (String name : get("workloads", "read-heavy,write-heavy,bulk").split(",")) {
+			if (!name.isBlank()) {
+				workloads.add(Workload.of(name.trim()));
+			}
+		}
+		return workloads;
+	}
+
+	/**
+	 * Arguments for the application, from the {@code app.*} keys without the
+	 * prefix, such as {@code app.spring.profiles.active=virtual}.
+	 */
+	public List<String> applicationArguments() {
+		List<String> arguments = new ArrayList<>();
+		for (String key : properties.stringPropertyNames()) {
+			if (key.startsWith(APP_PREFIX)) {
+				arguments.add("--" + key.substring(APP_PREFIX.length()) + "=" + properties.getProperty(key).trim());
+			}
+		}
+		return arguments;
+	}
+
+	public Double maxErrorRate() {
+		return number("max-error-rate");
+	}
+
+	/**
+	 * Limit {@code name} (p50, p99, p999, min-throughput) of a workload, or null
+	 * when it is not checked.
+	 */
+	public Double limit(Workload workload, String name) {
+		return number(workload.key() + "." + name);
+	}
+
+	private Double number(String key) {
+		String value = properties.getProperty(key);
+		return value == null || value.isBlank() ? null : Double.valueOf(value.trim());
+	}
+
+	private String get(String key, String defaultValue) {
+		return properties.getProperty(key, defaultValue).trim();
+	}
+
+}
@@ -0,0 +1,210 @@
+package com.selaz.to_do_list.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.selaz.to_do_list.dto.TaskBatchUpdateDto;
+import com.selaz.to_do_list.dto.TaskDto;
+import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.model.User;
+
+/**
+ * One kind of request a client sends, recorded under its own latency
+ * histogram.
+ */
+public enum Operation {
+
+	LIST_TASKS {
+		@Override
+		HttpResponse<byte[]> send(Session session) throws IOException, InterruptedException {
+			return session.api.send("GET", "/api/tasks?limit=50", null);
+		}
+	},
+
+	USER_TASKS {
+		@Override
+		HttpResponse<byte[]> send(Session session) throws IOException, InterruptedException {
+			return session.api.send("GET", "/api/tasks/" + session.anyUser() + "?limit=50", null);
+		}
+	},
+
+	SEARCH_TASKS {
+		@Override
+		HttpResponse<byte[]> send(Session session) throws IOException, InterruptedException {
+			return session.api.send("GET", "/api/tasks/search?limit=20&q=tarefa+" + session.random.nextInt(1000),
+					null);
+		}
+	},
+
+	LIST_USERS {
+		@Override
+		HttpResponse<byte[]> send(Session session) throws IOException, InterruptedException {
+			return session.api.send("GET", "/api/users", null);
+		}
+	},
+
+	CREATE_TASK {
+		@Override
+		HttpResponse<byte[]> send(Session session) throws IOException, InterruptedException {
+			HttpResponse<byte[]> response = session.api.send("POST", "/api/tasks", session.newTask());
+			if (response.statusCode() == 200) {
+				session.created.add(session.api.readId(response));
+			}
+			return response;
+		}
+	},
+
+	UPDATE_TASK {
+		@Override
+		HttpResponse<byte[]> send(Session session) throws IOException, InterruptedException {
+			long id = session.ownTask();
+			return session.api.send("PUT", "/api/tasks/" + id, session.changedTask(id));
+		}
+	},
+
+	DELETE_TASK {
+		@Override
+		HttpResponse<byte[]> send(Session session) throws IOException, InterruptedException {
+			return session.api.send("DELETE", "/api/tasks/" + session.created.poll(), null);
+		}
+
+		@Override
+		Operation when(Session session) {
+			return session.created.isEmpty() ? CREATE_TASK : this;
+		}
+	},
+
+	UPDATE_USER {
+		@Override
+		HttpResponse<byte[]> send(Session session) throws IOException, InterruptedException {
+			int index = session.random.nextInt(session.users.size());
+			return session.api.send("PUT", "/api/users/" + session.users.get(index),
+					new User(null, index == 0 ? "root" : "carga-" + index, String.valueOf(session.random.nextInt(5))));
+		}
+	},
+
+	BULK_CREATE {
+		@Override
+		HttpResponse<byte[]> send(Session session) throws IOException, InterruptedException {
+			List<TaskDto> tasks = new ArrayList<>(session.batchSize);
+			for (int i = 0; i < session.batchSize; i++) {
+				tasks.add(session.newTask());
+			}
+			HttpResponse<byte[]> response = session.api.send("POST", "/api/tasks/batch", tasks);
+			if (response.statusCode() == 200) {
+				session.created.addAll(session.api.readCreatedIds(response));
+			}
+			return response;
+		}
+	},
+
+	BULK_UPDATE {
+		@Override
+		HttpResponse<byte[]> send(Session session) throws IOException, InterruptedException {
+			List<TaskBatchUpdateDto> tasks = new ArrayList<>(session.batchSize);
+			for (int i = 0; i < session.batchSize; i++) {
+				tasks.add(session.changedTask(session.ownTask()));
+			}
+			return session.api.send("PUT", "/api/tasks/batch", tasks);
+		}
+	},
+
+	BULK_DELETE {
+		@Override
+		HttpResponse<byte[]> send(Session session) throws IOException, InterruptedException {
+			List<Long> ids = new ArrayList<>(session.batchSize);
+			while (ids.size() < session.batchSize && !session.created.isEmpty()) {
+				ids.add(session.created.poll());
+			}
+			return session.api.send("DELETE", "/api/tasks/batch", ids);
+		}
+
+		@Override
+		Operation when(Session session) {
+			return session.created.size() < session.batchSize ? BULK_CREATE : this;
+		}
+	};
+
+	abstract HttpResponse<byte[]> send(Session session) throws IOException, InterruptedException;
+
+	/**
+	 * The operation to run in place of this one, for deletes when the client
+	 * has not created enough tasks yet.
+	 */
+	Operation when(Session session) {
+		return this;
+	}
+
+	/**
+	 * What one client works on. Task updates only touch the seeded tasks of
+	 * this client, so that clients never fail each other's optimistic locks;
+	 * deletes only remove tasks this client created.
+	 */
+	static class Session {
+
+		final TaskApiClient api;
+
+		final SplittableRandom random;
+
+		final List<Long> users;
+
+		final int batchSize;
+
+		final Deque<Long> created = new ArrayDeque<>();
+
+		private final List<Long> ownTasks;
+
+		private final int client;
+
+		private long sequence;
+
+		Session(TaskApiClient api, int client, int clients, List<Long> users, List<Long> tasks, int batchSize) {
+			this.api = api;
+			this.client = client;
+			this.random = new SplittableRandom(client);
+			this.users = users;
+			this.batchSize = batchSize;
+			this.ownTasks = slice(tasks, client, clients);
+		}
+
+		Long anyUser() {
+			return users.get(random.nextInt(users.size()));
+		}
+
+		long ownTask() {
+			return ownTasks.get(random.nextInt(ownTasks.size()));
+		}
+
+		TaskDto newTask() {
+			return TaskApiClient.task(anyUser(), 1_000_000_000L * (client + 1) + sequence++);
+		}
+
+		TaskBatchUpdateDto changedTask(long id) {
+			TaskBatchUpdateDto task = new TaskBatchUpdateDto();
+			task.setId(id);
+			task.setTitle("Tarefa " + id + " (alterada)");
+			task.setDescription("Descrição da tarefa " + id);
+			task.setStatus(Status.values()[random.nextInt(Status.values().length)]);
+			return task;
+		}
+
+		/**
+		 * Every {@code clients}-th task starting at {@code client}, or all of
+		 * them when there are fewer tasks than clients.
+		 */
+		private static List<Long> slice(List<Long> tasks, int client, int clients) {
+			List<Long> slice = new ArrayList<>();
+			for (int i = client; i < tasks.size(); i += clients) {
+				slice.add(tasks.get(i));
+			}
+			return slice.isEmpty() ? tasks : slice;
+		}
+
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.selaz.to_do_list.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selaz.to_do_list.dto.BatchResultDto;
+import com.selaz.to_do_list.dto.TaskDto;
+import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.model.User;
+
+/**
+ * The task and user API over HTTP, authenticated as "root" with HTTP Basic,
+ * through the same security filters, Jackson converters and database as any
+ * other client.
+ */
+public class TaskApiClient {
+
+	/**
+	 * Largest batch the API accepts.
+	 */
+	private static final int MAX_BATCH = 10000;
+
+	private static final long DAY = 24L * 60 * 60 * 1000;
+
+	private static final TypeReference<List<BatchResultDto>> BATCH_RESULTS = new TypeReference<>() {
+	};
+
+	private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(10)).build();
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final String base;
+
+	private final String authorization = "Basic "
+			+ Base64.getEncoder().encodeToString("root:123".getBytes(StandardCharsets.UTF_8));
+
+	public TaskApiClient(int port) {
+		this.base = "http://localhost:" + port;
+	}
+
+	/**
+	 * Sends a request, with {@code body} as JSON when not null, and returns the
+	 * response status and body.
+	 */
+	public HttpResponse<byte[]> send(String method, String path, Object body)
+			throws IOException, InterruptedException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+				.timeout(Duration.ofSeconds(60)).header("Authorization", authorization);
+		if (body == null) {
+			request.method(method, HttpRequest.BodyPublishers.noBody());
+		} else {
+			request.header("Content-Type", "application/json").method(method,
+					HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)));
+		}
+		return http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	public Long readId(HttpResponse<byte[]> response) throws IOException {
+		return mapper.readTree(response.body()).path("id").asLong();
+	}
+
+	/**
+	 * IDs of the tasks a batch created, skipping the items that failed.
+	 */
+	public List<Long> readCreatedIds(HttpResponse<byte[]> response) throws IOException {
+		List<Long> ids = new ArrayList<>();
+		for (BatchResultDto result : mapper.readValue(response.body(), BATCH_RESULTS)) {
+			if (result.getStatus() == 200 && result.getId() != null) {
+				ids.add(result.getId());
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Creates "root", whose tasks {@code GET /api/tasks} lists, and
+	 * {@code count - 1} more users.
+	 */
+	public List<Long> createUsers(int count) throws IOException, InterruptedException {
+		List<Long> ids = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			User user = new User(null, i == 0 ? "root" : "carga-" + i, "1");
+			ids.add(readId(expectOk(send("POST", "/api/users", user))));
+		}
+		return ids;
+	}
+
+	/**
+	 * Creates {@code count} tasks spread over the users, in the largest batches
+	 * the API accepts.
+	 */
+	public List<Long> createTasks(List<Long> userIds, int count) throws IOException, InterruptedException {
+		List<Long> ids = new ArrayList<>(count);
+		for (int from = 0; from < count; from += MAX_BATCH) {
+			List<TaskDto> tasks = new ArrayList<>();
+			for (int i = from; i < Math.min(from + MAX_BATCH, count); i++) {
+				tasks.add(task(userIds.get(i % userIds.size()), i));
+			}
+			ids.addAll(readCreatedIds(expectOk(send("POST", "/api/tasks/batch", tasks))));
+		}
+		return ids;
+	}
+
+	static TaskDto task(Long userId, long n) {
+		TaskDto task = new TaskDto();
+		task.setUser_id(userId);
+		task.setTitle("Tarefa " + n);
+		task.setDescription("Descrição da tarefa " + n);
+		task.setDueDate(new Date(System.currentTimeMillis() + (n % 365) * DAY));
+		task.setStatus(Status.values()[(int) (n % Status.values().length)]);
+		return task;
+	}
+
+	private static HttpResponse<byte[]> expectOk(HttpResponse<byte[]> response) {
+		if (response.statusCode() / 100 != 2) {
+			throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode() + ": "
+					+ new String(response.body(), StandardCharsets.UTF_8));
+		}
+		return response;
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.selaz.to_do_list.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A mix of operations, each picked with its weight out of 100.
+ */
+public enum Workload {
+
+	READ_HEAVY(Map.of(Operation.LIST_TASKS, 50, Operation.USER_TASKS, 30, Operation.SEARCH_TASKS, 5,
+			Operation.LIST_USERS, 5, Operation.CREATE_TASK, 5, Operation.UPDATE_TASK, 5)),
+
+	WRITE_HEAVY(Map.of(Operation.LIST_TASKS, 10, Operation.USER_TASKS, 10, Operation.CREATE_TASK, 40,
+			Operation.UPDATE_TASK, 25, Operation.DELETE_TASK, 10, Operation.UPDATE_USER, 5)),
+
+	BULK(Map.of(Operation.BULK_CREATE, 40, Operation.BULK_UPDATE, 30, Operation.BULK_DELETE, 20,
+			Operation.LIST_TASKS, 10));
+
+	private final Operation[] picks = new Operation[100];
+
+	Workload(Map<Operation, Integer> weights) {
+		int next = 0;
+		// Em ordem de Operation, para o sorteio não depender da ordem do Map.of
+		for (Map.Entry<Operation, Integer> entry : new EnumMap<>(weights).entrySet()) {
+			for (int i = 0; i < entry.getValue(); i++) {
+				picks[next++] = entry.getKey();
+			}
+		}
+		if (next != picks.length) {
+			throw new IllegalStateException(name() + " weights add up to " + next + ", not 100");
+		}
+	}
+
+	Operation pick(Operation.Session session) {
+		return picks[session.random.nextInt(picks.length)].when(session);
+	}
+
+	/**
+	 * Name in the configuration and the report, such as {@code read-heavy}.
+	 */
+	public String key() {
+		return name().toLowerCase().replace('_', '-');
+	}
+
+	public static Workload of(String key) {
+		for (Workload workload : values()) {
+			if (workload.key().equals(key)) {
+				return workload;
+			}
+		}
+		throw new IllegalArgumentException("Unknown workload " + key);
+	}
+
+}
@@ -0,0 +1,155 @@
+package com.selaz.to_do_list.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latencies and errors of one workload, per operation and in total. Clients
+ * record concurrently; latencies are kept in microseconds with three
+ * significant digits.
+ */
+public class WorkloadResult {
+
+	private final Workload workload;
+
+	private final Duration measured;
+
+	private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+
+	private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+	private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+
+	private final Histogram total = new Histogram(3);
+
+	public WorkloadResult(Workload workload, Duration measured) {
+		this.workload = workload;
+		this.measured = measured;
+		for (Operation operation : Operation.values()) {
+			recorders.put(operation, new Recorder(3));
+			errors.put(operation, new LongAdder());
+		}
+	}
+
+	public void record(Operation operation, long latencyNanos, boolean ok) {
+		recorders.get(operation).recordValue(Math.max(1, latencyNanos / 1000));
+		if (!ok) {
+			errors.get(operation).increment();
+		}
+	}
+
+	/**
+	 * Collects what the clients recorded; call once they have stopped.
+	 */
+	public void finish() {
+		for (Map.Entry<Operation, Recorder> entry : recorders.entrySet()) {
+			Histogram histogram = entry.getValue().getIntervalHistogram();
+			if (histogram.getTotalCount() > 0) {
+				histograms.put(entry.getKey(), histogram);
+				total.add(histogram);
+			}
+		}
+	}
+
+	public double throughput() {
+		return total.getTotalCount() / (measured.toNanos() / 1e9);
+	}
+
+	public double errorRate() {
+		long count = total.getTotalCount();
+		return count == 0 ? 0 : errorCount() / (double) count;
+	}
+
+	/**
+	 * Limits this run missed, one message each.
+	 */
+	public List<String> violations(LoadTestConfig config) {
+		List<String> violations = new ArrayList<>();
+		if (total.getTotalCount() == 0) {
+			violations.add(workload.key() + ": no requests completed");
+			return violations;
+		}
+		for (String percentile : List.of("p50", "p99", "p999")) {
+			Double limit = config.limit(workload, percentile);
+			double value = millis(total, percentile);
+			if (limit != null && value > limit) {
+				violations.add(String.format("%s: %s %.1f ms > %s ms", workload.key(), percentile, value, limit));
+			}
+		}
+		Double minThroughput = config.limit(workload, "min-throughput");
+		if (minThroughput != null && throughput() < minThroughput) {
+			violations.add(String.format("%s: throughput %.1f req/s < %s req/s", workload.key(), throughput(),
+					minThroughput));
+		}
+		Double maxErrorRate = config.maxErrorRate();
+		if (maxErrorRate != null && errorRate() > maxErrorRate) {
+			violations.add(String.format("%s: error rate %.4f > %s", workload.key(), errorRate(), maxErrorRate));
+		}
+		return violations;
+	}
+
+	public void print(PrintStream out) {
+		out.printf("%s: %d requests, %.1f req/s, %d errors%n", workload.key(), total.getTotalCount(), throughput(),
+				errorCount());
+		out.printf("  %-14s %9s %9s %9s %9s %9s %9s %7s%n", "operation", "count", "req/s", "p50 ms", "p99 ms",
+				"p999 ms", "max ms", "errors");
+		histograms.forEach((operation, histogram) -> row(out, operation.name(), histogram,
+				errors.get(operation).sum()));
+		row(out, "total", total, errorCount());
+	}
+
+	public Map<String, Object> toJson() {
+		Map<String, Object> json = new LinkedHashMap<>();
+		json.put("workload", workload.key());
+		json.put("durationSeconds", measured.toNanos() / 1e9);
+		json.put("throughput", throughput());
+		json.put("errorRate", errorRate());
+		json.put("total", summary(total, errorCount()));
+		Map<String, Object> operations = new LinkedHashMap<>();
+		histograms.forEach((operation, histogram) -> operations.put(operation.name(),
+				summary(histogram, errors.get(operation).sum())));
+		json.put("operations", operations);
+		return json;
+	}
+
+	private void row(PrintStream out, String name, Histogram histogram, long errorCount) {
+		out.printf("  %-14s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7d%n", name, histogram.getTotalCount(),
+				histogram.getTotalCount() / (measured.toNanos() / 1e9), millis(histogram, "p50"),
+				millis(histogram, "p99"), millis(histogram, "p999"), histogram.getMaxValue() / 1000.0, errorCount);
+	}
+
+	private Map<String, Object> summary(Histogram histogram, long errorCount) {
+		Map<String, Object> summary = new LinkedHashMap<>();
+		summary.put("count", histogram.getTotalCount());
+		summary.put("errors", errorCount);
+		summary.put("p50Millis", millis(histogram, "p50"));
+		summary.put("p99Millis", millis(histogram, "p99"));
+		summary.put("p999Millis", millis(histogram, "p999"));
+		summary.put("maxMillis", histogram.getMaxValue() / 1000.0);
+		return summary;
+	}
+
+	private long errorCount() {
+		return errors.values().stream().mapToLong(LongAdder::sum).sum();
+	}
+
+	private static double millis(Histogram histogram, String percentile) {
+		double value = switch (percentile) {
+		case "p50" -> 50.0;
+		case "p99" -> 99.0;
+		case "p999" -> 99.9;
+		default -> throw new IllegalArgumentException(percentile);
+		};
+		return histogram.getValueAtPercentile(value) / 1000.0;
+	}
+
+}
@@ -0,0 +1,19 @@
+package com.selaz.to_do_list.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches are created by Spring Boot from the {@code spring.cache.*} properties
+ * (Caffeine, bounded size, per-entry TTL, statistics for the
+ * {@code cache.*} metrics).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+	public static final String USERS_BY_ID = "usersById";
+
+	public static final String USERS_BY_USERNAME = "usersByUsername";
+
+}
@@ -0,0 +1,30 @@
+package com.selaz.to_do_list.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Async} and {@code @Scheduled}. Both run on the executors
+ * Spring Boot creates, which use virtual threads when
+ * {@code spring.threads.virtual.enabled} is set (profile "virtual") on JDK 21+.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class ExecutionConfiguration {
+
+	private static final Logger log = LoggerFactory.getLogger(ExecutionConfiguration.class);
+
+	public ExecutionConfiguration(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+		if (virtualThreads && !JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+			log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; using platform threads",
+					System.getProperty("java.version"));
+		}
+	}
+
+}
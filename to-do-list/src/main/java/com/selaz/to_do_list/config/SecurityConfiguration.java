@@ -1,7 +1,16 @@
 package com.selaz.to_do_list.config;
 
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,19 +19,26 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import com.selaz.to_do_list.security.CachingDaoAuthenticationProvider;
+import com.selaz.to_do_list.security.TokenAuthenticationFilter;
+import com.selaz.to_do_list.security.TokenService;
+import com.selaz.to_do_list.security.VerifiedCredentialsCache;
 
 @Configuration
 public class SecurityConfiguration {
 
 	@Bean
-	public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-		http.csrf().disable() // Desabilitar CSRF (somente para simplificação; revisar em produção)
+	public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService) throws Exception {
+		http.csrf(csrf -> csrf.disable()) // Desabilitar CSRF (somente para simplificação; revisar em produção)
 				.authorizeHttpRequests(
 						(requests) -> requests.requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll() // Swagger
 								// sem
 								// autenticação
 								.anyRequest().authenticated() // Exigir autenticação para todas as outras rotas
-				).httpBasic(); // Autenticação básica
+				).httpBasic(Customizer.withDefaults()); // Autenticação básica
+		http.addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class); // Token
 
 		return http.build();
 	}
@@ -40,4 +56,33 @@ public class SecurityConfiguration {
 		return new BCryptPasswordEncoder();
 	}
 
+	@Bean
+	public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+			PasswordEncoder passwordEncoder, @Value("${security.credential-cache.enabled:true}") boolean cacheEnabled,
+			@Value("${security.credential-cache.max-size:10000}") int cacheMaxSize,
+			@Value("${security.credential-cache.ttl:PT5M}") Duration cacheTtl) {
+		DaoAuthenticationProvider provider = cacheEnabled
+				? new CachingDaoAuthenticationProvider(passwordEncoder,
+						new VerifiedCredentialsCache(cacheMaxSize, cacheTtl, Clock.systemUTC()))
+				: new DaoAuthenticationProvider(passwordEncoder);
+		provider.setUserDetailsService(userDetailsService);
+
+		return provider;
+	}
+
+	@Bean
+	public TokenService tokenService(UserDetailsService userDetailsService,
+			@Value("${security.token.secret:}") String secret, @Value("${security.token.ttl:PT15M}") Duration ttl) {
+		byte[] key;
+		if (secret.isEmpty()) {
+			// Sem segredo configurado, os tokens valem apenas até o próximo restart
+			key = new byte[32];
+			new SecureRandom().nextBytes(key);
+		} else {
+			key = Base64.getDecoder().decode(secret);
+		}
+
+		return new TokenService(key, ttl, Clock.systemUTC(), userDetailsService);
+	}
+
 }
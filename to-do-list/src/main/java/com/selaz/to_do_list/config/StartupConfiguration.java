@@ -0,0 +1,63 @@
+package com.selaz.to_do_list.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.selaz.to_do_list.datasource.H2ReplicationStandIn;
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.metrics.SqlStatementCounter;
+import com.selaz.to_do_list.model.Task;
+import com.selaz.to_do_list.service.TaskChangeStream;
+import com.selaz.to_do_list.service.TaskDeadlineScheduler;
+import com.selaz.to_do_list.service.TaskIngestQueue;
+import com.selaz.to_do_list.service.TaskSearchIndex;
+import com.selaz.to_do_list.service.TaskSummaryCounters;
+import com.selaz.to_do_list.shard.TaskShards;
+
+/**
+ * What the fast-start builds need beyond what Spring AOT finds on its own:
+ * beans that must start eagerly under lazy initialization (profile "lazy"),
+ * and the reflection and resources used by name in a native image (Maven
+ * profile "native").
+ */
+@Configuration
+@ImportRuntimeHints(StartupConfiguration.NativeHints.class)
+@RegisterReflectionForBinding({ Task.class, TaskItemDto.class })
+public class StartupConfiguration {
+
+	/**
+	 * Beans that rebuild their state from the tables at startup and then follow
+	 * it through change events, or that run on a timer. Created at the first
+	 * event, they would count the change that created them twice; created at
+	 * the first request, their timers would not run until then.
+	 */
+	@Bean
+	static LazyInitializationExcludeFilter eagerServices() {
+		return LazyInitializationExcludeFilter.forBeanTypes(TaskSummaryCounters.class, TaskSearchIndex.class,
+				TaskDeadlineScheduler.class, TaskChangeStream.class, TaskIngestQueue.class, TaskShards.class,
+				H2ReplicationStandIn.class);
+	}
+
+	/**
+	 * Hibernate creates the statement inspector from its class name and the
+	 * task projections through their constructors ({@code select new} and
+	 * {@code cb.construct}). The task shards run their own migrations.
+	 */
+	static class NativeHints implements RuntimeHintsRegistrar {
+
+		@Override
+		public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+			hints.reflection().registerType(SqlStatementCounter.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+			hints.reflection().registerType(TaskItemDto.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+			hints.resources().registerPattern("db/shard/*.sql");
+		}
+
+	}
+
+}
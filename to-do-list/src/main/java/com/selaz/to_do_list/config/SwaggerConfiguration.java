@@ -8,8 +8,9 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.security.SecurityScheme;
 
 @Configuration
-@OpenAPIDefinition(info = @io.swagger.v3.oas.annotations.info.Info(title = "Task Management API", version = "v1", description = "This API aims to manage users and tasks."), security = @SecurityRequirement(name = "basicAuth"))
+@OpenAPIDefinition(info = @io.swagger.v3.oas.annotations.info.Info(title = "Task Management API", version = "v1", description = "This API aims to manage users and tasks."), security = { @SecurityRequirement(name = "basicAuth"), @SecurityRequirement(name = "bearerAuth") })
 @SecurityScheme(name = "basicAuth", type = SecuritySchemeType.HTTP, scheme = "basic")
+@SecurityScheme(name = "bearerAuth", type = SecuritySchemeType.HTTP, scheme = "bearer")
 public class SwaggerConfiguration {
 
 }
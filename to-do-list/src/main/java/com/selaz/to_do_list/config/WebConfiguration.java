@@ -0,0 +1,79 @@
+package com.selaz.to_do_list.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+	private final ObjectProvider<OpenEntityManagerInViewInterceptor> openEntityManagerInView;
+
+	public WebConfiguration(ObjectProvider<OpenEntityManagerInViewInterceptor> openEntityManagerInView) {
+		this.openEntityManagerInView = openEntityManagerInView;
+	}
+
+	/**
+	 * Replaces the open-in-view interceptor Spring Boot would register, so the
+	 * task stream can be left out of it.
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = "spring.jpa", name = "open-in-view", havingValue = "true", matchIfMissing = true)
+	public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+		return new OpenEntityManagerInViewInterceptor();
+	}
+
+	/**
+	 * {@code application/cbor} for clients that send it in Accept; JSON stays
+	 * the default.
+	 */
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(binaryMapper(builder, new CBORFactory()));
+	}
+
+	/**
+	 * {@code application/x-jackson-smile}, same as CBOR.
+	 */
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(binaryMapper(builder, new SmileFactory()));
+	}
+
+	/**
+	 * The application's Jackson settings on a binary format, with dates as
+	 * epoch milliseconds: an ISO string costs about 30 bytes, a number 9.
+	 */
+	public static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+		return builder.factory(factory).featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+	}
+
+	@Override
+	public void addFormatters(FormatterRegistry registry) {
+		// Enums em parâmetros sem diferenciar maiúsculas (status=concluida, sort=dueDate)
+		ApplicationConversionService.addApplicationConverters(registry);
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		// Um stream fica aberto por minutos e prenderia uma conexão do pool durante todo esse tempo
+		openEntityManagerInView.ifAvailable(interceptor -> registry.addWebRequestInterceptor(interceptor)
+				.excludePathPatterns("/api/tasks/stream"));
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.selaz.to_do_list.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.selaz.to_do_list.dto.TokenDto;
+import com.selaz.to_do_list.security.TokenAuthentication;
+import com.selaz.to_do_list.security.TokenService;
+
+import io.swagger.v3.oas.annotations.Operation;
+
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+
+	@Autowired
+	private TokenService tokenService;
+
+	@Operation(summary = "Issue an access token", description = "Exchange the HTTP Basic credentials of this request for a signed bearer token. A bearer token cannot be used to get a new one. Requests sent with 'Authorization: Bearer <token>' skip the password check until the token expires or the password changes.")
+	@PostMapping("/token")
+	public TokenDto createToken() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		// Renovar com o próprio token o tornaria eterno; um novo exige a senha
+		if (authentication instanceof TokenAuthentication) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED,
+					"A token can only be issued for HTTP Basic credentials");
+		}
+		UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+
+		return tokenService.issue(userDetails);
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.selaz.to_do_list.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.selaz.to_do_list.dto.BackupDto;
+import com.selaz.to_do_list.service.DatabaseBackupService;
+
+import io.swagger.v3.oas.annotations.Operation;
+
+@RestController
+@RequestMapping("/api/backups")
+public class BackupController {
+
+	@Autowired
+	private DatabaseBackupService databaseBackupService;
+
+	@Operation(summary = "Back up the database", description = "Write a zip of the database files to the backup directory while the application keeps serving reads and writes. Only available with a file-based database (profile \"file\").")
+	@PostMapping
+	public ResponseEntity<BackupDto> createBackup() {
+		if (!databaseBackupService.isSupported()) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "Backups need a file-based database");
+		}
+
+		return ResponseEntity.status(HttpStatus.CREATED).body(databaseBackupService.backup());
+	}
+
+}
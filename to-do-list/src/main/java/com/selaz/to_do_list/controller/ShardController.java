@@ -0,0 +1,80 @@
+package com.selaz.to_do_list.controller;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.selaz.to_do_list.dto.ShardDto;
+import com.selaz.to_do_list.dto.ShardMoveDto;
+import com.selaz.to_do_list.repository.UserRepository;
+import com.selaz.to_do_list.shard.ShardRebalancer;
+import com.selaz.to_do_list.shard.TaskShards;
+
+import io.swagger.v3.oas.annotations.Operation;
+
+@RestController
+@RequestMapping("/api/shards")
+public class ShardController {
+
+	@Autowired
+	private TaskShards taskShards;
+
+	@Autowired
+	private ShardRebalancer shardRebalancer;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Operation(summary = "List the task shards", description = "Tasks and users on each shard, and how many users the directory keeps away from their ring shard. Only available with shards (profile \"sharded\").")
+	@GetMapping
+	public List<ShardDto> getShards() {
+		checkSharded();
+		return shardRebalancer.shards();
+	}
+
+	@Operation(summary = "Rebalance the shards", description = "Move up to limit users whose tasks are away from their ring shard, as after adding a shard, one user at a time while the application keeps serving them.")
+	@PostMapping("/rebalance")
+	public List<ShardMoveDto> rebalance(@RequestParam(defaultValue = "100") int limit)
+			throws SQLException, InterruptedException {
+		checkSharded();
+		return shardRebalancer.rebalance(Math.max(1, limit));
+	}
+
+	@Operation(summary = "Move a user to another shard", description = "Copy the user's tasks to the given shard and switch the user over while the application keeps serving them. Work on the source shard waits only for the last changes to be copied. Answers 503 when the source shard stays too busy to lock.")
+	@PostMapping("/users/{userId}")
+	public ResponseEntity<ShardMoveDto> moveUser(@PathVariable Long userId, @RequestParam int shard)
+			throws SQLException, InterruptedException {
+		checkSharded();
+
+		if (shard < 0 || shard >= taskShards.count()) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No shard " + shard);
+		}
+
+		if (!userRepository.findById(userId).isPresent()) {
+			return ResponseEntity.notFound().build();
+		}
+
+		ShardMoveDto move = shardRebalancer.move(userId, shard);
+		if (move == null) {
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Shard too busy, try again");
+		}
+		return ResponseEntity.ok(move);
+	}
+
+	private void checkSharded() {
+		if (!taskShards.isSharded()) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "Tasks are not sharded");
+		}
+	}
+
+}
@@ -1,30 +1,67 @@
 package com.selaz.to_do_list.controller;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.selaz.to_do_list.dto.BatchResultDto;
+import com.selaz.to_do_list.dto.CursorPage;
+import com.selaz.to_do_list.dto.DeleteResultDto;
+import com.selaz.to_do_list.dto.IngestTicketDto;
+import com.selaz.to_do_list.dto.TaskCursor;
+import com.selaz.to_do_list.dto.TaskDueAlertDto;
+import com.selaz.to_do_list.dto.TaskBatchUpdateDto;
 import com.selaz.to_do_list.dto.TaskDto;
+import com.selaz.to_do_list.dto.TaskFilter;
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.dto.TaskPatchDto;
+import com.selaz.to_do_list.dto.TaskSummaryDto;
+import com.selaz.to_do_list.event.TaskChange;
+import com.selaz.to_do_list.event.TaskChangedEvent;
 import com.selaz.to_do_list.model.Status;
 import com.selaz.to_do_list.model.Task;
 import com.selaz.to_do_list.model.User;
 import com.selaz.to_do_list.repository.TaskRepository;
 import com.selaz.to_do_list.repository.UserRepository;
+import com.selaz.to_do_list.service.TaskBatchService;
+import com.selaz.to_do_list.service.TaskChangeStream;
+import com.selaz.to_do_list.service.TaskDeadlineScheduler;
+import com.selaz.to_do_list.service.TaskExportService;
+import com.selaz.to_do_list.service.TaskIngestQueue;
+import com.selaz.to_do_list.service.TaskListVersions;
+import com.selaz.to_do_list.service.TaskSearchIndex;
+import com.selaz.to_do_list.service.TaskSummaryCounters;
+import com.selaz.to_do_list.shard.TaskShards;
 
 import io.swagger.v3.oas.annotations.Operation;
 
@@ -32,36 +69,73 @@ import io.swagger.v3.oas.annotations.Operation;
 @RequestMapping("/api/tasks")
 public class TaskController {
 
+	static final int DEFAULT_PAGE_SIZE = 50;
+
+	static final int MAX_PAGE_SIZE = 500;
+
+	static final int MAX_BATCH_SIZE = 10_000;
+
+	static final String NDJSON = "application/x-ndjson";
+
 	@Autowired
 	private TaskRepository taskRepository;
 
 	@Autowired
 	private UserRepository userRepository;
 
-	@Operation(summary = "List all tasks", description = "Retrieve all tasks with optional filters for status and sorting by due date.")
+	@Autowired
+	private TaskBatchService taskBatchService;
+
+	@Autowired
+	private TaskExportService taskExportService;
+
+	@Autowired
+	private TaskListVersions taskListVersions;
+
+	@Autowired
+	private TaskSummaryCounters taskSummaryCounters;
+
+	@Autowired
+	private TaskSearchIndex taskSearchIndex;
+
+	@Autowired
+	private TaskDeadlineScheduler taskDeadlineScheduler;
+
+	@Autowired
+	private TaskIngestQueue taskIngestQueue;
+
+	@Autowired
+	private TaskChangeStream taskChangeStream;
+
+	@Autowired
+	private TaskShards taskShards;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Operation(summary = "List all tasks", description = "Retrieve a page of the current user's tasks, optionally filtered by statuses, due-date range and creation range and sorted by id, due date or creation date. Pass the returned next cursor to fetch the following page. Answers 304 when If-None-Match matches the current ETag.")
 	@GetMapping
-	public List<Task> getAllTasks(@RequestParam(required = false) String status,
-			@RequestParam(required = false) String sort) {
+	public CursorPage<TaskItemDto> getAllTasks(@ParameterObject TaskFilter filter,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+			ServletWebRequest request) {
 
-		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-		UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-		String username = userDetails.getUsername();
+		User currentUser = currentUser();
 
-		User currentUser = userRepository.findByUsername(username);
+		if (currentUser == null) {
+			return new CursorPage<>(List.of(), null);
+		}
 
-		if (status != null) {
-			Status taskStatus = Status.valueOf(status.toUpperCase());
-			return taskRepository.findByStatus(taskStatus);
-		} else if ("dueDate".equals(sort)) {
-			return taskRepository.findAllByOrderByDueDate();
-		} else {
-			return taskRepository.findByUser(currentUser);
+		if (notModified(request, taskListVersions.etag(currentUser.getId()))) {
+			return null;
 		}
+
+		filter.setUserId(currentUser.getId());
+		return search(filter, cursor, limit);
 	}
 
 	@Operation(summary = "Create a new task", description = "Create a new task and save it in the database.")
 	@PostMapping
-	public ResponseEntity<Task> createTask(@RequestBody TaskDto taskDto) {
+	public ResponseEntity<TaskItemDto> createTask(@RequestBody TaskDto taskDto) {
 		Optional<User> user = userRepository.findById(taskDto.getUser_id());
 
 		if (!user.isPresent()) {
@@ -76,13 +150,47 @@ public class TaskController {
 		taskToSave.setDueDate(taskDto.getDueDate());
 		taskToSave.setStatus(taskDto.getStatus());
 
-		final Task savedTask = taskRepository.save(taskToSave);
-		return ResponseEntity.ok(savedTask);
+		final Task savedTask = taskShards.onUserShard(taskToSave.getUser().getId(),
+				() -> taskRepository.save(taskToSave));
+		TaskItemDto created = TaskItemDto.of(savedTask);
+		publishChanged(TaskChange.created(created, savedTask.getDescription()));
+		return ResponseEntity.ok(created);
+	}
+
+	@Operation(summary = "Queue a task for creation", description = "Accept a task for asynchronous creation and answer 202 with a ticket right away. Queued tasks are committed in batches; poll the ticket for the ID of the created task. Answers 429 when the queue is full and 404 when asynchronous ingestion is disabled.")
+	@PostMapping("/ingest")
+	public ResponseEntity<IngestTicketDto> ingestTask(@RequestBody TaskDto taskDto) {
+		if (!taskIngestQueue.isEnabled() || taskDto.getUser_id() == null
+				|| !userRepository.findById(taskDto.getUser_id()).isPresent()) {
+			return ResponseEntity.notFound().build();
+		}
+
+		IngestTicketDto ticket = taskIngestQueue.submit(taskDto);
+		if (ticket == null) {
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").build();
+		}
+		return ResponseEntity.accepted().body(ticket);
+	}
+
+	@Operation(summary = "Check a queued task", description = "State of a task queued for asynchronous creation: QUEUED, COMMITTED with the task's ID, or FAILED.")
+	@GetMapping("/ingest/{ticket}")
+	public ResponseEntity<IngestTicketDto> getIngestTicket(@PathVariable long ticket) {
+		IngestTicketDto status = taskIngestQueue.isEnabled() ? taskIngestQueue.status(ticket) : null;
+
+		if (status == null) {
+			return ResponseEntity.notFound().build();
+		}
+
+		return ResponseEntity.ok(status);
 	}
 
 	@Operation(summary = "Update an existing task", description = "Update a task's details using its ID.")
 	@PutMapping("/{id}")
-	public ResponseEntity<Task> updateTask(@PathVariable Long id, @RequestBody TaskDto taskDto) {
+	public ResponseEntity<TaskItemDto> updateTask(@PathVariable Long id, @RequestBody TaskDto taskDto) {
+		return taskShards.onTaskShard(id, () -> update(id, taskDto));
+	}
+
+	private ResponseEntity<TaskItemDto> update(Long id, TaskDto taskDto) {
 		Optional<Task> oldTask = taskRepository.findById(id);
 
 		if (!oldTask.isPresent()) {
@@ -90,38 +198,321 @@ public class TaskController {
 		}
 
 		Task task = oldTask.get();
+		TaskItemDto before = TaskItemDto.of(task);
 		task.setTitle(taskDto.getTitle());
 		task.setDescription(taskDto.getDescription());
 		task.setDueDate(taskDto.getDueDate());
 		task.setStatus(taskDto.getStatus());
 
 		final Task updatedTask = taskRepository.save(task);
-		return ResponseEntity.ok(updatedTask);
+		TaskItemDto updated = TaskItemDto.of(updatedTask);
+		publishChanged(TaskChange.updated(before, updated, updatedTask.getDescription()));
+		return ResponseEntity.ok(updated);
+	}
+
+	@Operation(summary = "Patch a task", description = "Change only the fields present in the body, in a single UPDATE that also checks the version last read. A field sent as null is cleared (JSON Merge Patch). Answers 409 when the task was changed in the meantime.")
+	@PatchMapping("/{id}")
+	public ResponseEntity<TaskItemDto> patchTask(@PathVariable Long id, @RequestBody TaskPatchDto patch) {
+		return patch(id, patch);
+	}
+
+	@Operation(summary = "Change a task's status", description = "Set only the status, in a single UPDATE that also checks the version last read. Answers 409 when the task was changed in the meantime.")
+	@PatchMapping("/{id}/status")
+	public ResponseEntity<TaskItemDto> changeStatus(@PathVariable Long id, @RequestParam Status status,
+			@RequestParam Long version) {
+		TaskPatchDto patch = new TaskPatchDto();
+		patch.setStatus(status);
+		patch.setVersion(version);
+		return patch(id, patch);
 	}
 
 	@Operation(summary = "Delete a task", description = "Delete a task using its ID.")
 	@DeleteMapping("/{id}")
 	public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
-		Optional<Task> taskToDelete = taskRepository.findById(id);
+		List<TaskItemDto> deleted = taskShards.onTaskShard(id, () -> taskRepository.deleteItemById(id));
 
-		if (!taskToDelete.isPresent()) {
+		if (deleted.isEmpty()) {
 			return ResponseEntity.notFound().build();
 		}
 
-		taskRepository.delete(taskToDelete.get());
+		publishChanged(TaskChange.deleted(deleted.get(0)));
 		return ResponseEntity.noContent().build();
 	}
 
-	@Operation(summary = "List tasks of a specific user", description = "Retrieve all tasks assigned to a specific user by their user ID.")
+	@Operation(summary = "Delete my tasks by filter", description = "Delete every task of the current user matching the given statuses and date ranges, for example all CONCLUIDA tasks or those created before a date, in a single statement. At least one filter is required.")
+	@DeleteMapping
+	public DeleteResultDto deleteMatchingTasks(@ParameterObject TaskFilter filter) {
+		if ((filter.getStatus() == null || filter.getStatus().isEmpty()) && filter.getDueFrom() == null
+				&& filter.getDueTo() == null && filter.getCreatedFrom() == null && filter.getCreatedTo() == null) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one filter is required");
+		}
+
+		User currentUser = currentUser();
+
+		if (currentUser == null) {
+			return new DeleteResultDto(0);
+		}
+
+		filter.setUserId(currentUser.getId());
+		List<TaskItemDto> deleted = taskShards.onUserShard(currentUser.getId(),
+				() -> taskRepository.deleteMatching(filter));
+		if (!deleted.isEmpty()) {
+			List<TaskChange> changes = new ArrayList<>(deleted.size());
+			for (TaskItemDto task : deleted) {
+				changes.add(TaskChange.deleted(task));
+			}
+			eventPublisher.publishEvent(new TaskChangedEvent(changes));
+		}
+		return new DeleteResultDto(deleted.size());
+	}
+
+	@Operation(summary = "Create tasks in bulk", description = "Create up to 10000 tasks in a single transaction. Returns one result per item, in request order.")
+	@PostMapping("/batch")
+	public List<BatchResultDto> createTasks(@RequestBody List<TaskDto> taskDtos) {
+		checkBatchSize(taskDtos);
+		return taskShards.batchByUser(taskDtos, TaskDto::getUser_id, taskBatchService::createTasks);
+	}
+
+	@Operation(summary = "Update tasks in bulk", description = "Update up to 10000 tasks, identified by their IDs, in a single transaction. Returns one result per item, in request order.")
+	@PutMapping("/batch")
+	public List<BatchResultDto> updateTasks(@RequestBody List<TaskBatchUpdateDto> taskDtos) {
+		checkBatchSize(taskDtos);
+		return taskShards.batchByTask(taskDtos, TaskBatchUpdateDto::getId, taskBatchService::updateTasks);
+	}
+
+	@Operation(summary = "Delete tasks in bulk", description = "Delete up to 10000 tasks by ID in a single transaction. Returns one result per ID, in request order.")
+	@DeleteMapping("/batch")
+	public List<BatchResultDto> deleteTasks(@RequestBody List<Long> ids) {
+		checkBatchSize(ids);
+		return taskShards.batchByTask(ids, id -> id, taskBatchService::deleteTasks);
+	}
+
+	@Operation(summary = "Export tasks", description = "Stream all tasks, or the tasks of one user, as newline-delimited JSON (one task per line).")
+	@GetMapping(value = "/export", produces = NDJSON)
+	public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(required = false) Long userId,
+			ServletWebRequest request) {
+		if (userId != null && !userRepository.findById(userId).isPresent()) {
+			return ResponseEntity.notFound().build();
+		}
+
+		String etag = userId == null ? taskListVersions.globalEtag() : taskListVersions.etag(userId);
+		if (notModified(request, etag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+		}
+
+		StreamingResponseBody body;
+		if (userId != null) {
+			body = out -> taskShards.onUserShard(userId, () -> taskExportService.export(userId, out));
+		} else {
+			// Um shard por vez, cada um em sua transação
+			body = out -> taskShards.eachShard(shard -> taskExportService.export(null,
+					task -> taskShards.owns(shard, task.getUser() == null ? null : task.getUser().getId()), out));
+		}
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+	}
+
+	@Operation(summary = "Summarize my tasks", description = "Count the current user's tasks by status, plus those past their due date and not yet completed.")
+	@GetMapping("/summary")
+	public ResponseEntity<TaskSummaryDto> getSummary() {
+		User currentUser = currentUser();
+
+		if (currentUser == null) {
+			return ResponseEntity.notFound().build();
+		}
+
+		return ResponseEntity.ok(taskSummaryCounters.summary(currentUser.getId()));
+	}
+
+	@Operation(summary = "Search my tasks", description = "Full-text search over the current user's task titles and descriptions, ignoring case and accents. Every word must match and the last one also matches as a prefix. Results are ranked by relevance.")
+	@GetMapping("/search")
+	public List<TaskItemDto> searchTasks(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+		User currentUser = currentUser();
+
+		if (currentUser == null) {
+			return List.of();
+		}
+
+		List<Long> ids = taskSearchIndex.search(currentUser.getId(), q, pageSize(limit));
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+
+		// Uma consulta pela chave primária; a ordem de relevância vem do índice
+		Map<Long, TaskItemDto> items = new HashMap<>();
+		for (TaskItemDto item : taskShards.onUserShard(currentUser.getId(), () -> taskRepository.findItemsByIdIn(ids))) {
+			items.put(item.getId(), item);
+		}
+		List<TaskItemDto> ranked = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			TaskItemDto item = items.get(id);
+			if (item != null) {
+				ranked.add(item);
+			}
+		}
+		return ranked;
+	}
+
+	@Operation(summary = "List my due-date alerts", description = "Alerts raised when one of the current user's open tasks comes due soon or becomes overdue, oldest first, each raised once per due date. Pass the last sequence received as after to fetch only newer alerts.")
+	@GetMapping("/alerts")
+	public List<TaskDueAlertDto> getAlerts(@RequestParam(defaultValue = "0") long after,
+			@RequestParam(required = false) Integer limit) {
+		User currentUser = currentUser();
+
+		if (currentUser == null) {
+			return List.of();
+		}
+
+		return taskDeadlineScheduler.alerts(currentUser.getId(), after, pageSize(limit));
+	}
+
+	@Operation(summary = "Stream my task changes", description = "Server-sent events for the current user's tasks: created, updated and deleted, each carrying the task. On reconnect, the Last-Event-ID header replays the missed events; when they are no longer available a reset event tells the client to reload its list. Answers 503 when the node holds too many streams.")
+	@GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> streamTasks(
+			@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+		User currentUser = currentUser();
+
+		if (currentUser == null) {
+			return ResponseEntity.notFound().build();
+		}
+
+		SseEmitter emitter = taskChangeStream.subscribe(currentUser.getId(), lastEventId);
+		if (emitter == null) {
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many open streams");
+		}
+		return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+	}
+
+	@Operation(summary = "Summarize all tasks", description = "Count all tasks by status, plus those past their due date and not yet completed.")
+	@GetMapping("/summary/global")
+	public TaskSummaryDto getGlobalSummary() {
+		return taskSummaryCounters.globalSummary();
+	}
+
+	@Operation(summary = "Summarize tasks of a specific user", description = "Count a user's tasks by status, plus those past their due date and not yet completed.")
+	@GetMapping("/summary/{userId}")
+	public ResponseEntity<TaskSummaryDto> getSummaryByUser(@PathVariable Long userId) {
+		if (!userRepository.findById(userId).isPresent()) {
+			return ResponseEntity.notFound().build();
+		}
+
+		return ResponseEntity.ok(taskSummaryCounters.summary(userId));
+	}
+
+	@Operation(summary = "List tasks of a specific user", description = "Retrieve a page of tasks assigned to a specific user by their user ID, with the same filters as the task list.")
 	@GetMapping("/{userId}")
-	public List<Task> getAllTasksByUser(@PathVariable Long userId) {
+	public CursorPage<TaskItemDto> getAllTasksByUser(@PathVariable Long userId, @ParameterObject TaskFilter filter,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+			ServletWebRequest request) {
 		Optional<User> user = userRepository.findById(userId);
 
 		if (!user.isPresent()) {
 			return null;
 		}
 
-		return taskRepository.findByUser(user.get());
+		if (notModified(request, taskListVersions.etag(userId))) {
+			return null;
+		}
+
+		filter.setUserId(user.get().getId());
+		return search(filter, cursor, limit);
+	}
+
+	private CursorPage<TaskItemDto> search(TaskFilter filter, String cursor, Integer limit) {
+		int pageSize = pageSize(limit);
+		TaskCursor after = decodeCursor(cursor);
+		List<TaskItemDto> tasks = taskShards.onUserShard(filter.getUserId(),
+				() -> taskRepository.search(filter, after, pageSize + 1));
+
+		if (tasks.size() <= pageSize) {
+			return new CursorPage<>(tasks, null);
+		}
+
+		List<TaskItemDto> items = tasks.subList(0, pageSize);
+		return new CursorPage<>(items, TaskCursor.of(items.get(pageSize - 1), filter.getSort()).encode());
+	}
+
+	private ResponseEntity<TaskItemDto> patch(Long id, TaskPatchDto patch) {
+		Long version = patch.getVersion();
+		if (version == null) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "version is required");
+		}
+
+		List<Object[]> rows = taskShards.onTaskShard(id, () -> {
+			List<Object[]> patched = taskRepository.patch(id, patch);
+
+			// Só o caminho de falha paga a consulta extra para distinguir 404 de 409
+			if (patched.isEmpty() && taskRepository.existsById(id)) {
+				throw new ResponseStatusException(HttpStatus.CONFLICT,
+						"Task " + id + " was changed by another request");
+			}
+			return patched;
+		});
+
+		if (rows.isEmpty()) {
+			return ResponseEntity.notFound().build();
+		}
+
+		Object[] row = rows.get(0);
+		Status oldStatus = row[4] == null ? null : Status.values()[((Number) row[4]).intValue()];
+		TaskItemDto before = new TaskItemDto(id, (String) row[2], oldStatus, (Date) row[5], (Date) row[6],
+				(Long) row[1], version);
+		TaskItemDto after = new TaskItemDto(id, patch.hasTitle() ? patch.getTitle() : before.getTitle(),
+				patch.hasStatus() ? patch.getStatus() : before.getStatus(),
+				patch.hasDueDate() ? patch.getDueDate() : before.getDueDate(), before.getCreatedAt(),
+				before.getUserId(), version + 1);
+		publishChanged(TaskChange.updated(before, after,
+				patch.hasDescription() ? patch.getDescription() : (String) row[3]));
+		return ResponseEntity.ok(after);
+	}
+
+	private User currentUser() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+		return userRepository.findByUsername(userDetails.getUsername());
+	}
+
+	/**
+	 * Sets the ETag and asks clients to revalidate on every use. Must be called
+	 * before querying, so an unchanged list costs no task query at all. A null
+	 * ETag (see {@link TaskListVersions}) sends the response without one.
+	 */
+	private static boolean notModified(ServletWebRequest request, String etag) {
+		request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+		// O mesmo ETag vale para JSON, CBOR e Smile; o cache guarda cada formato separado
+		request.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+		return etag != null && request.checkNotModified(etag);
+	}
+
+	private void publishChanged(TaskChange change) {
+		if (change.getUserId() != null) {
+			eventPublisher.publishEvent(new TaskChangedEvent(List.of(change)));
+		}
+	}
+
+	private static TaskCursor decodeCursor(String cursor) {
+		if (cursor == null || cursor.isEmpty()) {
+			return null;
+		}
+
+		try {
+			return TaskCursor.decode(cursor);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+	}
+
+	private static void checkBatchSize(List<?> items) {
+		if (items.size() > MAX_BATCH_SIZE) {
+			throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+					"At most " + MAX_BATCH_SIZE + " items per batch");
+		}
+	}
+
+	private static int pageSize(Integer limit) {
+		if (limit == null) {
+			return DEFAULT_PAGE_SIZE;
+		}
+		return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
 	}
 
 }
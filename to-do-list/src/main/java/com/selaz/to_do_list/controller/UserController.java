@@ -16,6 +16,9 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.selaz.to_do_list.model.User;
 import com.selaz.to_do_list.repository.UserRepository;
+import com.selaz.to_do_list.service.UserCacheEvictor;
+import com.selaz.to_do_list.service.UserDeletionService;
+import com.selaz.to_do_list.shard.TaskShards;
 
 import io.swagger.v3.oas.annotations.Operation;
 
@@ -26,6 +29,15 @@ public class UserController {
 	@Autowired
 	private UserRepository userRepository;
 
+	@Autowired
+	private UserCacheEvictor userCacheEvictor;
+
+	@Autowired
+	private UserDeletionService userDeletionService;
+
+	@Autowired
+	private TaskShards taskShards;
+
 	@Operation(summary = "List all users", description = "Retrieve a list of all users.")
 	@GetMapping
 	public List<User> getAllUsers() {
@@ -47,15 +59,16 @@ public class UserController {
 			return ResponseEntity.notFound().build();
 		}
 
-		User user = oldUser.get();
-		user.setUsername(newUser.getUsername());
-		user.setNivel(newUser.getNivel());
+		// Uma cópia: a entidade de findById é a que está no cache e não pode mudar antes do commit
+		String oldUsername = oldUser.get().getUsername();
+		User user = new User(id, newUser.getUsername(), newUser.getNivel());
 
 		final User updatedUser = userRepository.save(user);
+		userCacheEvictor.evict(id, oldUsername);
 		return ResponseEntity.ok(updatedUser);
 	}
 
-	@Operation(summary = "Delete a user", description = "Delete a user using their ID.")
+	@Operation(summary = "Delete a user", description = "Delete a user using their ID, together with all of their tasks.")
 	@DeleteMapping("/{id}")
 	public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
 		Optional<User> userToDelete = userRepository.findById(id);
@@ -64,7 +77,8 @@ public class UserController {
 			return ResponseEntity.notFound().build();
 		}
 
-		userRepository.delete(userToDelete.get());
+		taskShards.onUserShard(id, () -> userDeletionService.deleteUser(id));
+		userCacheEvictor.evict(id, userToDelete.get().getUsername());
 		return ResponseEntity.noContent().build();
 	}
 
@@ -0,0 +1,156 @@
+package com.selaz.to_do_list.datasource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Plays the database's replication for local replicas, which H2 does not
+ * have. At startup each replica gets the primary's schema and a linked table
+ * per table in schema {@code UPSTREAM}; then, at every tick, rows that differ
+ * are merged and missing ones deleted. A tick reads every table in full on
+ * both sides, so it is meant for development data sets, not for production.
+ * <p>
+ * {@value #LAG_METRIC} is the age of the data on the replicas: the time
+ * since the last completed tick started.
+ */
+@Component
+@ConditionalOnProperty(prefix = "datasource.replica.stand-in", name = "enabled", havingValue = "true")
+@DependsOn("entityManagerFactory")
+public class H2ReplicationStandIn {
+
+	public static final String LAG_METRIC = "datasource.replica.lag";
+
+	private static final Logger log = LoggerFactory.getLogger(H2ReplicationStandIn.class);
+
+	@Autowired
+	private HikariDataSource primaryDataSource;
+
+	@Autowired
+	private ReadWriteRoutingDataSource routingDataSource;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final List<Connection> replicas = new ArrayList<>();
+
+	private final List<String> statements = new ArrayList<>();
+
+	private volatile long syncedAt;
+
+	@PostConstruct
+	public void start() throws SQLException {
+		Map<String, String> keys = new LinkedHashMap<>();
+		List<String> schema = new ArrayList<>();
+		try (Connection primary = primaryDataSource.getConnection(); Statement statement = primary.createStatement()) {
+			try (ResultSet rs = statement.executeQuery(
+					"select tc.table_name, listagg('\"' || k.column_name || '\"', ', ') within group (order by k.ordinal_position) "
+							+ "from information_schema.table_constraints tc join information_schema.key_column_usage k "
+							+ "on k.constraint_schema = tc.constraint_schema and k.constraint_name = tc.constraint_name "
+							+ "where tc.table_schema = 'PUBLIC' and tc.constraint_type = 'PRIMARY KEY' "
+							+ "group by tc.table_name order by tc.table_name")) {
+				while (rs.next()) {
+					keys.put(rs.getString(1), rs.getString(2));
+				}
+			}
+			try (ResultSet rs = statement.executeQuery("SCRIPT NODATA")) {
+				while (rs.next()) {
+					String sql = rs.getString(1);
+					if (!sql.startsWith("CREATE USER") && !sql.startsWith("--")) {
+						schema.add(sql);
+					}
+				}
+			}
+		}
+
+		for (Map.Entry<String, String> table : keys.entrySet()) {
+			String name = "\"" + table.getKey() + "\"";
+			statements.add("MERGE INTO PUBLIC." + name + " KEY(" + table.getValue() + ") SELECT * FROM UPSTREAM." + name
+					+ " EXCEPT SELECT * FROM PUBLIC." + name);
+			statements.add("DELETE FROM PUBLIC." + name + " WHERE (" + table.getValue() + ") IN (SELECT "
+					+ table.getValue() + " FROM PUBLIC." + name + " EXCEPT SELECT " + table.getValue() + " FROM UPSTREAM."
+					+ name + ")");
+		}
+
+		for (DataSource replica : routingDataSource.getReplicas()) {
+			HikariDataSource pool = (HikariDataSource) replica;
+			Connection connection = DriverManager.getConnection(pool.getJdbcUrl(), pool.getUsername(),
+					pool.getPassword());
+			replicas.add(connection);
+			try (Statement statement = connection.createStatement()) {
+				// Linhas chegam fora de ordem entre tabelas; a réplica não confere chaves estrangeiras
+				statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+				for (String sql : schema) {
+					statement.execute(sql);
+				}
+				statement.execute("CREATE SCHEMA IF NOT EXISTS UPSTREAM");
+				for (String table : keys.keySet()) {
+					statement.execute("CREATE LINKED TABLE UPSTREAM.\"" + table + "\"('org.h2.Driver', '"
+							+ quote(primaryDataSource.getJdbcUrl()) + "', '" + quote(primaryDataSource.getUsername())
+							+ "', '" + quote(primaryDataSource.getPassword()) + "', 'PUBLIC', '\"" + quote(table)
+							+ "\"') READONLY");
+				}
+			}
+			connection.setAutoCommit(false);
+		}
+
+		sync();
+		Gauge.builder(LAG_METRIC, this, standIn -> (System.currentTimeMillis() - standIn.syncedAt) / 1000.0)
+				.description("Age of the data on the local replicas").baseUnit("seconds").register(meterRegistry);
+		log.info("Réplicas locais alimentadas a partir do primário: {} tabelas em {} réplicas", keys.size(),
+				replicas.size());
+	}
+
+	@Scheduled(fixedDelayString = "${datasource.replica.stand-in.interval:PT1S}")
+	public synchronized void sync() throws SQLException {
+		long start = System.currentTimeMillis();
+		for (Connection replica : replicas) {
+			try (Statement statement = replica.createStatement()) {
+				for (String sql : statements) {
+					statement.executeUpdate(sql);
+				}
+				replica.commit();
+			} catch (SQLException e) {
+				replica.rollback();
+				throw e;
+			}
+		}
+		syncedAt = start;
+	}
+
+	@PreDestroy
+	public synchronized void stop() throws SQLException {
+		for (Connection replica : replicas) {
+			replica.close();
+		}
+		replicas.clear();
+	}
+
+	private static String quote(String value) {
+		return value == null ? "" : value.replace("'", "''");
+	}
+
+}
@@ -0,0 +1,127 @@
+package com.selaz.to_do_list.datasource;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sends read-only transactions to the replicas, taking turns, and everything
+ * else to the primary. Must sit behind a {@link LazyConnectionDataSourceProxy}:
+ * the transaction manager opens its connection before it marks the
+ * transaction read-only, the proxy only asks for one at the first statement.
+ * <p>
+ * Read-your-writes: reads stay on the primary while the request itself is a
+ * write and, for {@code maxLag} afterwards, for the caller who made it.
+ * {@code maxLag} should cover how far the replicas may fall behind.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+	public static final String METRIC = "datasource.reads";
+
+	static final String PRIMARY = "primary";
+
+	private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+	private final List<DataSource> replicas;
+
+	private final Cache<String, Boolean> recentWriters;
+
+	private final AtomicInteger next = new AtomicInteger();
+
+	private final Counter replicaReads;
+
+	private final Counter primaryReads;
+
+	public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration maxLag,
+			int maxWriters, MeterRegistry meterRegistry) {
+		this.replicas = List.copyOf(replicas);
+		this.recentWriters = Caffeine.newBuilder().expireAfterWrite(maxLag).maximumSize(maxWriters).build();
+
+		Map<Object, Object> targets = new HashMap<>();
+		targets.put(PRIMARY, primary);
+		for (int i = 0; i < this.replicas.size(); i++) {
+			targets.put(i, this.replicas.get(i));
+		}
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+
+		replicaReads = Counter.builder(METRIC).description("Read-only transactions by the database they ran on")
+				.tag("target", "replica").register(meterRegistry);
+		primaryReads = Counter.builder(METRIC).description("Read-only transactions by the database they ran on")
+				.tag("target", "primary").register(meterRegistry);
+	}
+
+	public List<DataSource> getReplicas() {
+		return replicas;
+	}
+
+	/**
+	 * Keeps the caller's reads on the primary for {@code maxLag}, counted from
+	 * now.
+	 */
+	public void recordWrite(String caller) {
+		recentWriters.put(caller, Boolean.TRUE);
+	}
+
+	static boolean isWrite(String method) {
+		return !SAFE_METHODS.contains(method);
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return PRIMARY;
+		}
+
+		if (inWriteRequest() || isRecentWriter()) {
+			primaryReads.increment();
+			return PRIMARY;
+		}
+
+		replicaReads.increment();
+		return Math.floorMod(next.getAndIncrement(), replicas.size());
+	}
+
+	private static boolean inWriteRequest() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		return attributes instanceof ServletRequestAttributes servlet && isWrite(servlet.getRequest().getMethod());
+	}
+
+	private boolean isRecentWriter() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		return authentication != null && recentWriters.getIfPresent(authentication.getName()) != null;
+	}
+
+	public void close() {
+		for (DataSource replica : replicas) {
+			if (replica instanceof AutoCloseable closeable) {
+				try {
+					closeable.close();
+				} catch (Exception e) {
+					// Fechando na parada da aplicação; nada a fazer além de seguir com as outras
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.selaz.to_do_list.datasource;
+
+import java.io.IOException;
+
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Tells the routing data source who just wrote, once the write request is
+ * over, so that caller's next reads see it.
+ */
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 2)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+	private final ReadWriteRoutingDataSource routingDataSource;
+
+	public ReadYourWritesFilter(ReadWriteRoutingDataSource routingDataSource) {
+		this.routingDataSource = routingDataSource;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !ReadWriteRoutingDataSource.isWrite(request.getMethod());
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			// Também em caso de erro: parte da escrita pode ter sido gravada
+			Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+			if (authentication != null && authentication.isAuthenticated()) {
+				routingDataSource.recordWrite(authentication.getName());
+			}
+		}
+	}
+
+}
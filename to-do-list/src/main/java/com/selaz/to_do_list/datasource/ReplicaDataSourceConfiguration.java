@@ -0,0 +1,89 @@
+package com.selaz.to_do_list.datasource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read replicas, enabled by {@code datasource.replica.urls}. The primary pool
+ * is still configured by {@code spring.datasource.*}; each replica gets its
+ * own pool with the same credentials. The application sees a single
+ * {@link DataSource} that routes each transaction (see
+ * {@link ReadWriteRoutingDataSource}).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "urls")
+public class ReplicaDataSourceConfiguration {
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+
+	@Bean(destroyMethod = "close")
+	public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+			DataSourceProperties properties, MeterRegistry meterRegistry,
+			@Value("${datasource.replica.urls}") String[] urls,
+			@Value("${datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+			@Value("${datasource.replica.max-lag:PT5S}") Duration maxLag,
+			@Value("${datasource.replica.max-writers:100000}") int maxWriters) {
+		List<DataSource> replicas = new ArrayList<>(urls.length);
+		for (int i = 0; i < urls.length; i++) {
+			HikariDataSource replica = new HikariDataSource();
+			replica.setPoolName("replica-" + i);
+			replica.setJdbcUrl(urls[i].trim());
+			replica.setUsername(properties.determineUsername());
+			replica.setPassword(properties.determinePassword());
+			replica.setMaximumPoolSize(maximumPoolSize);
+			replica.setReadOnly(true);
+			replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+			replicas.add(replica);
+		}
+		return new ReadWriteRoutingDataSource(primaryDataSource, replicas, maxLag, maxWriters, meterRegistry);
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+		return new LazyConnectionDataSourceProxy(routingDataSource);
+	}
+
+	@Bean
+	public ReadYourWritesFilter readYourWritesFilter(ReadWriteRoutingDataSource routingDataSource) {
+		return new ReadYourWritesFilter(routingDataSource);
+	}
+
+	/**
+	 * With open-in-view, Hibernate would otherwise keep the first connection of
+	 * a request until it ends, and a write after a read would go to the
+	 * replica it was routed to.
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer connectionPerTransaction() {
+		return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+				PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.selaz.to_do_list.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+
+public class BackupDto implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private String file;
+
+	private long size;
+
+	private long durationMillis;
+
+	private Date createdAt;
+
+	public BackupDto() {
+		super();
+	}
+
+	public BackupDto(String file, long size, long durationMillis, Date createdAt) {
+		super();
+		this.file = file;
+		this.size = size;
+		this.durationMillis = durationMillis;
+		this.createdAt = createdAt;
+	}
+
+	public String getFile() {
+		return file;
+	}
+
+	public void setFile(String file) {
+		this.file = file;
+	}
+
+	/**
+	 * Size of the backup file, in bytes.
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	public void setSize(long size) {
+		this.size = size;
+	}
+
+	public long getDurationMillis() {
+		return durationMillis;
+	}
+
+	public void setDurationMillis(long durationMillis) {
+		this.durationMillis = durationMillis;
+	}
+
+	public Date getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Date createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public static long getSerialversionuid() {
+		return serialVersionUID;
+	}
+
+}
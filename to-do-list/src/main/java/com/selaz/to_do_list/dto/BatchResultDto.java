@@ -0,0 +1,70 @@
+package com.selaz.to_do_list.dto;
+
+import java.io.Serializable;
+
+/**
+ * Outcome of one item of a batch request. {@code index} is the position of the
+ * item in the request and {@code status} the HTTP status the equivalent
+ * single-item request would have returned.
+ */
+public class BatchResultDto implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private int index;
+
+	private Long id;
+
+	private int status;
+
+	private String error;
+
+	public BatchResultDto() {
+		super();
+	}
+
+	public BatchResultDto(int index, Long id, int status, String error) {
+		super();
+		this.index = index;
+		this.id = id;
+		this.status = status;
+		this.error = error;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public void setIndex(int index) {
+		this.index = index;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public void setStatus(int status) {
+		this.status = status;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
+
+	public static long getSerialversionuid() {
+		return serialVersionUID;
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.selaz.to_do_list.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+public class CursorPage<T> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private List<T> items;
+
+	private String next;
+
+	public CursorPage() {
+		super();
+	}
+
+	public CursorPage(List<T> items, String next) {
+		super();
+		this.items = items;
+		this.next = next;
+	}
+
+	public List<T> getItems() {
+		return items;
+	}
+
+	public void setItems(List<T> items) {
+		this.items = items;
+	}
+
+	public String getNext() {
+		return next;
+	}
+
+	public void setNext(String next) {
+		this.next = next;
+	}
+
+	public static long getSerialversionuid() {
+		return serialVersionUID;
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.selaz.to_do_list.dto;
+
+import java.io.Serializable;
+
+public class DeleteResultDto implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private long deleted;
+
+	public DeleteResultDto() {
+		super();
+	}
+
+	public DeleteResultDto(long deleted) {
+		super();
+		this.deleted = deleted;
+	}
+
+	/**
+	 * Number of tasks removed.
+	 */
+	public long getDeleted() {
+		return deleted;
+	}
+
+	public void setDeleted(long deleted) {
+		this.deleted = deleted;
+	}
+
+	public static long getSerialversionuid() {
+		return serialVersionUID;
+	}
+
+}
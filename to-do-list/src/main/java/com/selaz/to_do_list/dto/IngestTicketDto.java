@@ -0,0 +1,73 @@
+package com.selaz.to_do_list.dto;
+
+import java.io.Serializable;
+
+/**
+ * A task accepted for asynchronous creation. {@code ticket} is the provisional
+ * id returned at once; {@code taskId} is set when the task has been committed.
+ */
+public class IngestTicketDto implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public enum State {
+		QUEUED, COMMITTED, FAILED
+	}
+
+	private long ticket;
+
+	private State state;
+
+	private Long taskId;
+
+	private String error;
+
+	public IngestTicketDto() {
+		super();
+	}
+
+	public IngestTicketDto(long ticket, State state, Long taskId, String error) {
+		super();
+		this.ticket = ticket;
+		this.state = state;
+		this.taskId = taskId;
+		this.error = error;
+	}
+
+	public long getTicket() {
+		return ticket;
+	}
+
+	public void setTicket(long ticket) {
+		this.ticket = ticket;
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	public void setState(State state) {
+		this.state = state;
+	}
+
+	public Long getTaskId() {
+		return taskId;
+	}
+
+	public void setTaskId(Long taskId) {
+		this.taskId = taskId;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
+
+	public static long getSerialversionuid() {
+		return serialVersionUID;
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.selaz.to_do_list.dto;
+
+import java.io.Serializable;
+
+public class ShardDto implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private int shard;
+
+	private long tasks;
+
+	private long users;
+
+	private int pinnedUsers;
+
+	public ShardDto() {
+		super();
+	}
+
+	public ShardDto(int shard, long tasks, long users, int pinnedUsers) {
+		super();
+		this.shard = shard;
+		this.tasks = tasks;
+		this.users = users;
+		this.pinnedUsers = pinnedUsers;
+	}
+
+	public int getShard() {
+		return shard;
+	}
+
+	public void setShard(int shard) {
+		this.shard = shard;
+	}
+
+	public long getTasks() {
+		return tasks;
+	}
+
+	public void setTasks(long tasks) {
+		this.tasks = tasks;
+	}
+
+	public long getUsers() {
+		return users;
+	}
+
+	public void setUsers(long users) {
+		this.users = users;
+	}
+
+	/**
+	 * Users kept on this shard by the directory, away from their ring shard.
+	 */
+	public int getPinnedUsers() {
+		return pinnedUsers;
+	}
+
+	public void setPinnedUsers(int pinnedUsers) {
+		this.pinnedUsers = pinnedUsers;
+	}
+
+	public static long getSerialversionuid() {
+		return serialVersionUID;
+	}
+
+}
@@ -0,0 +1,94 @@
+package com.selaz.to_do_list.dto;
+
+import java.io.Serializable;
+
+public class ShardMoveDto implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long userId;
+
+	private int from;
+
+	private int to;
+
+	private int tasks;
+
+	private int caughtUp;
+
+	private long pauseMillis;
+
+	public ShardMoveDto() {
+		super();
+	}
+
+	public ShardMoveDto(Long userId, int from, int to, int tasks, int caughtUp, long pauseMillis) {
+		super();
+		this.userId = userId;
+		this.from = from;
+		this.to = to;
+		this.tasks = tasks;
+		this.caughtUp = caughtUp;
+		this.pauseMillis = pauseMillis;
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public void setUserId(Long userId) {
+		this.userId = userId;
+	}
+
+	public int getFrom() {
+		return from;
+	}
+
+	public void setFrom(int from) {
+		this.from = from;
+	}
+
+	public int getTo() {
+		return to;
+	}
+
+	public void setTo(int to) {
+		this.to = to;
+	}
+
+	public int getTasks() {
+		return tasks;
+	}
+
+	public void setTasks(int tasks) {
+		this.tasks = tasks;
+	}
+
+	/**
+	 * Tasks created, changed or deleted during the copy, applied with the
+	 * source shard locked.
+	 */
+	public int getCaughtUp() {
+		return caughtUp;
+	}
+
+	public void setCaughtUp(int caughtUp) {
+		this.caughtUp = caughtUp;
+	}
+
+	/**
+	 * How long work on the source shard waited for the move.
+	 */
+	public long getPauseMillis() {
+		return pauseMillis;
+	}
+
+	public void setPauseMillis(long pauseMillis) {
+		this.pauseMillis = pauseMillis;
+	}
+
+	public static long getSerialversionuid() {
+		return serialVersionUID;
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.selaz.to_do_list.dto;
+
+public class TaskBatchUpdateDto extends TaskDto {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long id;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public static long getSerialversionuid() {
+		return serialVersionUID;
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.selaz.to_do_list.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque keyset position: the (sort key, id) of the last task of a page.
+ * Encoded as base64url of "millis:id", with an empty millis part when the sort
+ * key is null or the page is ordered by id only.
+ */
+public final class TaskCursor {
+
+	private final Date key;
+
+	private final long id;
+
+	public TaskCursor(Date key, long id) {
+		this.key = key;
+		this.id = id;
+	}
+
+	public static TaskCursor of(TaskItemDto task, TaskSort sort) {
+		return new TaskCursor(sort.keyOf(task), task.getId());
+	}
+
+	public Date getKey() {
+		return key;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String encode() {
+		String raw = (key == null ? "" : Long.toString(key.getTime())) + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	public static TaskCursor decode(String cursor) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+			int separator = raw.indexOf(':');
+			String millis = raw.substring(0, separator);
+			long id = Long.parseLong(raw.substring(separator + 1));
+			return new TaskCursor(millis.isEmpty() ? null : new Date(Long.parseLong(millis)), id);
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+		}
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.selaz.to_do_list.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * A task that has come due soon or become overdue. {@code sequence} grows with
+ * every alert and is the position to resume a feed from.
+ */
+public class TaskDueAlertDto implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public enum Type {
+		DUE_SOON, OVERDUE
+	}
+
+	private long sequence;
+
+	private Type type;
+
+	private Long taskId;
+
+	private Long userId;
+
+	private Date dueDate;
+
+	private Date firedAt;
+
+	public TaskDueAlertDto() {
+		super();
+	}
+
+	public TaskDueAlertDto(long sequence, Type type, Long taskId, Long userId, Date dueDate, Date firedAt) {
+		super();
+		this.sequence = sequence;
+		this.type = type;
+		this.taskId = taskId;
+		this.userId = userId;
+		this.dueDate = dueDate;
+		this.firedAt = firedAt;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	public void setSequence(long sequence) {
+		this.sequence = sequence;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public void setType(Type type) {
+		this.type = type;
+	}
+
+	public Long getTaskId() {
+		return taskId;
+	}
+
+	public void setTaskId(Long taskId) {
+		this.taskId = taskId;
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public void setUserId(Long userId) {
+		this.userId = userId;
+	}
+
+	public Date getDueDate() {
+		return dueDate;
+	}
+
+	public void setDueDate(Date dueDate) {
+		this.dueDate = dueDate;
+	}
+
+	public Date getFiredAt() {
+		return firedAt;
+	}
+
+	public void setFiredAt(Date firedAt) {
+		this.firedAt = firedAt;
+	}
+
+	public static long getSerialversionuid() {
+		return serialVersionUID;
+	}
+
+}
@@ -0,0 +1,118 @@
+package com.selaz.to_do_list.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Set;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+
+import com.selaz.to_do_list.model.Status;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class TaskFilter implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Schema(hidden = true)
+	private Long userId;
+
+	@Schema(description = "Only tasks in one of these statuses")
+	private Set<Status> status;
+
+	@Schema(description = "Only tasks due at or after this instant")
+	@DateTimeFormat(iso = ISO.DATE_TIME)
+	private Date dueFrom;
+
+	@Schema(description = "Only tasks due before this instant")
+	@DateTimeFormat(iso = ISO.DATE_TIME)
+	private Date dueTo;
+
+	@Schema(description = "Only tasks created at or after this instant")
+	@DateTimeFormat(iso = ISO.DATE_TIME)
+	private Date createdFrom;
+
+	@Schema(description = "Only tasks created before this instant")
+	@DateTimeFormat(iso = ISO.DATE_TIME)
+	private Date createdTo;
+
+	@Schema(description = "Sort order: id (default), dueDate or createdAt")
+	private TaskSort sort;
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public void setUserId(Long userId) {
+		this.userId = userId;
+	}
+
+	public Set<Status> getStatus() {
+		return status;
+	}
+
+	public void setStatus(Set<Status> status) {
+		this.status = status;
+	}
+
+	public Date getDueFrom() {
+		return dueFrom;
+	}
+
+	public void setDueFrom(Date dueFrom) {
+		this.dueFrom = dueFrom;
+	}
+
+	public Date getDueTo() {
+		return dueTo;
+	}
+
+	public void setDueTo(Date dueTo) {
+		this.dueTo = dueTo;
+	}
+
+	public Date getCreatedFrom() {
+		return createdFrom;
+	}
+
+	public void setCreatedFrom(Date createdFrom) {
+		this.createdFrom = createdFrom;
+	}
+
+	public Date getCreatedTo() {
+		return createdTo;
+	}
+
+	public void setCreatedTo(Date createdTo) {
+		this.createdTo = createdTo;
+	}
+
+	public TaskSort getSort() {
+		return sort == null ? TaskSort.ID : sort;
+	}
+
+	public void setSort(TaskSort sort) {
+		this.sort = sort;
+	}
+
+	/**
+	 * Whether a range bound on the sort key already excludes tasks whose key is
+	 * null.
+	 */
+	public boolean boundsSortKey() {
+		switch (getSort()) {
+		case DUE_DATE:
+			return dueFrom != null || dueTo != null;
+		case CREATED_AT:
+			return createdFrom != null || createdTo != null;
+		default:
+			return true;
+		}
+	}
+
+	public static long getSerialversionuid() {
+		return serialVersionUID;
+	}
+
+}
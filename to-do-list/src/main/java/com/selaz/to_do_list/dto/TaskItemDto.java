@@ -0,0 +1,114 @@
+package com.selaz.to_do_list.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.model.Task;
+
+/**
+ * Read model of a task for list and write responses: the task's own columns
+ * plus the owner's id, selected without joining {@code tb_user}.
+ */
+public class TaskItemDto implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long id;
+
+	private String title;
+
+	private Status status;
+
+	private Date dueDate;
+
+	private Date createdAt;
+
+	private Long userId;
+
+	private Long version;
+
+	public TaskItemDto() {
+		super();
+	}
+
+	public TaskItemDto(Long id, String title, Status status, Date dueDate, Date createdAt, Long userId,
+			Long version) {
+		super();
+		this.id = id;
+		this.title = title;
+		this.status = status;
+		this.dueDate = dueDate;
+		this.createdAt = createdAt;
+		this.userId = userId;
+		this.version = version;
+	}
+
+	public static TaskItemDto of(Task task) {
+		// getId() de um proxy preguiçoso não inicializa o usuário
+		Long userId = task.getUser() == null ? null : task.getUser().getId();
+		return new TaskItemDto(task.getId(), task.getTitle(), task.getStatus(), task.getDueDate(), task.getCreatedAt(),
+				userId, task.getVersion());
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+	public Date getDueDate() {
+		return dueDate;
+	}
+
+	public void setDueDate(Date dueDate) {
+		this.dueDate = dueDate;
+	}
+
+	public Date getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Date createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public void setUserId(Long userId) {
+		this.userId = userId;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	public static long getSerialversionuid() {
+		return serialVersionUID;
+	}
+
+}
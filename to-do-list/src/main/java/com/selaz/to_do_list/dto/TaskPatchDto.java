@@ -0,0 +1,97 @@
+package com.selaz.to_do_list.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import com.selaz.to_do_list.model.Status;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Partial update of a task with JSON Merge Patch semantics: fields absent from
+ * the body are left unchanged, fields sent as {@code null} are cleared. Jackson
+ * only calls the setters of the fields present, which is how the
+ * {@code has...} flags tell the two apart. {@code version} is the version the
+ * client last read; the update is refused if it has changed.
+ */
+public class TaskPatchDto implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private String title;
+	private String description;
+	private Date dueDate;
+	private Status status;
+	@NotNull
+	private Long version;
+
+	private boolean titleSet;
+	private boolean descriptionSet;
+	private boolean dueDateSet;
+	private boolean statusSet;
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+		this.titleSet = true;
+	}
+
+	public boolean hasTitle() {
+		return titleSet;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public void setDescription(String description) {
+		this.description = description;
+		this.descriptionSet = true;
+	}
+
+	public boolean hasDescription() {
+		return descriptionSet;
+	}
+
+	public Date getDueDate() {
+		return dueDate;
+	}
+
+	public void setDueDate(Date dueDate) {
+		this.dueDate = dueDate;
+		this.dueDateSet = true;
+	}
+
+	public boolean hasDueDate() {
+		return dueDateSet;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+		this.statusSet = true;
+	}
+
+	public boolean hasStatus() {
+		return statusSet;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	public static long getSerialversionuid() {
+		return serialVersionUID;
+	}
+
+}
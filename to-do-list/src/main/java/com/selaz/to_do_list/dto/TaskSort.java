@@ -0,0 +1,36 @@
+package com.selaz.to_do_list.dto;
+
+import java.util.Date;
+
+import com.selaz.to_do_list.model.Task;
+
+public enum TaskSort {
+
+	ID(null), DUE_DATE("dueDate"), CREATED_AT("createdAt");
+
+	private final String attribute;
+
+	TaskSort(String attribute) {
+		this.attribute = attribute;
+	}
+
+	/**
+	 * Name of the {@link Task} attribute ordered before the id, or {@code null}
+	 * when tasks are ordered by id only.
+	 */
+	public String getAttribute() {
+		return attribute;
+	}
+
+	public Date keyOf(TaskItemDto task) {
+		switch (this) {
+		case DUE_DATE:
+			return task.getDueDate();
+		case CREATED_AT:
+			return task.getCreatedAt();
+		default:
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.selaz.to_do_list.dto;
+
+import java.io.Serializable;
+import java.util.Map;
+
+import com.selaz.to_do_list.model.Status;
+
+public class TaskSummaryDto implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long userId;
+
+	private Map<Status, Long> byStatus;
+
+	private long overdue;
+
+	private long total;
+
+	public TaskSummaryDto() {
+		super();
+	}
+
+	public TaskSummaryDto(Long userId, Map<Status, Long> byStatus, long overdue, long total) {
+		super();
+		this.userId = userId;
+		this.byStatus = byStatus;
+		this.overdue = overdue;
+		this.total = total;
+	}
+
+	/**
+	 * Owner of the summarized tasks, or {@code null} for the global summary.
+	 */
+	public Long getUserId() {
+		return userId;
+	}
+
+	public void setUserId(Long userId) {
+		this.userId = userId;
+	}
+
+	public Map<Status, Long> getByStatus() {
+		return byStatus;
+	}
+
+	public void setByStatus(Map<Status, Long> byStatus) {
+		this.byStatus = byStatus;
+	}
+
+	/**
+	 * Tasks not yet {@code CONCLUIDA} whose due date has passed.
+	 */
+	public long getOverdue() {
+		return overdue;
+	}
+
+	public void setOverdue(long overdue) {
+		this.overdue = overdue;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public void setTotal(long total) {
+		this.total = total;
+	}
+
+	public static long getSerialversionuid() {
+		return serialVersionUID;
+	}
+
+}
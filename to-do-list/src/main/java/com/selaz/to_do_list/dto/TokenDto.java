@@ -0,0 +1,44 @@
+package com.selaz.to_do_list.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+
+public class TokenDto implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private String token;
+
+	private Date expiresAt;
+
+	public TokenDto() {
+		super();
+	}
+
+	public TokenDto(String token, Date expiresAt) {
+		super();
+		this.token = token;
+		this.expiresAt = expiresAt;
+	}
+
+	public String getToken() {
+		return token;
+	}
+
+	public void setToken(String token) {
+		this.token = token;
+	}
+
+	public Date getExpiresAt() {
+		return expiresAt;
+	}
+
+	public void setExpiresAt(Date expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+
+	public static long getSerialversionuid() {
+		return serialVersionUID;
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.selaz.to_do_list.event;
+
+import com.selaz.to_do_list.dto.TaskItemDto;
+
+/**
+ * One task before and after a write: {@code before} is null for a creation,
+ * {@code after} is null for a deletion. The description, which
+ * {@link TaskItemDto} leaves out, is carried for the state after the write.
+ */
+public class TaskChange {
+
+	public enum Type {
+		CREATED, UPDATED, DELETED
+	}
+
+	private final TaskItemDto before;
+
+	private final TaskItemDto after;
+
+	private final String description;
+
+	public TaskChange(TaskItemDto before, TaskItemDto after, String description) {
+		this.before = before;
+		this.after = after;
+		this.description = description;
+	}
+
+	public static TaskChange created(TaskItemDto task, String description) {
+		return new TaskChange(null, task, description);
+	}
+
+	public static TaskChange updated(TaskItemDto before, TaskItemDto after, String description) {
+		return new TaskChange(before, after, description);
+	}
+
+	public static TaskChange deleted(TaskItemDto task) {
+		return new TaskChange(task, null, null);
+	}
+
+	public Type getType() {
+		return before == null ? Type.CREATED : after == null ? Type.DELETED : Type.UPDATED;
+	}
+
+	public TaskItemDto getBefore() {
+		return before;
+	}
+
+	public TaskItemDto getAfter() {
+		return after;
+	}
+
+	/**
+	 * Description after the change, or {@code null} for a deletion.
+	 */
+	public String getDescription() {
+		return description;
+	}
+
+	public Long getTaskId() {
+		return after != null ? after.getId() : before.getId();
+	}
+
+	public Long getUserId() {
+		return after != null ? after.getUserId() : before.getUserId();
+	}
+
+}
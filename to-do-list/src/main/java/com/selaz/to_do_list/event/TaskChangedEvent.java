@@ -0,0 +1,37 @@
+package com.selaz.to_do_list.event;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Published after tasks are created, updated or deleted, with one
+ * {@link TaskChange} per task. Listeners that must only see committed data use
+ * {@code @TransactionalEventListener}.
+ */
+public class TaskChangedEvent {
+
+	private final List<TaskChange> changes;
+
+	public TaskChangedEvent(List<TaskChange> changes) {
+		this.changes = changes;
+	}
+
+	public List<TaskChange> getChanges() {
+		return changes;
+	}
+
+	/**
+	 * Owners of the changed tasks.
+	 */
+	public Set<Long> getUserIds() {
+		Set<Long> userIds = new LinkedHashSet<>();
+		for (TaskChange change : changes) {
+			if (change.getUserId() != null) {
+				userIds.add(change.getUserId());
+			}
+		}
+		return userIds;
+	}
+
+}
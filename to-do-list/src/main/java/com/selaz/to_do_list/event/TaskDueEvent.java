@@ -0,0 +1,21 @@
+package com.selaz.to_do_list.event;
+
+import com.selaz.to_do_list.dto.TaskDueAlertDto;
+
+/**
+ * Published by the deadline scheduler, once per alert, when an open task comes
+ * due soon or becomes overdue.
+ */
+public class TaskDueEvent {
+
+	private final TaskDueAlertDto alert;
+
+	public TaskDueEvent(TaskDueAlertDto alert) {
+		this.alert = alert;
+	}
+
+	public TaskDueAlertDto getAlert() {
+		return alert;
+	}
+
+}
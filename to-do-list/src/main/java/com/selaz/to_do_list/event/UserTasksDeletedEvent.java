@@ -0,0 +1,20 @@
+package com.selaz.to_do_list.event;
+
+/**
+ * Published when a user is deleted, in place of one {@link TaskChange} per
+ * task: the user's tasks are purged afterwards, in batches. Listeners drop
+ * whatever they hold for the user.
+ */
+public class UserTasksDeletedEvent {
+
+	private final Long userId;
+
+	public UserTasksDeletedEvent(Long userId) {
+		this.userId = userId;
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+}
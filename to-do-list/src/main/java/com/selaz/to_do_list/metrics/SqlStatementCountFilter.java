@@ -0,0 +1,83 @@
+package com.selaz.to_do_list.metrics;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements executed while handling each request, reports the
+ * count in the {@value #HEADER} response header and records it in the
+ * {@value #METRIC} summary, tagged like {@code http.server.requests}. Requests
+ * above {@code metrics.sql.warn-threshold} statements are logged as warnings,
+ * which is usually the first sign of an N+1.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+	public static final String HEADER = "X-SQL-Statement-Count";
+
+	public static final String METRIC = "http.server.requests.sql.statements";
+
+	private static final Logger log = LoggerFactory.getLogger(SqlStatementCountFilter.class);
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${metrics.sql.warn-threshold:20}")
+	private int warnThreshold;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		SqlStatementCounter.start();
+		int count;
+		try {
+			// O cabeçalho precisa ser gravado antes do commit da resposta
+			filterChain.doFilter(request, new OnCommittedResponseWrapper(response) {
+				@Override
+				protected void onResponseCommitted() {
+					setHeader(HEADER, String.valueOf(SqlStatementCounter.current()));
+				}
+			});
+		} finally {
+			count = SqlStatementCounter.stop();
+		}
+		if (!response.isCommitted()) {
+			response.setHeader(HEADER, String.valueOf(count));
+		}
+
+		String uri = uri(request);
+		DistributionSummary.builder(METRIC).description("SQL statements executed per request")
+				.tag("method", request.getMethod()).tag("uri", uri).tag("status", String.valueOf(response.getStatus()))
+				.register(meterRegistry).record(count);
+
+		if (count > warnThreshold) {
+			log.warn("{} {} executou {} comandos SQL", request.getMethod(), uri, count);
+		} else {
+			log.debug("{} {} executou {} comandos SQL", request.getMethod(), uri, count);
+		}
+	}
+
+	private static String uri(HttpServletRequest request) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		return pattern != null ? pattern.toString() : "UNKNOWN";
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.selaz.to_do_list.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between
+ * {@link #start()} and {@link #stop()}. Registered through
+ * {@code hibernate.session_factory.statement_inspector}, so Hibernate creates
+ * the instance and the count lives in a static thread-local.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+	@Override
+	public String inspect(String sql) {
+		int[] count = COUNT.get();
+		if (count != null) {
+			count[0]++;
+		}
+		return sql;
+	}
+
+	public static void start() {
+		COUNT.set(new int[1]);
+	}
+
+	/**
+	 * Statements counted so far on this thread, or 0 outside
+	 * {@link #start()}/{@link #stop()}.
+	 */
+	public static int current() {
+		int[] count = COUNT.get();
+		return count == null ? 0 : count[0];
+	}
+
+	public static int stop() {
+		int count = current();
+		COUNT.remove();
+		return count;
+	}
+
+}
@@ -5,25 +5,34 @@ import java.util.Date;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "tb_task")
+@Table(name = "tb_task", indexes = { @Index(name = "idx_task_user", columnList = "user_id, id"),
+		@Index(name = "idx_task_user_status", columnList = "user_id, status, id"),
+		@Index(name = "idx_task_user_status_due", columnList = "user_id, status, due_date, id"),
+		@Index(name = "idx_task_user_due", columnList = "user_id, due_date, id"),
+		@Index(name = "idx_task_user_created", columnList = "user_id, created_at, id") })
 public class Task implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+	@SequenceGenerator(name = "task_seq", sequenceName = "tb_task_seq", allocationSize = 50)
 	@Schema(hidden = true)
 	private Long id;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "user_id")
 	private User user;
 
@@ -37,6 +46,10 @@ public class Task implements Serializable {
 
 	private Status status;
 
+	@Version
+	@Schema(hidden = true)
+	private Long version;
+
 	public Task() {
 		super();
 	}
@@ -108,6 +121,14 @@ public class Task implements Serializable {
 		this.status = status;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public static long getSerialversionuid() {
 		return serialVersionUID;
 	}
@@ -1,6 +1,9 @@
 package com.selaz.to_do_list.model;
 
 import java.io.Serializable;
+import java.util.Date;
+
+import org.hibernate.annotations.SQLRestriction;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Column;
@@ -12,6 +15,8 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "tb_user")
+// Um usuário apagado some das consultas na hora; as tarefas saem depois (UserDeletionService)
+@SQLRestriction("deleted_at is null")
 public class User implements Serializable {
 
 	private static final long serialVersionUID = 1L;
@@ -26,6 +31,9 @@ public class User implements Serializable {
 
 	private String nivel;
 
+	// Sem getter: só as consultas nativas de UserRepository leem e gravam, e fica fora do JSON
+	private Date deletedAt;
+
 	public User() {
 		super();
 	}
@@ -0,0 +1,26 @@
+package com.selaz.to_do_list.repository;
+
+import java.util.List;
+
+import com.selaz.to_do_list.dto.TaskFilter;
+import com.selaz.to_do_list.dto.TaskItemDto;
+
+public interface TaskDeleteRepository {
+
+	/**
+	 * Deletes the task with a single statement and returns it as it was, or an
+	 * empty list if there was no such task.
+	 */
+	List<TaskItemDto> deleteItemById(Long id);
+
+	/**
+	 * Deletes every task matching the filter's owner, statuses and date ranges
+	 * with a single statement and returns the deleted tasks. The sort order is
+	 * ignored. A filter without any of them is rejected, through the
+	 * repository proxy, with an
+	 * {@link org.springframework.dao.InvalidDataAccessApiUsageException}
+	 * instead of deleting the whole table.
+	 */
+	List<TaskItemDto> deleteMatching(TaskFilter filter);
+
+}
@@ -0,0 +1,89 @@
+package com.selaz.to_do_list.repository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selaz.to_do_list.dto.TaskFilter;
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.model.Status;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+/**
+ * Set-based deletes. The DELETE runs inside H2's {@code OLD TABLE (...)}, so the
+ * same statement that removes the rows also returns them and listeners still
+ * get the deleted tasks without a prior SELECT.
+ */
+public class TaskDeleteRepositoryImpl implements TaskDeleteRepository {
+
+	private static final Status[] STATUSES = Status.values();
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	@Transactional
+	public List<TaskItemDto> deleteItemById(Long id) {
+		return delete("id = :id", Map.of("id", id));
+	}
+
+	@Override
+	@Transactional
+	public List<TaskItemDto> deleteMatching(TaskFilter filter) {
+		// Mesmos predicados de TaskSpecifications.matching, sobre as mesmas colunas indexadas
+		List<String> conditions = new ArrayList<>();
+		Map<String, Object> parameters = new LinkedHashMap<>();
+		if (filter.getUserId() != null) {
+			conditions.add("user_id = :userId");
+			parameters.put("userId", filter.getUserId());
+		}
+		if (filter.getStatus() != null && !filter.getStatus().isEmpty()) {
+			conditions.add("status in (:statuses)");
+			parameters.put("statuses", filter.getStatus().stream().map(Status::ordinal).toList());
+		}
+		range(conditions, parameters, "due_date", "due", filter.getDueFrom(), filter.getDueTo());
+		range(conditions, parameters, "created_at", "created", filter.getCreatedFrom(), filter.getCreatedTo());
+
+		if (conditions.isEmpty()) {
+			throw new IllegalArgumentException("Refusing to delete tasks without a filter");
+		}
+		return delete(String.join(" and ", conditions), parameters);
+	}
+
+	private List<TaskItemDto> delete(String where, Map<String, Object> parameters) {
+		Query query = entityManager.createNativeQuery(
+				"select id, title, status, due_date, created_at, user_id, version from old table (delete from tb_task where "
+						+ where + ")");
+		parameters.forEach(query::setParameter);
+
+		@SuppressWarnings("unchecked")
+		List<Object[]> rows = query.getResultList();
+		List<TaskItemDto> items = new ArrayList<>(rows.size());
+		for (Object[] row : rows) {
+			Status status = row[2] == null ? null : STATUSES[((Number) row[2]).intValue()];
+			items.add(new TaskItemDto((Long) row[0], (String) row[1], status, (Date) row[3], (Date) row[4],
+					(Long) row[5], (Long) row[6]));
+		}
+		return items;
+	}
+
+	private static void range(List<String> conditions, Map<String, Object> parameters, String column, String name,
+			Date from, Date to) {
+		if (from != null) {
+			conditions.add(column + " >= :" + name + "From");
+			parameters.put(name + "From", from);
+		}
+		if (to != null) {
+			conditions.add(column + " < :" + name + "To");
+			parameters.put(name + "To", to);
+		}
+	}
+
+}
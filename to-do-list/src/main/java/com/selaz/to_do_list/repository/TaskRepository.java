@@ -1,20 +1,96 @@
 package com.selaz.to_do_list.repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.dto.TaskPatchDto;
 import com.selaz.to_do_list.model.Task;
-import com.selaz.to_do_list.model.User;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository
+		extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskSearchRepository,
+		TaskDeleteRepository {
+
+	// Leitura apenas para frente: o driver entrega as linhas em blocos de fetchSize
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	@Query("select t from Task t left join fetch t.user order by t.id")
+	Stream<Task> streamAll();
+
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	@Query("select t from Task t join fetch t.user u where u.id = :userId order by t.id")
+	Stream<Task> streamByUserId(@Param("userId") Long userId);
+
+	@Query("select new com.selaz.to_do_list.dto.TaskItemDto(t.id, t.title, t.status, t.dueDate, t.createdAt, t.user.id, t.version) from Task t where t.id in :ids")
+	List<TaskItemDto> findItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+	// Texto para o índice de busca, em páginas por id. Estado em memória é montado a
+	// partir do primário (transação de escrita): uma réplica atrasada o deixaria defasado
+	@Transactional
+	@Query("select t.id, t.user.id, t.version, t.title, t.description from Task t where t.id > :after order by t.id")
+	List<Object[]> findTextAfter(@Param("after") Long after, Limit limit);
+
+	// Identifica o estado da tabela a que um snapshot do índice de busca corresponde
+	@Transactional
+	@Query("select count(t), coalesce(max(t.id), 0), coalesce(sum(t.version), 0) from Task t")
+	List<Object[]> indexStats();
+
+	// Agregados usados para reconstruir os contadores de resumo na inicialização
+	@Transactional
+	@Query("select t.user.id, t.status, count(t) from Task t group by t.user.id, t.status")
+	List<Object[]> countByUserAndStatus();
+
+	@Transactional
+	@Query("select t.user.id, t.dueDate, count(t) from Task t where t.dueDate is not null and (t.status is null or t.status <> com.selaz.to_do_list.model.Status.CONCLUIDA) group by t.user.id, t.dueDate")
+	List<Object[]> countOpenByUserAndDueDate();
 
-	List<Task> findByStatus(Status status);
+	/**
+	 * Applies the fields present in the patch, {@code null} included, to the
+	 * task if its version still matches, in a single statement, and returns the
+	 * row as it was before the update (id, user_id, title, description, status,
+	 * due_date, created_at). Empty when the task does not exist or its version
+	 * has changed. {@code status} in the row is the ordinal, as the column
+	 * stores it.
+	 * <p>
+	 * Specific to H2: {@code OLD TABLE (UPDATE ...)} is how the same statement
+	 * returns the previous row. On another database this has to be rewritten,
+	 * e.g. as {@code UPDATE ... FROM (SELECT ... FOR UPDATE) old ... RETURNING
+	 * old.*} on PostgreSQL.
+	 */
+	@Transactional
+	@Query(nativeQuery = true, value = "select id, user_id, title, description, status, due_date, created_at from old table ("
+			+ "update tb_task set title = case when :#{#patch.hasTitle()} then :#{#patch.title} else title end, "
+			+ "description = case when :#{#patch.hasDescription()} then :#{#patch.description} else description end, "
+			+ "due_date = case when :#{#patch.hasDueDate()} then cast(:#{#patch.dueDate} as timestamp(6)) else due_date end, "
+			+ "status = case when :#{#patch.hasStatus()} then cast(:#{#patch.status?.ordinal()} as tinyint) else status end, "
+			+ "version = version + 1 where id = :id and version = :#{#patch.version})")
+	List<Object[]> patch(@Param("id") Long id, @Param("patch") TaskPatchDto patch);
 
-	List<Task> findAllByOrderByDueDate();
+	// Um lote das tarefas de um usuário apagado, em transação própria: o expurgo não segura o banco
+	@Transactional
+	@Modifying
+	@Query(nativeQuery = true, value = "delete from tb_task where id in (select id from tb_task where user_id = :userId limit :limit)")
+	int deleteBatchByUserId(@Param("userId") Long userId, @Param("limit") int limit);
 
-	List<Task> findByUser(User user);
+	// Tarefas abertas que ainda vão vencer, para o agendador de prazos
+	@Transactional
+	@Query("select t.id, t.user.id, t.dueDate from Task t where t.dueDate > :after and (t.status is null or t.status <> com.selaz.to_do_list.model.Status.CONCLUIDA)")
+	List<Object[]> findOpenDueAfter(@Param("after") Date after);
 }
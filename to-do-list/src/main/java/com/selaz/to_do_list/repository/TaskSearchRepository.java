@@ -0,0 +1,19 @@
+package com.selaz.to_do_list.repository;
+
+import java.util.List;
+
+import com.selaz.to_do_list.dto.TaskCursor;
+import com.selaz.to_do_list.dto.TaskFilter;
+import com.selaz.to_do_list.dto.TaskItemDto;
+
+public interface TaskSearchRepository {
+
+	/**
+	 * Returns up to {@code limit} tasks matching the filter, in the filter's sort
+	 * order, strictly after the given cursor. Tasks whose sort key is null come
+	 * after all others, ordered by id. Only the columns of {@link TaskItemDto} are
+	 * selected; the owner is never joined.
+	 */
+	List<TaskItemDto> search(TaskFilter filter, TaskCursor after, int limit);
+
+}
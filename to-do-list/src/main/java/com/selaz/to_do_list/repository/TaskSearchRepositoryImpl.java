@@ -0,0 +1,69 @@
+package com.selaz.to_do_list.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selaz.to_do_list.dto.TaskCursor;
+import com.selaz.to_do_list.dto.TaskFilter;
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.dto.TaskSort;
+import com.selaz.to_do_list.model.Task;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+public class TaskSearchRepositoryImpl implements TaskSearchRepository {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<TaskItemDto> search(TaskFilter filter, TaskCursor after, int limit) {
+		Specification<Task> matching = TaskSpecifications.matching(filter);
+		TaskSort sort = filter.getSort();
+
+		if (sort.getAttribute() == null) {
+			long afterId = after == null ? 0L : after.getId();
+			return fetch(matching.and(TaskSpecifications.idAfter(afterId)), null, limit);
+		}
+
+		// Cursor já está na seção de chave nula
+		if (after != null && after.getKey() == null) {
+			return fetch(matching.and(TaskSpecifications.nullKeyAfter(sort, after.getId())), null, limit);
+		}
+
+		List<TaskItemDto> tasks = fetch(matching.and(TaskSpecifications.afterKey(sort, after)), sort.getAttribute(), limit);
+
+		if (tasks.size() < limit && !filter.boundsSortKey()) {
+			tasks = new ArrayList<>(tasks);
+			tasks.addAll(fetch(matching.and(TaskSpecifications.nullKeyAfter(sort, 0L)), null, limit - tasks.size()));
+		}
+		return tasks;
+	}
+
+	private List<TaskItemDto> fetch(Specification<Task> specification, String keyAttribute, int limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<TaskItemDto> query = cb.createQuery(TaskItemDto.class);
+		Root<Task> root = query.from(Task.class);
+
+		// user.id vem da própria coluna user_id, sem join com tb_user
+		query.select(cb.construct(TaskItemDto.class, root.get("id"), root.get("title"), root.get("status"),
+				root.get("dueDate"), root.get("createdAt"), root.get("user").get("id"), root.get("version")))
+				.where(specification.toPredicate(root, query, cb));
+		if (keyAttribute == null) {
+			query.orderBy(cb.asc(root.get("id")));
+		} else {
+			query.orderBy(cb.asc(root.get(keyAttribute)), cb.asc(root.get("id")));
+		}
+
+		return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.selaz.to_do_list.repository;
+
+import java.util.Date;
+import java.util.Set;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.selaz.to_do_list.dto.TaskCursor;
+import com.selaz.to_do_list.dto.TaskFilter;
+import com.selaz.to_do_list.dto.TaskSort;
+import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.model.Task;
+
+/**
+ * Building blocks for task queries. Every predicate maps onto a prefix of one of
+ * the composite indexes declared on {@code tb_task}.
+ */
+public final class TaskSpecifications {
+
+	private TaskSpecifications() {
+	}
+
+	public static Specification<Task> matching(TaskFilter filter) {
+		return Specification.where(ownedBy(filter.getUserId()))
+				.and(statusIn(filter.getStatus()))
+				.and(between("dueDate", filter.getDueFrom(), filter.getDueTo()))
+				.and(between("createdAt", filter.getCreatedFrom(), filter.getCreatedTo()));
+	}
+
+	public static Specification<Task> ownedBy(Long userId) {
+		if (userId == null) {
+			return null;
+		}
+		return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+	}
+
+	public static Specification<Task> statusIn(Set<Status> statuses) {
+		if (statuses == null || statuses.isEmpty()) {
+			return null;
+		}
+		if (statuses.size() == 1) {
+			Status status = statuses.iterator().next();
+			return (root, query, cb) -> cb.equal(root.get("status"), status);
+		}
+		return (root, query, cb) -> root.get("status").in(statuses);
+	}
+
+	public static Specification<Task> between(String attribute, Date from, Date to) {
+		Specification<Task> lower = from == null ? null
+				: (root, query, cb) -> cb.greaterThanOrEqualTo(root.get(attribute), from);
+		Specification<Task> upper = to == null ? null
+				: (root, query, cb) -> cb.lessThan(root.get(attribute), to);
+		return Specification.where(lower).and(upper);
+	}
+
+	/**
+	 * Tasks strictly after the cursor among those whose sort key is not null.
+	 */
+	public static Specification<Task> afterKey(TaskSort sort, TaskCursor after) {
+		String attribute = sort.getAttribute();
+		if (after == null) {
+			return (root, query, cb) -> cb.isNotNull(root.get(attribute));
+		}
+		// O termo redundante "key >= ?" permite a busca por faixa no índice; o OR sozinho não permite
+		return (root, query, cb) -> cb.and(cb.greaterThanOrEqualTo(root.<Date>get(attribute), after.getKey()),
+				cb.or(cb.greaterThan(root.<Date>get(attribute), after.getKey()),
+						cb.greaterThan(root.get("id"), after.getId())));
+	}
+
+	/**
+	 * Tasks after the cursor among those whose sort key is null, ordered by id.
+	 */
+	public static Specification<Task> nullKeyAfter(TaskSort sort, long afterId) {
+		String attribute = sort.getAttribute();
+		return (root, query, cb) -> cb.and(cb.isNull(root.get(attribute)), cb.greaterThan(root.get("id"), afterId));
+	}
+
+	public static Specification<Task> idAfter(long afterId) {
+		return (root, query, cb) -> cb.greaterThan(root.get("id"), afterId);
+	}
+
+}
@@ -1,13 +1,45 @@
 package com.selaz.to_do_list.repository;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.selaz.to_do_list.config.CacheConfiguration;
 import com.selaz.to_do_list.model.User;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+	// Consultas em cache leem o primário: uma linha antiga da réplica ficaria no cache até o TTL
+	@Transactional
+	@Cacheable(cacheNames = CacheConfiguration.USERS_BY_USERNAME, unless = "#result == null")
 	User findByUsername(String username);
 
+	@Override
+	@Transactional
+	@Cacheable(cacheNames = CacheConfiguration.USERS_BY_ID, unless = "#result == null")
+	Optional<User> findById(Long id);
+
+	// Só marca o usuário: as tarefas e a linha saem depois, em lotes (UserDeletionService)
+	@Transactional
+	@Modifying
+	@Query(nativeQuery = true, value = "update tb_user set deleted_at = localtimestamp where user_id = :id and deleted_at is null")
+	int markDeleted(@Param("id") Long id);
+
+	@Transactional
+	@Query(nativeQuery = true, value = "select user_id from tb_user where deleted_at is not null order by user_id")
+	List<Long> findDeletedIds();
+
+	@Transactional
+	@Modifying
+	@Query(nativeQuery = true, value = "delete from tb_user where user_id = :id and deleted_at is not null")
+	int deleteMarkedById(@Param("id") Long id);
+
 }
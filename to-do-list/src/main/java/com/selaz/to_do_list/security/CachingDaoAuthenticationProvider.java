@@ -0,0 +1,34 @@
+package com.selaz.to_do_list.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link DaoAuthenticationProvider} that consults a
+ * {@link VerifiedCredentialsCache} before running the password encoder.
+ */
+public class CachingDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+	private final VerifiedCredentialsCache cache;
+
+	public CachingDaoAuthenticationProvider(PasswordEncoder passwordEncoder, VerifiedCredentialsCache cache) {
+		super(passwordEncoder);
+		this.cache = cache;
+	}
+
+	@Override
+	protected void additionalAuthenticationChecks(UserDetails userDetails,
+			UsernamePasswordAuthenticationToken authentication) {
+		Object credentials = authentication.getCredentials();
+
+		if (credentials != null && cache.contains(userDetails, credentials.toString())) {
+			return;
+		}
+
+		super.additionalAuthenticationChecks(userDetails, authentication);
+		cache.put(userDetails, credentials.toString());
+	}
+
+}
@@ -0,0 +1,150 @@
+package com.selaz.to_do_list.security;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control for the task and user APIs, right after Spring Security,
+ * enabled with {@code ratelimit.enabled}.
+ * Each user gets token buckets for reads, writes and bulk requests (batches,
+ * export and delete by filter); an empty bucket answers 429 with
+ * {@code Retry-After}. On top of that, at most {@code ratelimit.max-concurrent}
+ * requests run at once, so a burst is turned away up front instead of queuing
+ * for a database connection.
+ * <p>
+ * Rejections are counted in {@value #METRIC}, tagged with the reason.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+	public static final String METRIC = "http.server.requests.rejected";
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${ratelimit.enabled:false}")
+	boolean enabled;
+
+	@Value("${ratelimit.read.capacity:200}")
+	int readCapacity;
+
+	@Value("${ratelimit.read.per-second:100}")
+	double readPerSecond;
+
+	@Value("${ratelimit.write.capacity:50}")
+	int writeCapacity;
+
+	@Value("${ratelimit.write.per-second:20}")
+	double writePerSecond;
+
+	@Value("${ratelimit.bulk.capacity:5}")
+	int bulkCapacity;
+
+	@Value("${ratelimit.bulk.per-second:0.5}")
+	double bulkPerSecond;
+
+	@Value("${ratelimit.max-users:100000}")
+	int maxUsers;
+
+	@Value("${ratelimit.idle:PT10M}")
+	Duration idle;
+
+	@Value("${ratelimit.max-concurrent:20}")
+	int maxConcurrent;
+
+	Clock clock = Clock.systemUTC();
+
+	private RateLimiter limiter;
+
+	private Semaphore concurrency;
+
+	private Counter rateRejected;
+
+	private Counter concurrencyRejected;
+
+	@PostConstruct
+	public void start() {
+		Map<RateLimiter.Kind, RateLimiter.Limit> limits = new EnumMap<>(RateLimiter.Kind.class);
+		limits.put(RateLimiter.Kind.READ, new RateLimiter.Limit(readCapacity, readPerSecond));
+		limits.put(RateLimiter.Kind.WRITE, new RateLimiter.Limit(writeCapacity, writePerSecond));
+		limits.put(RateLimiter.Kind.BULK, new RateLimiter.Limit(bulkCapacity, bulkPerSecond));
+		limiter = new RateLimiter(limits, maxUsers, idle, clock);
+		concurrency = new Semaphore(maxConcurrent);
+
+		rateRejected = Counter.builder(METRIC).description("Requests refused by admission control")
+				.tag("reason", "rate").register(meterRegistry);
+		concurrencyRejected = Counter.builder(METRIC).description("Requests refused by admission control")
+				.tag("reason", "concurrency").register(meterRegistry);
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String path = request.getRequestURI();
+		return !enabled || !(path.startsWith("/api/tasks") || path.startsWith("/api/users"));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null) {
+			long waitMillis = limiter.tryAcquire(authentication.getName(), kind(request));
+			if (waitMillis > 0) {
+				rateRejected.increment();
+				reject(response, waitMillis);
+				return;
+			}
+		}
+
+		if (!concurrency.tryAcquire()) {
+			concurrencyRejected.increment();
+			reject(response, 1_000L);
+			return;
+		}
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			concurrency.release();
+		}
+	}
+
+	static RateLimiter.Kind kind(HttpServletRequest request) {
+		String method = request.getMethod();
+		String path = request.getRequestURI();
+		if (path.endsWith("/batch") || path.endsWith("/export")
+				|| ("DELETE".equals(method) && path.equals("/api/tasks"))) {
+			return RateLimiter.Kind.BULK;
+		}
+		return "GET".equals(method) || "HEAD".equals(method) ? RateLimiter.Kind.READ : RateLimiter.Kind.WRITE;
+	}
+
+	private static void reject(HttpServletResponse response, long waitMillis) {
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((waitMillis + 999) / 1000));
+	}
+
+}
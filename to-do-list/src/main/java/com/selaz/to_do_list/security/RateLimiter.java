@@ -0,0 +1,133 @@
+package com.selaz.to_do_list.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token buckets per user and {@link Kind} of request. Buckets live in a fixed
+ * number of stripes, each an access-ordered map bounded to its share of
+ * {@code maxUsers} and guarded by its own monitor, so a request takes one
+ * uncontended lock and no allocation once its user is known.
+ * <p>
+ * A user idle long enough for every bucket to refill is dropped when the
+ * stripe next admits a new user: a full bucket and a missing one behave the
+ * same.
+ */
+public class RateLimiter {
+
+	public enum Kind {
+		READ, WRITE, BULK
+	}
+
+	/**
+	 * Up to {@code capacity} requests at once, refilled at {@code perSecond}.
+	 */
+	public record Limit(int capacity, double perSecond) {
+	}
+
+	private static final int STRIPES = 16;
+
+	private final double[] capacity;
+
+	private final double[] perMilli;
+
+	private final long idleMillis;
+
+	private final Clock clock;
+
+	private final Stripe[] stripes = new Stripe[STRIPES];
+
+	private final class Stripe extends LinkedHashMap<String, Buckets> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int maxSize;
+
+		Stripe(int maxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Buckets> eldest) {
+			return size() > maxSize || clock.millis() - eldest.getValue().lastSeen >= idleMillis;
+		}
+
+	}
+
+	private static final class Buckets {
+
+		final double[] tokens;
+
+		long lastSeen;
+
+		Buckets(double[] capacity, long now) {
+			this.tokens = capacity.clone();
+			this.lastSeen = now;
+		}
+
+	}
+
+	public RateLimiter(Map<Kind, Limit> limits, int maxUsers, Duration idle, Clock clock) {
+		Kind[] kinds = Kind.values();
+		this.capacity = new double[kinds.length];
+		this.perMilli = new double[kinds.length];
+		long refillMillis = 0L;
+		for (Kind kind : kinds) {
+			Limit limit = limits.get(kind);
+			capacity[kind.ordinal()] = limit.capacity();
+			perMilli[kind.ordinal()] = limit.perSecond() / 1000.0;
+			refillMillis = Math.max(refillMillis, (long) Math.ceil(limit.capacity() / perMilli[kind.ordinal()]));
+		}
+		// Esquecer um usuário antes do balde encher devolveria fichas a quem ainda está no limite
+		this.idleMillis = Math.max(idle.toMillis(), refillMillis);
+		this.clock = clock;
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new Stripe(Math.max(1, maxUsers / STRIPES));
+		}
+	}
+
+	/**
+	 * Takes one token from the user's bucket. Returns 0 when it was taken,
+	 * otherwise how many milliseconds until one is available.
+	 */
+	public long tryAcquire(String user, Kind kind) {
+		int k = kind.ordinal();
+		Stripe stripe = stripes[(user.hashCode() ^ (user.hashCode() >>> 16)) & (STRIPES - 1)];
+		synchronized (stripe) {
+			long now = clock.millis();
+			Buckets buckets = stripe.get(user);
+			if (buckets == null) {
+				buckets = new Buckets(capacity, now);
+				stripe.put(user, buckets);
+			}
+
+			long elapsed = Math.max(0L, now - buckets.lastSeen);
+			buckets.lastSeen = now;
+			if (elapsed > 0) {
+				for (int i = 0; i < buckets.tokens.length; i++) {
+					buckets.tokens[i] = Math.min(capacity[i], buckets.tokens[i] + elapsed * perMilli[i]);
+				}
+			}
+
+			if (buckets.tokens[k] >= 1.0) {
+				buckets.tokens[k] -= 1.0;
+				return 0L;
+			}
+			return Math.max(1L, (long) Math.ceil((1.0 - buckets.tokens[k]) / perMilli[k]));
+		}
+	}
+
+	int size() {
+		int size = 0;
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				size += stripe.size();
+			}
+		}
+		return size;
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.selaz.to_do_list.security;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * A request authenticated by a bearer token rather than by the password, so
+ * endpoints that must see the password, such as token issuance, can tell the
+ * two apart.
+ */
+public class TokenAuthentication extends AbstractAuthenticationToken {
+
+	private static final long serialVersionUID = 1L;
+
+	private final UserDetails user;
+
+	public TokenAuthentication(UserDetails user) {
+		super(user.getAuthorities());
+		this.user = user;
+		setAuthenticated(true);
+	}
+
+	@Override
+	public Object getCredentials() {
+		return null;
+	}
+
+	@Override
+	public Object getPrincipal() {
+		return user;
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.selaz.to_do_list.security;
+
+import java.io.IOException;
+
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Authenticates requests carrying {@code Authorization: Bearer <token>}
+ * without touching the password encoder. Requests without a valid token, or
+ * whose user is disabled, locked or expired, fall through to HTTP Basic.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+	private static final String PREFIX = "Bearer ";
+
+	private final TokenService tokenService;
+
+	public TokenAuthenticationFilter(TokenService tokenService) {
+		this.tokenService = tokenService;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String header = request.getHeader("Authorization");
+
+		if (header != null && header.startsWith(PREFIX)) {
+			UserDetails user = tokenService.verify(header.substring(PREFIX.length()).trim());
+
+			if (user != null && isUsable(user)) {
+				SecurityContext context = SecurityContextHolder.createEmptyContext();
+				context.setAuthentication(new TokenAuthentication(user));
+				SecurityContextHolder.setContext(context);
+			}
+		}
+
+		filterChain.doFilter(request, response);
+	}
+
+	// As mesmas verificações que o DaoAuthenticationProvider faz no login com senha
+	private static boolean isUsable(UserDetails user) {
+		return user.isEnabled() && user.isAccountNonLocked() && user.isAccountNonExpired()
+				&& user.isCredentialsNonExpired();
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.selaz.to_do_list.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.selaz.to_do_list.dto.TokenDto;
+
+/**
+ * Issues and verifies stateless bearer tokens of the form
+ * {@code base64url(username).expiry.base64url(hmac)}. The signature also covers
+ * the user's stored password hash, so changing the password revokes every
+ * token issued before.
+ */
+public class TokenService {
+
+	private static final String ALGORITHM = "HmacSHA256";
+
+	private final SecretKeySpec key;
+
+	private final Duration ttl;
+
+	private final Clock clock;
+
+	private final UserDetailsService userDetailsService;
+
+	public TokenService(byte[] secret, Duration ttl, Clock clock, UserDetailsService userDetailsService) {
+		this.key = new SecretKeySpec(secret, ALGORITHM);
+		this.ttl = ttl;
+		this.clock = clock;
+		this.userDetailsService = userDetailsService;
+	}
+
+	public TokenDto issue(UserDetails principal) {
+		// O principal autenticado já teve a senha apagada; a assinatura usa o hash armazenado
+		UserDetails user = userDetailsService.loadUserByUsername(principal.getUsername());
+		long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+		String payload = encode(user.getUsername().getBytes(StandardCharsets.UTF_8)) + "." + expiresAt;
+		String token = payload + "." + encode(sign(payload, user.getPassword()));
+		return new TokenDto(token, new Date(expiresAt * 1000));
+	}
+
+	/**
+	 * Returns the user the token was issued to, or {@code null} when the token is
+	 * malformed, expired, tampered with or was issued before a password change.
+	 */
+	public UserDetails verify(String token) {
+		String[] parts = token.split("\\.");
+		if (parts.length != 3) {
+			return null;
+		}
+
+		try {
+			long expiresAt = Long.parseLong(parts[1]);
+			if (expiresAt <= clock.instant().getEpochSecond()) {
+				return null;
+			}
+
+			String username = new String(Base64.getUrlDecoder().decode(parts[0]), StandardCharsets.UTF_8);
+			UserDetails user = userDetailsService.loadUserByUsername(username);
+			byte[] expected = sign(parts[0] + "." + parts[1], user.getPassword());
+
+			return MessageDigest.isEqual(expected, Base64.getUrlDecoder().decode(parts[2])) ? user : null;
+		} catch (IllegalArgumentException | UsernameNotFoundException e) {
+			return null;
+		}
+	}
+
+	private byte[] sign(String payload, String encodedPassword) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(key);
+			mac.update(payload.getBytes(StandardCharsets.UTF_8));
+			mac.update((byte) 0);
+			return mac.doFinal(String.valueOf(encodedPassword).getBytes(StandardCharsets.UTF_8));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String encode(byte[] bytes) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+
+}
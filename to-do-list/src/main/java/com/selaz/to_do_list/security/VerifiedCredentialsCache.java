@@ -0,0 +1,106 @@
+package com.selaz.to_do_list.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Remembers credentials that already passed a full password check, so repeat
+ * requests skip BCrypt. Only an HMAC of username and password is kept, under a
+ * key generated per process. Entries expire after the TTL, the least recently
+ * used entry is dropped when the cache is full, and an entry no longer matches
+ * once the user's stored password hash changes.
+ */
+public class VerifiedCredentialsCache {
+
+	private static final String ALGORITHM = "HmacSHA256";
+
+	private final SecretKeySpec key;
+
+	private final long ttlMillis;
+
+	private final Clock clock;
+
+	private final Map<String, Entry> entries;
+
+	public VerifiedCredentialsCache(int maxSize, Duration ttl, Clock clock) {
+		byte[] secret = new byte[32];
+		new SecureRandom().nextBytes(secret);
+		this.key = new SecretKeySpec(secret, ALGORITHM);
+		this.ttlMillis = ttl.toMillis();
+		this.clock = clock;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > maxSize;
+			}
+
+		};
+	}
+
+	public boolean contains(UserDetails user, String password) {
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(user.getUsername());
+		}
+
+		if (entry == null) {
+			return false;
+		}
+
+		if (entry.expiresAt() <= clock.millis() || !entry.encodedPassword().equals(user.getPassword())) {
+			evict(user.getUsername());
+			return false;
+		}
+
+		return MessageDigest.isEqual(entry.digest(), digest(user.getUsername(), password));
+	}
+
+	public void put(UserDetails user, String password) {
+		Entry entry = new Entry(digest(user.getUsername(), password), user.getPassword(), clock.millis() + ttlMillis);
+		synchronized (entries) {
+			entries.put(user.getUsername(), entry);
+		}
+	}
+
+	public void evict(String username) {
+		synchronized (entries) {
+			entries.remove(username);
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	private byte[] digest(String username, String password) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(key);
+			mac.update(username.getBytes(StandardCharsets.UTF_8));
+			mac.update((byte) 0);
+			return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private record Entry(byte[] digest, String encodedPassword, long expiresAt) {
+	}
+
+}
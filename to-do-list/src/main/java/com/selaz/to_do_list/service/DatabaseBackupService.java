@@ -0,0 +1,58 @@
+package com.selaz.to_do_list.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.selaz.to_do_list.dto.BackupDto;
+
+/**
+ * Online backups of a file-based H2 database with {@code BACKUP TO}. H2 copies
+ * the MVStore file while the database stays open; writers are not blocked,
+ * because MVStore never overwrites pages that the copy may still read.
+ */
+@Service
+public class DatabaseBackupService {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Value("${backup.directory:backups}")
+	String directory;
+
+	public boolean isSupported() {
+		String url = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL());
+		return url != null && !url.startsWith("jdbc:h2:mem:");
+	}
+
+	/**
+	 * Writes a zip of the database files to the backup directory.
+	 */
+	public BackupDto backup() {
+		Date createdAt = new Date();
+		Path target = Paths.get(directory)
+				.resolve("todo-" + new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(createdAt) + ".zip")
+				.toAbsolutePath();
+
+		try {
+			Files.createDirectories(target.getParent());
+			long start = System.nanoTime();
+			jdbcTemplate.execute("BACKUP TO '" + target.toString().replace("'", "''") + "'");
+			long durationMillis = (System.nanoTime() - start) / 1_000_000;
+			return new BackupDto(target.toString(), Files.size(target), durationMillis, createdAt);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
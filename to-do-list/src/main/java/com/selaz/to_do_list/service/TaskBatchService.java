@@ -0,0 +1,180 @@
+package com.selaz.to_do_list.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selaz.to_do_list.dto.BatchResultDto;
+import com.selaz.to_do_list.dto.TaskBatchUpdateDto;
+import com.selaz.to_do_list.dto.TaskDto;
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.event.TaskChange;
+import com.selaz.to_do_list.event.TaskChangedEvent;
+import com.selaz.to_do_list.model.Task;
+import com.selaz.to_do_list.model.User;
+import com.selaz.to_do_list.repository.TaskRepository;
+import com.selaz.to_do_list.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Creates, updates and deletes many tasks in one transaction. Statements are
+ * sent in JDBC batches of {@code hibernate.jdbc.batch_size} and the persistence
+ * context is cleared after each batch, so memory does not grow with the
+ * request size.
+ */
+@Service
+public class TaskBatchService {
+
+	private static final int IN_CLAUSE_SIZE = 1000;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+	private int batchSize;
+
+	@Transactional
+	public List<BatchResultDto> createTasks(List<TaskDto> taskDtos) {
+		Map<Long, User> owners = new HashMap<>();
+		for (List<Long> chunk : chunks(taskDtos.stream().map(TaskDto::getUser_id).filter(Objects::nonNull)
+				.distinct().collect(Collectors.toList()))) {
+			userRepository.findAllById(chunk).forEach(user -> owners.put(user.getId(), user));
+		}
+
+		List<BatchResultDto> results = new ArrayList<>(taskDtos.size());
+		List<TaskChange> changes = new ArrayList<>();
+		Date createdAt = new Date();
+		int pending = 0;
+
+		for (int i = 0; i < taskDtos.size(); i++) {
+			TaskDto taskDto = taskDtos.get(i);
+			User user = taskDto.getUser_id() == null ? null : owners.get(taskDto.getUser_id());
+
+			if (user == null) {
+				results.add(new BatchResultDto(i, null, 404, "User not found"));
+				continue;
+			}
+
+			Task task = new Task(null, user, taskDto.getTitle(), taskDto.getDescription(), createdAt,
+					taskDto.getDueDate(), taskDto.getStatus());
+			entityManager.persist(task);
+			changes.add(TaskChange.created(TaskItemDto.of(task), task.getDescription()));
+			results.add(new BatchResultDto(i, task.getId(), 200, null));
+
+			if (++pending % batchSize == 0) {
+				entityManager.flush();
+				entityManager.clear();
+			}
+		}
+
+		publishChanged(changes);
+		return results;
+	}
+
+	@Transactional
+	public List<BatchResultDto> updateTasks(List<TaskBatchUpdateDto> taskDtos) {
+		List<BatchResultDto> results = new ArrayList<>(taskDtos.size());
+		List<TaskChange> changes = new ArrayList<>();
+		int offset = 0;
+
+		// Cada bloco é carregado com um único SELECT ... IN e gravado em lotes de UPDATE
+		for (List<TaskBatchUpdateDto> chunk : chunks(taskDtos)) {
+			Map<Long, Task> tasks = new HashMap<>();
+			taskRepository.findAllById(chunk.stream().map(TaskBatchUpdateDto::getId).filter(Objects::nonNull)
+					.distinct().collect(Collectors.toList())).forEach(task -> tasks.put(task.getId(), task));
+			Map<Task, TaskItemDto> before = new LinkedHashMap<>();
+
+			for (int i = 0; i < chunk.size(); i++) {
+				TaskBatchUpdateDto taskDto = chunk.get(i);
+				Task task = taskDto.getId() == null ? null : tasks.get(taskDto.getId());
+
+				if (task == null) {
+					results.add(new BatchResultDto(offset + i, taskDto.getId(), 404, "Task not found"));
+					continue;
+				}
+
+				before.putIfAbsent(task, TaskItemDto.of(task));
+				task.setTitle(taskDto.getTitle());
+				task.setDescription(taskDto.getDescription());
+				task.setDueDate(taskDto.getDueDate());
+				task.setStatus(taskDto.getStatus());
+				results.add(new BatchResultDto(offset + i, task.getId(), 200, null));
+			}
+
+			entityManager.flush();
+			// Estado final lido após o flush, com a versão já incrementada
+			before.forEach(
+					(task, item) -> changes.add(TaskChange.updated(item, TaskItemDto.of(task), task.getDescription())));
+			entityManager.clear();
+			offset += chunk.size();
+		}
+
+		publishChanged(changes);
+		return results;
+	}
+
+	@Transactional
+	public List<BatchResultDto> deleteTasks(List<Long> ids) {
+		Set<Long> existing = new HashSet<>();
+		List<TaskChange> changes = new ArrayList<>();
+		for (List<Long> chunk : chunks(ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList()))) {
+			List<Long> found = new ArrayList<>();
+			for (TaskItemDto task : taskRepository.findItemsByIdIn(chunk)) {
+				found.add(task.getId());
+				changes.add(TaskChange.deleted(task));
+			}
+			taskRepository.deleteAllByIdInBatch(found);
+			existing.addAll(found);
+		}
+
+		List<BatchResultDto> results = new ArrayList<>(ids.size());
+		for (int i = 0; i < ids.size(); i++) {
+			Long id = ids.get(i);
+			results.add(existing.contains(id) ? new BatchResultDto(i, id, 204, null)
+					: new BatchResultDto(i, id, 404, "Task not found"));
+		}
+
+		publishChanged(changes);
+		return results;
+	}
+
+	// Os ouvintes transacionais só recebem o evento após o commit
+	private void publishChanged(List<TaskChange> changes) {
+		if (!changes.isEmpty()) {
+			eventPublisher.publishEvent(new TaskChangedEvent(changes));
+		}
+	}
+
+	private static <T> List<List<T>> chunks(List<T> items) {
+		List<List<T>> chunks = new ArrayList<>();
+		for (int from = 0; from < items.size(); from += IN_CLAUSE_SIZE) {
+			chunks.add(items.subList(from, Math.min(from + IN_CLAUSE_SIZE, items.size())));
+		}
+		return chunks;
+	}
+
+}
@@ -0,0 +1,378 @@
+package com.selaz.to_do_list.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.event.TaskChange;
+import com.selaz.to_do_list.event.TaskChangedEvent;
+import com.selaz.to_do_list.event.UserTasksDeletedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-sent events of each user's task changes. Committed changes are
+ * appended to a ring of the last {@code tasks.stream.history} events and
+ * fanned out to the owner's subscribers. Subscribers hold no thread while idle:
+ * every one has a bounded queue, drained by a small pool of sender threads, and
+ * one that falls {@code tasks.stream.subscriber-buffer} events behind is
+ * disconnected.
+ * <p>
+ * Event ids are {@code <epoch>-<sequence>}. A client reconnecting with
+ * {@code Last-Event-ID} gets the events it missed, or a single {@code reset}
+ * event when they are no longer in the ring (or came from a previous run), in
+ * which case it should reload its list. Deleting a user's tasks all at once is
+ * sent as a {@code reset} too.
+ * <p>
+ * Meters: {@code tasks.stream.subscribers} and {@code tasks.stream.evicted}.
+ */
+@Component
+public class TaskChangeStream {
+
+	private static final Logger log = LoggerFactory.getLogger(TaskChangeStream.class);
+
+	static final String RESET = "reset";
+
+	// Espera do EventSource antes de reconectar
+	private static final long RECONNECT_MILLIS = 2_000L;
+
+	// Primeira mensagem: sem ela, os cabeçalhos só chegariam ao cliente junto com o primeiro evento
+	private static final Set<DataWithMediaType> OPEN = build(SseEmitter.event().reconnectTime(RECONNECT_MILLIS));
+
+	private static final Set<DataWithMediaType> HEARTBEAT = build(SseEmitter.event().comment(""));
+
+	private static final class Event {
+
+		final long sequence;
+
+		final Long userId;
+
+		// Nulo para um reset, que vale para todas as tarefas do usuário
+		final TaskChange.Type type;
+
+		final TaskItemDto task;
+
+		Event(long sequence, Long userId, TaskChange.Type type, TaskItemDto task) {
+			this.sequence = sequence;
+			this.userId = userId;
+			this.type = type;
+			this.task = task;
+		}
+
+	}
+
+	final class Subscriber {
+
+		final Long userId;
+
+		final SseEmitter emitter;
+
+		// Protegidos pelo monitor do assinante
+		private final Deque<Set<DataWithMediaType>> pending = new ArrayDeque<>();
+
+		private boolean draining;
+
+		private boolean closed;
+
+		Subscriber(Long userId, SseEmitter emitter) {
+			this.userId = userId;
+			this.emitter = emitter;
+		}
+
+		void offer(Set<DataWithMediaType> event) {
+			synchronized (this) {
+				if (closed) {
+					return;
+				}
+				if (pending.size() >= subscriberBuffer) {
+					// Consumidor lento: desconecta em vez de acumular; ele retoma pelo Last-Event-ID
+					closed = true;
+					pending.clear();
+					evicted.increment();
+				} else {
+					pending.addLast(event);
+				}
+				if (draining) {
+					return;
+				}
+				draining = true;
+			}
+			senders.execute(this::drain);
+		}
+
+		private void drain() {
+			while (true) {
+				Set<DataWithMediaType> next;
+				boolean complete;
+				synchronized (this) {
+					complete = closed;
+					next = pending.pollFirst();
+					if (next == null && !complete) {
+						draining = false;
+						return;
+					}
+				}
+
+				if (complete) {
+					unsubscribe(this);
+					emitter.complete();
+					return;
+				}
+				try {
+					emitter.send(next);
+				} catch (IOException | IllegalStateException e) {
+					// Conexão fechada pelo cliente
+					close();
+				}
+			}
+		}
+
+		void close() {
+			synchronized (this) {
+				closed = true;
+				pending.clear();
+			}
+			unsubscribe(this);
+		}
+
+	}
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${tasks.stream.history:10000}")
+	int history;
+
+	@Value("${tasks.stream.subscriber-buffer:256}")
+	int subscriberBuffer;
+
+	@Value("${tasks.stream.max-subscribers:10000}")
+	int maxSubscribers;
+
+	@Value("${tasks.stream.timeout:PT30M}")
+	Duration timeout;
+
+	@Value("${tasks.stream.senders:4}")
+	int senderThreads;
+
+	Executor senders;
+
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+	// Anel e registro de assinantes, protegidos pelo monitor deste objeto
+	private Event[] ring;
+
+	private long sequence;
+
+	private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+	private final AtomicInteger subscriberCount = new AtomicInteger();
+
+	private Counter evicted;
+
+	@PostConstruct
+	public void start() {
+		ring = new Event[history];
+		if (senders == null) {
+			AtomicInteger threads = new AtomicInteger();
+			senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+				Thread thread = new Thread(runnable, "task-stream-sender-" + threads.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		Gauge.builder("tasks.stream.subscribers", subscriberCount, AtomicInteger::get)
+				.description("Open task change streams").register(meterRegistry);
+		evicted = Counter.builder("tasks.stream.evicted")
+				.description("Task change streams closed because the client fell behind").register(meterRegistry);
+	}
+
+	@PreDestroy
+	public void stop() {
+		for (Set<Subscriber> set : subscribers.values()) {
+			for (Subscriber subscriber : set) {
+				subscriber.emitter.complete();
+			}
+		}
+		if (senders instanceof ExecutorService executor) {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Opens a stream of the user's task changes, or returns {@code null} when
+	 * the node already holds {@code tasks.stream.max-subscribers} streams.
+	 */
+	public SseEmitter subscribe(Long userId, String lastEventId) {
+		SseEmitter emitter = new SseEmitter(timeout.toMillis());
+		return subscribe(userId, lastEventId, emitter) ? emitter : null;
+	}
+
+	boolean subscribe(Long userId, String lastEventId, SseEmitter emitter) {
+		if (subscriberCount.incrementAndGet() > maxSubscribers) {
+			subscriberCount.decrementAndGet();
+			return false;
+		}
+
+		Subscriber subscriber = new Subscriber(userId, emitter);
+		emitter.onCompletion(subscriber::close);
+		emitter.onTimeout(subscriber::close);
+		emitter.onError(e -> subscriber.close());
+
+		// Registrar e montar o replay sob o mesmo monitor: nenhum evento se perde nem chega duas vezes
+		synchronized (this) {
+			subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+			subscriber.offer(OPEN);
+			List<Event> missed = missed(userId, lastEventId);
+			if (missed == null) {
+				subscriber.offer(build(SseEmitter.event().id(id(sequence)).name(RESET).data("")));
+			} else {
+				for (Event event : missed) {
+					subscriber.offer(toSse(event));
+				}
+			}
+		}
+		return true;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onTaskChanged(TaskChangedEvent event) {
+		for (TaskChange change : event.getChanges()) {
+			if (change.getUserId() == null) {
+				continue;
+			}
+
+			TaskItemDto task = change.getAfter() != null ? change.getAfter() : change.getBefore();
+			append(new Event(++sequence, change.getUserId(), change.getType(), task));
+		}
+	}
+
+	private void append(Event appended) {
+		ring[(int) (appended.sequence % ring.length)] = appended;
+
+		Set<Subscriber> set = subscribers.get(appended.userId);
+		if (set != null) {
+			// Montado uma vez para todos os assinantes
+			Set<DataWithMediaType> sse = toSse(appended);
+			for (Subscriber subscriber : set) {
+				subscriber.offer(sse);
+			}
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onUserTasksDeleted(UserTasksDeletedEvent event) {
+		append(new Event(++sequence, event.getUserId(), null, null));
+	}
+
+	/**
+	 * Comment line sent to every stream, so proxies keep idle connections open
+	 * and streams of vanished clients are noticed and released.
+	 */
+	@Scheduled(fixedDelayString = "${tasks.stream.heartbeat:PT30S}")
+	public void heartbeat() {
+		for (Set<Subscriber> set : subscribers.values()) {
+			for (Subscriber subscriber : set) {
+				subscriber.offer(HEARTBEAT);
+			}
+		}
+	}
+
+	int subscribers() {
+		return subscriberCount.get();
+	}
+
+	/**
+	 * The user's events after {@code lastEventId}, or {@code null} when some of
+	 * them may be missing from the ring or would not fit the subscriber's
+	 * queue.
+	 */
+	private List<Event> missed(Long userId, String lastEventId) {
+		List<Event> missed = new ArrayList<>();
+		if (lastEventId == null || lastEventId.isEmpty()) {
+			return missed;
+		}
+
+		long last = parse(lastEventId);
+		long oldest = Math.max(1L, sequence - ring.length + 1);
+		if (last < 0 || last > sequence || last + 1 < oldest) {
+			return null;
+		}
+
+		for (long seq = last + 1; seq <= sequence; seq++) {
+			Event event = ring[(int) (seq % ring.length)];
+			if (event.userId.equals(userId)) {
+				if (event.type == null) {
+					return null;
+				}
+				missed.add(event);
+			}
+		}
+		return missed.size() < subscriberBuffer ? missed : null;
+	}
+
+	private synchronized void unsubscribe(Subscriber subscriber) {
+		Set<Subscriber> set = subscribers.get(subscriber.userId);
+		if (set != null && set.remove(subscriber)) {
+			subscriberCount.decrementAndGet();
+			log.debug("Stream de tarefas encerrado para o usuário {}", subscriber.userId);
+		}
+		if (set != null && set.isEmpty()) {
+			subscribers.remove(subscriber.userId, set);
+		}
+	}
+
+	private long parse(String lastEventId) {
+		int dash = lastEventId.lastIndexOf('-');
+		if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+			return -1L;
+		}
+		try {
+			return Long.parseLong(lastEventId.substring(dash + 1));
+		} catch (NumberFormatException e) {
+			return -1L;
+		}
+	}
+
+	private String id(long seq) {
+		return epoch + "-" + seq;
+	}
+
+	private Set<DataWithMediaType> toSse(Event event) {
+		if (event.type == null) {
+			return build(SseEmitter.event().id(id(event.sequence)).name(RESET).data(""));
+		}
+		return build(SseEmitter.event().id(id(event.sequence)).name(event.type.name().toLowerCase()).data(event.task));
+	}
+
+	private static Set<DataWithMediaType> build(SseEmitter.SseEventBuilder builder) {
+		return Collections.unmodifiableSet(builder.build());
+	}
+
+}
@@ -0,0 +1,286 @@
+package com.selaz.to_do_list.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.selaz.to_do_list.dto.TaskDueAlertDto;
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.event.TaskChange;
+import com.selaz.to_do_list.event.TaskChangedEvent;
+import com.selaz.to_do_list.event.TaskDueEvent;
+import com.selaz.to_do_list.event.UserTasksDeletedEvent;
+import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.repository.TaskRepository;
+import com.selaz.to_do_list.shard.TaskShards;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Raises {@link TaskDueAlertDto.Type#DUE_SOON} and
+ * {@link TaskDueAlertDto.Type#OVERDUE} alerts for open tasks, each at most once
+ * per due date. Open tasks with a due date sit in a min-heap of timers keyed by
+ * the instant they fire; every tick only pops the timers that are due, so the
+ * work is proportional to the alerts raised, not to the tasks stored.
+ * <p>
+ * Edits replace a task's entry and leave its old timers in the heap to be
+ * discarded when they surface. Alerts go to a bounded feed per user and are
+ * published as {@link TaskDueEvent}s.
+ */
+@Component
+public class TaskDeadlineScheduler {
+
+	static final int FEED_SIZE = 500;
+
+	// Quantidade mínima de timers obsoletos antes de compactar o heap
+	private static final int COMPACT_THRESHOLD = 1024;
+
+	private static final class Tracked {
+
+		final long taskId;
+
+		final long userId;
+
+		final long dueAt;
+
+		int pending;
+
+		Tracked(long taskId, long userId, long dueAt) {
+			this.taskId = taskId;
+			this.userId = userId;
+			this.dueAt = dueAt;
+		}
+
+	}
+
+	private static final class Timer {
+
+		final long at;
+
+		final TaskDueAlertDto.Type type;
+
+		final Tracked task;
+
+		Timer(long at, TaskDueAlertDto.Type type, Tracked task) {
+			this.at = at;
+			this.type = type;
+			this.task = task;
+		}
+
+	}
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private TaskShards taskShards;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Value("${tasks.deadlines.due-soon:PT24H}")
+	Duration dueSoon;
+
+	Clock clock = Clock.systemUTC();
+
+	// Protegidos pelo monitor deste objeto
+	private final Map<Long, Tracked> tracked = new HashMap<>();
+
+	private final PriorityQueue<Timer> timers = new PriorityQueue<>(Comparator.comparingLong((Timer t) -> t.at));
+
+	private int stale;
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	private final ConcurrentMap<Long, Deque<TaskDueAlertDto>> feeds = new ConcurrentHashMap<>();
+
+	/**
+	 * Loads the open tasks that are not yet overdue. Thresholds that passed
+	 * while the application was down are not reported.
+	 */
+	@PostConstruct
+	public synchronized void rebuild() {
+		tracked.clear();
+		timers.clear();
+		stale = 0;
+		long now = clock.millis();
+		Date after = new Date(now);
+		for (Object[] row : taskShards.gather(() -> taskRepository.findOpenDueAfter(after), row -> (Long) row[1])) {
+			track((Long) row[0], (Long) row[1], ((Date) row[2]).getTime(), now);
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onTaskChanged(TaskChangedEvent event) {
+		long now = clock.millis();
+		for (TaskChange change : event.getChanges()) {
+			TaskItemDto before = change.getBefore();
+			TaskItemDto after = change.getAfter();
+
+			if (!isOpen(after)) {
+				untrack(change.getTaskId());
+			} else if (isOpen(before) && Objects.equals(before.getDueDate(), after.getDueDate())) {
+				// Mesmo prazo: mantém o que já disparou; uma tarefa atrasada fora do heap continua silenciosa
+				if (!tracked.containsKey(after.getId())) {
+					track(after.getId(), after.getUserId(), after.getDueDate().getTime(), now);
+				}
+			} else {
+				// Criada, reaberta ou com novo prazo: limites já ultrapassados disparam no próximo tick
+				untrack(after.getId());
+				track(after.getId(), after.getUserId(), after.getDueDate().getTime(), Long.MIN_VALUE);
+			}
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onUserTasksDeleted(UserTasksDeletedEvent event) {
+		List<Long> owned = new ArrayList<>();
+		for (Tracked task : tracked.values()) {
+			if (task.userId == event.getUserId()) {
+				owned.add(task.taskId);
+			}
+		}
+		for (Long taskId : owned) {
+			untrack(taskId);
+		}
+		feeds.remove(event.getUserId());
+	}
+
+	@Scheduled(fixedDelayString = "${tasks.deadlines.tick:PT1S}")
+	public void tick() {
+		List<TaskDueAlertDto> fired = new ArrayList<>();
+		long now = clock.millis();
+
+		synchronized (this) {
+			while (!timers.isEmpty() && timers.peek().at <= now) {
+				Timer timer = timers.poll();
+				Tracked task = timer.task;
+				if (tracked.get(task.taskId) != task) {
+					stale--;
+					continue;
+				}
+
+				task.pending--;
+				if (timer.type == TaskDueAlertDto.Type.OVERDUE) {
+					tracked.remove(task.taskId);
+					fired.add(alert(timer.type, task, now));
+				} else if (now < task.dueAt) {
+					// Se o prazo já passou, vale só o alerta de atraso
+					fired.add(alert(timer.type, task, now));
+				}
+			}
+		}
+
+		for (TaskDueAlertDto alert : fired) {
+			Deque<TaskDueAlertDto> feed = feeds.computeIfAbsent(alert.getUserId(), id -> new ArrayDeque<>());
+			synchronized (feed) {
+				feed.addLast(alert);
+				if (feed.size() > FEED_SIZE) {
+					feed.removeFirst();
+				}
+			}
+			eventPublisher.publishEvent(new TaskDueEvent(alert));
+		}
+	}
+
+	/**
+	 * The user's alerts with a sequence greater than {@code after}, oldest
+	 * first. Only the last {@value #FEED_SIZE} alerts per user are kept.
+	 */
+	public List<TaskDueAlertDto> alerts(Long userId, long after, int limit) {
+		Deque<TaskDueAlertDto> feed = feeds.get(userId);
+		if (feed == null) {
+			return List.of();
+		}
+
+		List<TaskDueAlertDto> alerts = new ArrayList<>();
+		synchronized (feed) {
+			Iterator<TaskDueAlertDto> newest = feed.descendingIterator();
+			while (newest.hasNext()) {
+				TaskDueAlertDto alert = newest.next();
+				if (alert.getSequence() <= after) {
+					break;
+				}
+				alerts.add(alert);
+			}
+		}
+
+		List<TaskDueAlertDto> page = new ArrayList<>(Math.min(limit, alerts.size()));
+		for (int i = alerts.size() - 1; i >= 0 && page.size() < limit; i--) {
+			page.add(alerts.get(i));
+		}
+		return page;
+	}
+
+	synchronized int scheduled() {
+		return tracked.size();
+	}
+
+	/**
+	 * Schedules the task's alerts. Thresholds at or before {@code silentUntil}
+	 * count as already fired.
+	 */
+	private void track(long taskId, long userId, long dueAt, long silentUntil) {
+		if (dueAt <= silentUntil) {
+			return;
+		}
+
+		Tracked task = new Tracked(taskId, userId, dueAt);
+		long dueSoonAt = dueAt - dueSoon.toMillis();
+		if (dueSoonAt > silentUntil) {
+			schedule(new Timer(dueSoonAt, TaskDueAlertDto.Type.DUE_SOON, task));
+		}
+		schedule(new Timer(dueAt, TaskDueAlertDto.Type.OVERDUE, task));
+		tracked.put(taskId, task);
+	}
+
+	private void schedule(Timer timer) {
+		timers.add(timer);
+		timer.task.pending++;
+	}
+
+	private void untrack(Long taskId) {
+		Tracked task = tracked.remove(taskId);
+		if (task == null) {
+			return;
+		}
+
+		stale += task.pending;
+		// Edições frequentes não podem fazer o heap crescer sem limite
+		if (stale > COMPACT_THRESHOLD && stale > timers.size() / 2) {
+			timers.removeIf(timer -> tracked.get(timer.task.taskId) != timer.task);
+			stale = 0;
+		}
+	}
+
+	private TaskDueAlertDto alert(TaskDueAlertDto.Type type, Tracked task, long now) {
+		return new TaskDueAlertDto(sequence.incrementAndGet(), type, task.taskId, task.userId, new Date(task.dueAt),
+				new Date(now));
+	}
+
+	private static boolean isOpen(TaskItemDto task) {
+		return task != null && task.getUserId() != null && task.getDueDate() != null
+				&& task.getStatus() != Status.CONCLUIDA;
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.selaz.to_do_list.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selaz.to_do_list.model.Task;
+import com.selaz.to_do_list.repository.TaskRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Writes tasks as newline-delimited JSON straight from a forward-only cursor.
+ * The persistence context is cleared every {@link #CLEAR_INTERVAL} rows, so
+ * memory use does not depend on the number of tasks exported.
+ */
+@Service
+public class TaskExportService {
+
+	static final int CLEAR_INTERVAL = 500;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	/**
+	 * Exports every task, or only the tasks of {@code userId} when it is not
+	 * null. Returns the number of tasks written.
+	 */
+	@Transactional(readOnly = true)
+	public long export(Long userId, OutputStream out) throws IOException {
+		return export(userId, task -> true, out);
+	}
+
+	/**
+	 * Same as {@link #export(Long, OutputStream)}, writing only the tasks
+	 * {@code include} accepts.
+	 */
+	@Transactional(readOnly = true)
+	public long export(Long userId, Predicate<Task> include, OutputStream out) throws IOException {
+		ObjectWriter writer = objectMapper.writerFor(Task.class)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		long count = 0;
+
+		try (Stream<Task> tasks = userId == null ? taskRepository.streamAll() : taskRepository.streamByUserId(userId);
+				JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.setRootValueSeparator(null);
+
+			long read = 0;
+			for (Iterator<Task> iterator = tasks.iterator(); iterator.hasNext();) {
+				Task task = iterator.next();
+				if (include.test(task)) {
+					writer.writeValue(generator, task);
+					generator.writeRaw('\n');
+					count++;
+				}
+
+				if (++read % CLEAR_INTERVAL == 0) {
+					generator.flush();
+					entityManager.clear();
+				}
+			}
+		}
+
+		return count;
+	}
+
+}
@@ -0,0 +1,297 @@
+package com.selaz.to_do_list.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.selaz.to_do_list.dto.BatchResultDto;
+import com.selaz.to_do_list.dto.IngestTicketDto;
+import com.selaz.to_do_list.dto.TaskDto;
+import com.selaz.to_do_list.shard.TaskShards;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind creation of tasks, enabled with {@code tasks.ingest.enabled}.
+ * Accepted tasks wait in a bounded queue and get a ticket at once; a single
+ * writer thread drains up to {@code tasks.ingest.batch-size} of them at a time
+ * and commits each batch through {@link TaskBatchService#createTasks}, i.e. one
+ * transaction sent in JDBC batches. A batch that fails as a whole is split in
+ * halves and retried, so only the tasks that fail on their own are marked
+ * failed. A full queue refuses new tasks instead of growing, and the queue is
+ * drained before the application shuts down.
+ * <p>
+ * Meters: {@code tasks.ingest.queue.depth}, {@code tasks.ingest.commit}
+ * (latency per batch), {@code tasks.ingest.batch.size} and
+ * {@code tasks.ingest.rejected}.
+ */
+@Component
+public class TaskIngestQueue {
+
+	private static final Logger log = LoggerFactory.getLogger(TaskIngestQueue.class);
+
+	// Quantos resultados de tickets ficam disponíveis para consulta
+	private static final int OUTCOMES_SIZE = 100_000;
+
+	private static final class Pending {
+
+		final long ticket;
+
+		final TaskDto task;
+
+		Pending(long ticket, TaskDto task) {
+			this.ticket = ticket;
+			this.task = task;
+		}
+
+	}
+
+	@Autowired
+	private TaskBatchService taskBatchService;
+
+	@Autowired
+	private TaskShards taskShards;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${tasks.ingest.enabled:false}")
+	boolean enabled;
+
+	@Value("${tasks.ingest.capacity:10000}")
+	int capacity;
+
+	@Value("${tasks.ingest.batch-size:500}")
+	int batchSize;
+
+	@Value("${tasks.ingest.linger:PT0.02S}")
+	Duration linger;
+
+	private BlockingQueue<Pending> queue;
+
+	private final AtomicLong tickets = new AtomicLong();
+
+	private final Map<Long, IngestTicketDto> outcomes = new LinkedHashMap<>() {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, IngestTicketDto> eldest) {
+			return size() > OUTCOMES_SIZE;
+		}
+
+	};
+
+	private volatile boolean accepting;
+
+	// Submissões seguram a leitura; stop() a escrita, para nenhuma entrar depois do último esvaziamento
+	private final ReadWriteLock admission = new ReentrantReadWriteLock();
+
+	private Thread writer;
+
+	private Timer commitTimer;
+
+	private DistributionSummary batchSizes;
+
+	private Counter rejected;
+
+	@PostConstruct
+	public void start() {
+		if (!enabled) {
+			return;
+		}
+
+		queue = new ArrayBlockingQueue<>(capacity);
+		Gauge.builder("tasks.ingest.queue.depth", queue, BlockingQueue::size)
+				.description("Tasks accepted and not yet committed").register(meterRegistry);
+		commitTimer = Timer.builder("tasks.ingest.commit").description("Time to commit one batch of queued tasks")
+				.publishPercentileHistogram().register(meterRegistry);
+		batchSizes = DistributionSummary.builder("tasks.ingest.batch.size").description("Tasks per committed batch")
+				.register(meterRegistry);
+		rejected = Counter.builder("tasks.ingest.rejected").description("Tasks refused because the queue was full")
+				.register(meterRegistry);
+
+		accepting = true;
+		writer = new Thread(this::drain, "task-ingest-writer");
+		// O esvaziamento no desligamento vem de stop(), não de segurar a JVM aberta
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Waits for every accepted task to be committed.
+	 */
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		if (writer == null) {
+			return;
+		}
+
+		admission.writeLock().lock();
+		try {
+			accepting = false;
+		} finally {
+			admission.writeLock().unlock();
+		}
+		writer.join();
+		// Tarefas que o writer deixou ao ser interrompido
+		List<Pending> rest = new ArrayList<>();
+		queue.drainTo(rest);
+		if (!rest.isEmpty()) {
+			commit(rest);
+		}
+		log.info("Fila de ingestão esvaziada");
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Queues the task, or returns {@code null} when the queue is full or
+	 * shutting down.
+	 */
+	public IngestTicketDto submit(TaskDto task) {
+		IngestTicketDto queued = new IngestTicketDto(tickets.incrementAndGet(), IngestTicketDto.State.QUEUED, null,
+				null);
+		// Registrado antes de entrar na fila, para que o resultado do writer nunca seja sobrescrito
+		synchronized (outcomes) {
+			outcomes.put(queued.getTicket(), queued);
+		}
+
+		boolean offered;
+		admission.readLock().lock();
+		try {
+			offered = accepting && queue.offer(new Pending(queued.getTicket(), task));
+		} finally {
+			admission.readLock().unlock();
+		}
+
+		if (!offered) {
+			synchronized (outcomes) {
+				outcomes.remove(queued.getTicket());
+			}
+			rejected.increment();
+			return null;
+		}
+		return queued;
+	}
+
+	/**
+	 * State of a ticket, or {@code null} if it was never issued or is too old
+	 * to be remembered.
+	 */
+	public IngestTicketDto status(long ticket) {
+		synchronized (outcomes) {
+			return outcomes.get(ticket);
+		}
+	}
+
+	int depth() {
+		return queue == null ? 0 : queue.size();
+	}
+
+	private void drain() {
+		List<Pending> batch = new ArrayList<>(batchSize);
+		while (accepting || !queue.isEmpty()) {
+			try {
+				Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				// Espera um pouco por mais tarefas, para que rajadas virem um único commit
+				long deadline = System.nanoTime() + linger.toNanos();
+				while (batch.size() < batchSize) {
+					Pending next = queue.poll(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+					queue.drainTo(batch, batchSize - batch.size());
+				}
+				commit(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				log.error("Falha inesperada na fila de ingestão", e);
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void commit(List<Pending> batch) {
+		List<IngestTicketDto> results = new ArrayList<>(batch.size());
+		long start = System.nanoTime();
+		try {
+			write(batch, results);
+		} finally {
+			commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			batchSizes.record(batch.size());
+		}
+
+		synchronized (outcomes) {
+			for (IngestTicketDto result : results) {
+				outcomes.put(result.getTicket(), result);
+			}
+		}
+	}
+
+	/**
+	 * Commits {@code batch} in one transaction. When the transaction fails, as
+	 * with a title too long for its column, each half is tried on its own until
+	 * the failing tasks are isolated: the tasks already acknowledged with 202
+	 * are not lost with them.
+	 */
+	private void write(List<Pending> batch, List<IngestTicketDto> results) {
+		List<TaskDto> tasks = new ArrayList<>(batch.size());
+		for (Pending pending : batch) {
+			tasks.add(pending.task);
+		}
+
+		List<BatchResultDto> created;
+		try {
+			created = taskShards.batchByUser(tasks, TaskDto::getUser_id, taskBatchService::createTasks);
+		} catch (RuntimeException e) {
+			if (batch.size() > 1) {
+				int half = batch.size() / 2;
+				write(batch.subList(0, half), results);
+				write(batch.subList(half, batch.size()), results);
+				return;
+			}
+			log.warn("Falha ao gravar a tarefa do ticket {} da fila de ingestão", batch.get(0).ticket, e);
+			results.add(new IngestTicketDto(batch.get(0).ticket, IngestTicketDto.State.FAILED, null, e.getMessage()));
+			return;
+		}
+
+		for (int i = 0; i < batch.size(); i++) {
+			BatchResultDto result = created.get(i);
+			results.add(result.getStatus() == 200
+					? new IngestTicketDto(batch.get(i).ticket, IngestTicketDto.State.COMMITTED, result.getId(), null)
+					: new IngestTicketDto(batch.get(i).ticket, IngestTicketDto.State.FAILED, null, result.getError()));
+		}
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.selaz.to_do_list.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.selaz.to_do_list.event.TaskChangedEvent;
+import com.selaz.to_do_list.event.UserTasksDeletedEvent;
+
+/**
+ * Version counters of each user's task list and of the whole task table,
+ * bumped after every committed change. ETags combine the counter with the
+ * startup time, so they never repeat across restarts.
+ * <p>
+ * With read replicas, a list changed less than {@code datasource.replica.max-lag}
+ * ago has no ETag: the page may come from a replica that has not seen the
+ * change yet, and an ETag would pin it in the client's cache.
+ */
+@Component
+public class TaskListVersions {
+
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+	private final ConcurrentMap<Long, AtomicLong> byUser = new ConcurrentHashMap<>();
+
+	private final AtomicLong global = new AtomicLong();
+
+	private final ConcurrentMap<Long, Long> changedAt = new ConcurrentHashMap<>();
+
+	private volatile long globalChangedAt;
+
+	@Value("${datasource.replica.max-lag:PT0S}")
+	Duration replicaLag = Duration.ZERO;
+
+	Clock clock = Clock.systemUTC();
+
+	public long version(Long userId) {
+		AtomicLong version = byUser.get(userId);
+		return version == null ? 0L : version.get();
+	}
+
+	public long globalVersion() {
+		return global.get();
+	}
+
+	/**
+	 * Null while replicas may still be missing the latest change.
+	 */
+	public String etag(Long userId) {
+		if (settling(changedAt.get(userId))) {
+			return null;
+		}
+		return "\"" + epoch + "-u" + userId + "-" + version(userId) + "\"";
+	}
+
+	public String globalEtag() {
+		if (settling(globalChangedAt)) {
+			return null;
+		}
+		return "\"" + epoch + "-" + globalVersion() + "\"";
+	}
+
+	// Só após o commit: uma leitura concorrente nunca associa dados antigos à nova versão
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTaskChanged(TaskChangedEvent event) {
+		changed(event.getUserIds());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserTasksDeleted(UserTasksDeletedEvent event) {
+		changed(Set.of(event.getUserId()));
+	}
+
+	private void changed(Set<Long> userIds) {
+		for (Long userId : userIds) {
+			byUser.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+		}
+		global.incrementAndGet();
+
+		if (!replicaLag.isZero()) {
+			long now = clock.millis();
+			for (Long userId : userIds) {
+				changedAt.put(userId, now);
+			}
+			globalChangedAt = now;
+		}
+	}
+
+	private boolean settling(Long changed) {
+		return changed != null && !replicaLag.isZero() && clock.millis() - changed < replicaLag.toMillis();
+	}
+
+}
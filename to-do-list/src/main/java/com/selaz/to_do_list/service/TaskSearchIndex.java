@@ -0,0 +1,682 @@
+package com.selaz.to_do_list.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.selaz.to_do_list.event.TaskChange;
+import com.selaz.to_do_list.event.TaskChangedEvent;
+import com.selaz.to_do_list.event.UserTasksDeletedEvent;
+import com.selaz.to_do_list.repository.TaskRepository;
+import com.selaz.to_do_list.shard.TaskShards;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory inverted index over task titles and descriptions, one per user.
+ * Text is accent-folded and lower-cased, so "Relatório" matches "relatorio".
+ * Queries match every term (the last one also as a prefix) and are ranked with
+ * BM25, title terms counting twice.
+ * <p>
+ * The index follows {@link TaskChangedEvent}s after commit and is rebuilt from
+ * {@code tb_task} at startup. When {@code search.index.snapshot-path} is set
+ * it is written there on shutdown and reloaded on the next start, as long as
+ * the table's row count, highest id and sum of versions still match.
+ */
+@Component
+public class TaskSearchIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(TaskSearchIndex.class);
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+	private static final Set<String> STOPWORDS = Set.of("a", "o", "as", "os", "e", "de", "da", "do", "das", "dos",
+			"em", "na", "no", "nas", "nos", "um", "uma", "uns", "umas", "para", "pra", "por", "com", "sem", "que", "se",
+			"ao", "aos", "the", "and", "of", "to", "in");
+
+	private static final int TITLE_WEIGHT = 2;
+
+	private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+	private static final int REBUILD_PAGE_SIZE = 10_000;
+
+	// A partir daqui, remover filtra cada lista uma vez em vez de procurar tarefa por tarefa
+	private static final int BULK_REMOVE_SIZE = 64;
+
+	private static final double K1 = 1.2;
+
+	private static final double B = 0.75;
+
+	private static final int SNAPSHOT_MAGIC = 0x54534958;
+
+	private static final int SNAPSHOT_FORMAT = 1;
+
+	/**
+	 * Ids and weights of the tasks containing one term, in no particular order.
+	 */
+	private static final class Posting {
+
+		long[] ids = new long[2];
+
+		short[] weights = new short[2];
+
+		int size;
+
+		void add(long id, short weight) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+				weights = Arrays.copyOf(weights, size * 2);
+			}
+			ids[size] = id;
+			weights[size] = weight;
+			size++;
+		}
+
+		void remove(long id) {
+			for (int i = 0; i < size; i++) {
+				if (ids[i] == id) {
+					size--;
+					ids[i] = ids[size];
+					weights[i] = weights[size];
+					return;
+				}
+			}
+		}
+
+		void removeAll(Set<Long> removed) {
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				if (!removed.contains(ids[i])) {
+					ids[kept] = ids[i];
+					weights[kept] = weights[i];
+					kept++;
+				}
+			}
+			size = kept;
+		}
+
+	}
+
+	private static final class Document {
+
+		final long version;
+
+		final String[] terms;
+
+		final short[] weights;
+
+		final int length;
+
+		Document(long version, String[] terms, short[] weights, int length) {
+			this.version = version;
+			this.terms = terms;
+			this.weights = weights;
+			this.length = length;
+		}
+
+	}
+
+	private static final class UserIndex {
+
+		final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+		final TreeMap<String, Posting> postings = new TreeMap<>();
+
+		final Map<Long, Document> documents = new HashMap<>();
+
+		long totalLength;
+
+	}
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private TaskShards taskShards;
+
+	@Value("${search.index.snapshot-path:}")
+	private String snapshotPath;
+
+	private final ConcurrentMap<Long, UserIndex> byUser = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	public void start() {
+		if (!snapshotPath.isEmpty() && Files.exists(Paths.get(snapshotPath))) {
+			try {
+				if (load(Paths.get(snapshotPath), tableStats())) {
+					log.info("Índice de busca carregado de {} ({} tarefas)", snapshotPath, size());
+					return;
+				}
+				log.info("Snapshot {} não corresponde a tb_task; reconstruindo o índice", snapshotPath);
+			} catch (IOException e) {
+				log.warn("Falha ao ler o snapshot {}; reconstruindo o índice", snapshotPath, e);
+			}
+		}
+		rebuild();
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (snapshotPath.isEmpty()) {
+			return;
+		}
+		try {
+			write(Paths.get(snapshotPath), tableStats());
+		} catch (IOException e) {
+			log.warn("Falha ao gravar o snapshot {}", snapshotPath, e);
+		}
+	}
+
+	public void rebuild() {
+		byUser.clear();
+		taskShards.eachShard(shard -> {
+			long after = 0L;
+			List<Object[]> rows;
+			do {
+				// Páginas por id, para não carregar a tabela inteira de uma vez
+				rows = taskRepository.findTextAfter(after, Limit.of(REBUILD_PAGE_SIZE));
+				for (Object[] row : rows) {
+					if (taskShards.owns(shard, (Long) row[1])) {
+						index((Long) row[0], (Long) row[1], (Long) row[2], (String) row[3], (String) row[4]);
+					}
+					after = (Long) row[0];
+				}
+			} while (rows.size() == REBUILD_PAGE_SIZE);
+		});
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTaskChanged(TaskChangedEvent event) {
+		Map<Long, Set<Long>> deleted = new HashMap<>();
+		for (TaskChange change : event.getChanges()) {
+			if (change.getAfter() == null) {
+				if (change.getUserId() != null) {
+					deleted.computeIfAbsent(change.getUserId(), userId -> new HashSet<>()).add(change.getTaskId());
+				}
+			} else {
+				index(change.getTaskId(), change.getUserId(), change.getAfter().getVersion(),
+						change.getAfter().getTitle(), change.getDescription());
+			}
+		}
+		deleted.forEach(this::removeAll);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserTasksDeleted(UserTasksDeletedEvent event) {
+		byUser.remove(event.getUserId());
+	}
+
+	/**
+	 * Adds or replaces a task. A version older than the indexed one is ignored,
+	 * so events applied out of order cannot bring back stale text.
+	 */
+	public void index(Long id, Long userId, Long version, String title, String description) {
+		if (id == null || userId == null) {
+			return;
+		}
+
+		Map<String, Integer> weights = new LinkedHashMap<>();
+		int length = 0;
+		for (String term : tokenize(title)) {
+			weights.merge(term, TITLE_WEIGHT, Integer::sum);
+			length++;
+		}
+		for (String term : tokenize(description)) {
+			weights.merge(term, 1, Integer::sum);
+			length++;
+		}
+
+		UserIndex index = byUser.computeIfAbsent(userId, key -> new UserIndex());
+		index.lock.writeLock().lock();
+		try {
+			long newVersion = version == null ? 0L : version;
+			Document old = index.documents.get(id);
+			if (old != null) {
+				if (old.version > newVersion) {
+					return;
+				}
+				unlink(index, id, old);
+			}
+
+			String[] terms = new String[weights.size()];
+			short[] termWeights = new short[weights.size()];
+			int i = 0;
+			for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+				Posting posting = index.postings.get(entry.getKey());
+				if (posting == null) {
+					posting = new Posting();
+					index.postings.put(entry.getKey(), posting);
+					terms[i] = entry.getKey();
+				} else {
+					// Reaproveita a String do dicionário em vez de guardar uma cópia por tarefa
+					terms[i] = index.postings.ceilingKey(entry.getKey());
+				}
+				termWeights[i] = (short) Math.min(entry.getValue(), Short.MAX_VALUE);
+				posting.add(id, termWeights[i]);
+				i++;
+			}
+			index.documents.put(id, new Document(newVersion, terms, termWeights, length));
+			index.totalLength += length;
+		} finally {
+			index.lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Long id, Long userId) {
+		UserIndex index = userId == null ? null : byUser.get(userId);
+		if (index == null) {
+			return;
+		}
+
+		index.lock.writeLock().lock();
+		try {
+			Document old = index.documents.remove(id);
+			if (old != null) {
+				unlink(index, id, old);
+			}
+		} finally {
+			index.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes several of a user's tasks. Large sets, such as all the tasks of a
+	 * deleted user, filter every posting list once.
+	 */
+	public void removeAll(Long userId, Set<Long> ids) {
+		UserIndex index = userId == null ? null : byUser.get(userId);
+		if (index == null) {
+			return;
+		}
+
+		index.lock.writeLock().lock();
+		try {
+			if (ids.size() < BULK_REMOVE_SIZE) {
+				for (Long id : ids) {
+					Document old = index.documents.remove(id);
+					if (old != null) {
+						unlink(index, id, old);
+					}
+				}
+				return;
+			}
+
+			for (Long id : ids) {
+				Document old = index.documents.remove(id);
+				if (old != null) {
+					index.totalLength -= old.length;
+				}
+			}
+			Iterator<Posting> postings = index.postings.values().iterator();
+			while (postings.hasNext()) {
+				Posting posting = postings.next();
+				posting.removeAll(ids);
+				if (posting.size == 0) {
+					postings.remove();
+				}
+			}
+		} finally {
+			index.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Ids of the user's tasks matching every term of the query, best first.
+	 */
+	public List<Long> search(Long userId, String query, int limit) {
+		List<String> terms = tokenize(query);
+		UserIndex index = byUser.get(userId);
+		if (terms.isEmpty() || index == null || limit <= 0) {
+			return Collections.emptyList();
+		}
+
+		index.lock.readLock().lock();
+		try {
+			int documents = index.documents.size();
+			double averageLength = (double) index.totalLength / Math.max(documents, 1);
+
+			// O último termo digitado vale também como prefixo
+			List<String> exact = terms.subList(0, terms.size() - 1);
+			int[] frequencies = new int[exact.size()];
+			Posting rarest = null;
+			for (int i = 0; i < exact.size(); i++) {
+				Posting posting = index.postings.get(exact.get(i));
+				if (posting == null) {
+					return Collections.emptyList();
+				}
+				frequencies[i] = posting.size;
+				rarest = rarest == null || posting.size < rarest.size ? posting : rarest;
+			}
+			Map<String, Posting> expansions = expand(index, terms.get(terms.size() - 1));
+			int expanded = 0;
+			for (Posting posting : expansions.values()) {
+				expanded += posting.size;
+			}
+
+			// Só a lista mais curta é percorrida; os outros termos são conferidos nos termos de cada tarefa
+			Query search = new Query(index, exact, frequencies, expansions, documents, averageLength, limit);
+			if (rarest != null && rarest.size <= expanded) {
+				for (int i = 0; i < rarest.size; i++) {
+					search.collect(rarest.ids[i]);
+				}
+			} else {
+				Set<Long> seen = expansions.size() > 1 ? new HashSet<>() : null;
+				for (Posting posting : expansions.values()) {
+					for (int i = 0; i < posting.size; i++) {
+						if (seen == null || seen.add(posting.ids[i])) {
+							search.collect(posting.ids[i]);
+						}
+					}
+				}
+			}
+			return search.ranked();
+		} finally {
+			index.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Number of indexed tasks.
+	 */
+	public int size() {
+		int size = 0;
+		for (UserIndex index : byUser.values()) {
+			index.lock.readLock().lock();
+			try {
+				size += index.documents.size();
+			} finally {
+				index.lock.readLock().unlock();
+			}
+		}
+		return size;
+	}
+
+	static List<String> tokenize(String text) {
+		if (text == null || text.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+				.toLowerCase(Locale.ROOT);
+		List<String> terms = new ArrayList<>();
+		for (String term : SEPARATORS.split(folded)) {
+			if (!term.isEmpty() && !STOPWORDS.contains(term)) {
+				terms.add(term);
+			}
+		}
+		return terms;
+	}
+
+	private static void unlink(UserIndex index, Long id, Document document) {
+		for (String term : document.terms) {
+			Posting posting = index.postings.get(term);
+			posting.remove(id);
+			if (posting.size == 0) {
+				index.postings.remove(term);
+			}
+		}
+		index.totalLength -= document.length;
+	}
+
+	private static Map<String, Posting> expand(UserIndex index, String prefix) {
+		Map<String, Posting> expansions = new HashMap<>();
+		for (Map.Entry<String, Posting> entry : index.postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+				.entrySet()) {
+			expansions.put(entry.getKey(), entry.getValue());
+			if (expansions.size() == MAX_PREFIX_EXPANSIONS) {
+				break;
+			}
+		}
+		return expansions;
+	}
+
+	private static final class Hit {
+
+		final long id;
+
+		final double score;
+
+		Hit(long id, double score) {
+			this.id = id;
+			this.score = score;
+		}
+
+	}
+
+	/**
+	 * Scores candidate tasks against every query term and keeps the best
+	 * {@code limit}, ties favouring newer tasks (higher id).
+	 */
+	private static final class Query {
+
+		private final UserIndex index;
+
+		private final List<String> exact;
+
+		private final int[] frequencies;
+
+		private final Map<String, Posting> expansions;
+
+		private final int documents;
+
+		private final double averageLength;
+
+		private final int limit;
+
+		private final PriorityQueue<Hit> best = new PriorityQueue<>(
+				Comparator.<Hit>comparingDouble(hit -> hit.score).thenComparingLong(hit -> hit.id));
+
+		Query(UserIndex index, List<String> exact, int[] frequencies, Map<String, Posting> expansions,
+				int documents, double averageLength, int limit) {
+			this.index = index;
+			this.exact = exact;
+			this.frequencies = frequencies;
+			this.expansions = expansions;
+			this.documents = documents;
+			this.averageLength = averageLength;
+			this.limit = limit;
+		}
+
+		void collect(long id) {
+			Document document = index.documents.get(id);
+			double score = 0;
+			for (int t = 0; t < exact.size(); t++) {
+				int i = indexOf(document.terms, exact.get(t));
+				if (i < 0) {
+					return;
+				}
+				score += bm25(frequencies[t], document.weights[i], document.length);
+			}
+
+			// Com várias expansões do prefixo na mesma tarefa, vale a melhor
+			double prefixScore = -1;
+			for (int i = 0; i < document.terms.length; i++) {
+				Posting posting = expansions.get(document.terms[i]);
+				if (posting != null) {
+					prefixScore = Math.max(prefixScore, bm25(posting.size, document.weights[i], document.length));
+				}
+			}
+			if (prefixScore < 0) {
+				return;
+			}
+
+			best.add(new Hit(id, score + prefixScore));
+			if (best.size() > limit) {
+				best.poll();
+			}
+		}
+
+		List<Long> ranked() {
+			Long[] ids = new Long[best.size()];
+			for (int i = ids.length - 1; i >= 0; i--) {
+				ids[i] = best.poll().id;
+			}
+			return Arrays.asList(ids);
+		}
+
+		private double bm25(int frequency, double weight, int length) {
+			double idf = Math.log(1 + (documents - frequency + 0.5) / (frequency + 0.5));
+			return idf * weight * (K1 + 1) / (weight + K1 * (1 - B + B * length / averageLength));
+		}
+
+		private static int indexOf(String[] terms, String term) {
+			for (int i = 0; i < terms.length; i++) {
+				if (terms[i].equals(term)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+	}
+
+	/**
+	 * Count, highest ID and sum of versions of the tasks; with shards, the
+	 * counts and sums of all shards and the highest of their IDs.
+	 */
+	private long[] tableStats() {
+		long[] stats = new long[3];
+		for (Object[] row : taskShards.gather(taskRepository::indexStats)) {
+			stats[0] += ((Number) row[0]).longValue();
+			stats[1] = Math.max(stats[1], ((Number) row[1]).longValue());
+			stats[2] += ((Number) row[2]).longValue();
+		}
+		return stats;
+	}
+
+	/**
+	 * Writes every user's index, prefixed with the table statistics it matches.
+	 * The file is replaced atomically.
+	 */
+	void write(Path path, long[] stats) throws IOException {
+		Path directory = Files.createDirectories(path.toAbsolutePath().getParent());
+		Path temp = Files.createTempFile(directory, "search-index", ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+			out.writeInt(SNAPSHOT_MAGIC);
+			out.writeInt(SNAPSHOT_FORMAT);
+			for (long stat : stats) {
+				out.writeLong(stat);
+			}
+
+			out.writeInt(byUser.size());
+			for (Map.Entry<Long, UserIndex> entry : byUser.entrySet()) {
+				UserIndex index = entry.getValue();
+				index.lock.readLock().lock();
+				try {
+					out.writeLong(entry.getKey());
+					Map<String, Integer> dictionary = new IdentityHashMap<>();
+					out.writeInt(index.postings.size());
+					for (String term : index.postings.keySet()) {
+						dictionary.put(term, dictionary.size());
+						out.writeUTF(term);
+					}
+					out.writeInt(index.documents.size());
+					for (Map.Entry<Long, Document> document : index.documents.entrySet()) {
+						Document doc = document.getValue();
+						out.writeLong(document.getKey());
+						out.writeLong(doc.version);
+						out.writeInt(doc.length);
+						out.writeInt(doc.terms.length);
+						for (int i = 0; i < doc.terms.length; i++) {
+							out.writeInt(dictionary.get(doc.terms[i]));
+							out.writeShort(doc.weights[i]);
+						}
+					}
+				} finally {
+					index.lock.readLock().unlock();
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Replaces the index with the snapshot, unless it was taken from a different
+	 * table state. Returns whether the snapshot was loaded.
+	 */
+	boolean load(Path path, long[] stats) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_FORMAT) {
+				return false;
+			}
+			for (long stat : stats) {
+				if (in.readLong() != stat) {
+					return false;
+				}
+			}
+
+			Map<Long, UserIndex> loaded = new HashMap<>();
+			int users = in.readInt();
+			for (int u = 0; u < users; u++) {
+				UserIndex index = new UserIndex();
+				loaded.put(in.readLong(), index);
+				String[] dictionary = new String[in.readInt()];
+				for (int t = 0; t < dictionary.length; t++) {
+					dictionary[t] = in.readUTF();
+					index.postings.put(dictionary[t], new Posting());
+				}
+				int documents = in.readInt();
+				for (int d = 0; d < documents; d++) {
+					long id = in.readLong();
+					long version = in.readLong();
+					int length = in.readInt();
+					String[] terms = new String[in.readInt()];
+					short[] weights = new short[terms.length];
+					for (int i = 0; i < terms.length; i++) {
+						terms[i] = dictionary[in.readInt()];
+						weights[i] = in.readShort();
+						index.postings.get(terms[i]).add(id, weights[i]);
+					}
+					index.documents.put(id, new Document(version, terms, weights, length));
+					index.totalLength += length;
+				}
+			}
+
+			byUser.clear();
+			byUser.putAll(loaded);
+			return true;
+		}
+	}
+
+}
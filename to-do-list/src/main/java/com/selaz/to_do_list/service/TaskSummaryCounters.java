@@ -0,0 +1,236 @@
+package com.selaz.to_do_list.service;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.dto.TaskSummaryDto;
+import com.selaz.to_do_list.event.TaskChange;
+import com.selaz.to_do_list.event.TaskChangedEvent;
+import com.selaz.to_do_list.event.UserTasksDeletedEvent;
+import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.repository.TaskRepository;
+import com.selaz.to_do_list.shard.TaskShards;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Task counts per user and {@link Status}, plus overdue counts, kept up to date
+ * from {@link TaskChangedEvent}s and rebuilt from {@code tb_task} at startup.
+ * Reading a summary sums a handful of {@link LongAdder}s, independent of the
+ * number of tasks.
+ * <p>
+ * Open tasks that are not yet overdue are counted in a timeline of due-date
+ * seconds. Reads move every second that has passed into the overdue counters,
+ * so the work is proportional to the due dates crossed, not to the tasks
+ * stored.
+ */
+@Component
+public class TaskSummaryCounters {
+
+	private static final Status[] STATUSES = Status.values();
+
+	private static final class Counters {
+
+		final LongAdder[] byStatus = new LongAdder[STATUSES.length];
+
+		final LongAdder overdue = new LongAdder();
+
+		final LongAdder total = new LongAdder();
+
+		Counters() {
+			for (int i = 0; i < byStatus.length; i++) {
+				byStatus[i] = new LongAdder();
+			}
+		}
+
+	}
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private TaskShards taskShards;
+
+	Clock clock = Clock.systemUTC();
+
+	private final ConcurrentMap<Long, Counters> byUser = new ConcurrentHashMap<>();
+
+	private final Counters global = new Counters();
+
+	// Segundo de vencimento -> usuário -> tarefas abertas que ainda não venceram
+	private final ConcurrentNavigableMap<Long, ConcurrentMap<Long, LongAdder>> timeline = new ConcurrentSkipListMap<>();
+
+	// Escritas usam o modo de leitura e rodam em paralelo; só o avanço do relógio é exclusivo
+	private final StampedLock lock = new StampedLock();
+
+	// Tarefas abertas com vencimento antes deste segundo já estão em overdue
+	private volatile long watermark;
+
+	@PostConstruct
+	public void rebuild() {
+		long stamp = lock.writeLock();
+		try {
+			byUser.clear();
+			timeline.clear();
+			reset(global);
+			watermark = currentSecond();
+
+			for (Object[] row : taskShards.gather(taskRepository::countByUserAndStatus, row -> (Long) row[0])) {
+				count((Long) row[0], (Status) row[1], null, (Long) row[2]);
+			}
+			for (Object[] row : taskShards.gather(taskRepository::countOpenByUserAndDueDate, row -> (Long) row[0])) {
+				countDue((Long) row[0], (Date) row[1], (Long) row[2]);
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTaskChanged(TaskChangedEvent event) {
+		long stamp = lock.readLock();
+		try {
+			for (TaskChange change : event.getChanges()) {
+				apply(change.getBefore(), -1);
+				apply(change.getAfter(), 1);
+			}
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserTasksDeleted(UserTasksDeletedEvent event) {
+		long stamp = lock.writeLock();
+		try {
+			Counters removed = byUser.remove(event.getUserId());
+			if (removed != null) {
+				for (int i = 0; i < STATUSES.length; i++) {
+					global.byStatus[i].add(-removed.byStatus[i].sum());
+				}
+				global.overdue.add(-removed.overdue.sum());
+				global.total.add(-removed.total.sum());
+			}
+			// Percorre os segundos pendentes; remover um usuário é raro
+			Iterator<ConcurrentMap<Long, LongAdder>> seconds = timeline.values().iterator();
+			while (seconds.hasNext()) {
+				ConcurrentMap<Long, LongAdder> users = seconds.next();
+				if (users.remove(event.getUserId()) != null && users.isEmpty()) {
+					seconds.remove();
+				}
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	public TaskSummaryDto summary(Long userId) {
+		advance();
+		Counters counters = byUser.get(userId);
+		return counters == null ? toDto(userId, new Counters()) : toDto(userId, counters);
+	}
+
+	public TaskSummaryDto globalSummary() {
+		advance();
+		return toDto(null, global);
+	}
+
+	/**
+	 * Moves the timeline seconds that have passed into the overdue counters.
+	 */
+	void advance() {
+		long now = currentSecond();
+		if (now <= watermark) {
+			return;
+		}
+
+		long stamp = lock.writeLock();
+		try {
+			Iterator<Map.Entry<Long, ConcurrentMap<Long, LongAdder>>> due = timeline.headMap(now).entrySet().iterator();
+			while (due.hasNext()) {
+				due.next().getValue().forEach((userId, count) -> {
+					long sum = count.sum();
+					counters(userId).overdue.add(sum);
+					global.overdue.add(sum);
+				});
+				due.remove();
+			}
+			watermark = Math.max(watermark, now);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	private void apply(TaskItemDto task, long delta) {
+		if (task == null || task.getUserId() == null) {
+			return;
+		}
+		count(task.getUserId(), task.getStatus(), task.getDueDate(), delta);
+	}
+
+	private void count(Long userId, Status status, Date dueDate, long delta) {
+		counters(userId).total.add(delta);
+		global.total.add(delta);
+		if (status != null) {
+			counters(userId).byStatus[status.ordinal()].add(delta);
+			global.byStatus[status.ordinal()].add(delta);
+		}
+		if (status != Status.CONCLUIDA) {
+			countDue(userId, dueDate, delta);
+		}
+	}
+
+	private void countDue(Long userId, Date dueDate, long delta) {
+		if (dueDate == null) {
+			return;
+		}
+
+		long second = Math.floorDiv(dueDate.getTime(), 1000L);
+		if (second < watermark) {
+			counters(userId).overdue.add(delta);
+			global.overdue.add(delta);
+		} else {
+			timeline.computeIfAbsent(second, s -> new ConcurrentHashMap<>())
+					.computeIfAbsent(userId, id -> new LongAdder()).add(delta);
+		}
+	}
+
+	private Counters counters(Long userId) {
+		return byUser.computeIfAbsent(userId, id -> new Counters());
+	}
+
+	private long currentSecond() {
+		return Math.floorDiv(clock.millis(), 1000L);
+	}
+
+	private static void reset(Counters counters) {
+		for (LongAdder count : counters.byStatus) {
+			count.reset();
+		}
+		counters.overdue.reset();
+		counters.total.reset();
+	}
+
+	private static TaskSummaryDto toDto(Long userId, Counters counters) {
+		Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+		for (Status status : STATUSES) {
+			byStatus.put(status, counters.byStatus[status.ordinal()].sum());
+		}
+		return new TaskSummaryDto(userId, byStatus, counters.overdue.sum(), counters.total.sum());
+	}
+
+}
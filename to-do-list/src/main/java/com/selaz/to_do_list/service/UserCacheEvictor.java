@@ -0,0 +1,33 @@
+package com.selaz.to_do_list.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.selaz.to_do_list.config.CacheConfiguration;
+
+/**
+ * Removes a user from the lookup caches filled by {@code UserRepository}. Call
+ * it after the change is written, with the username the entry was cached
+ * under.
+ */
+@Component
+public class UserCacheEvictor {
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	public void evict(Long id, String username) {
+		Cache usersById = cacheManager.getCache(CacheConfiguration.USERS_BY_ID);
+		if (usersById != null && id != null) {
+			usersById.evict(id);
+		}
+
+		Cache usersByUsername = cacheManager.getCache(CacheConfiguration.USERS_BY_USERNAME);
+		if (usersByUsername != null && username != null) {
+			usersByUsername.evict(username);
+		}
+	}
+
+}
@@ -0,0 +1,94 @@
+package com.selaz.to_do_list.service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selaz.to_do_list.event.UserTasksDeletedEvent;
+import com.selaz.to_do_list.repository.TaskRepository;
+import com.selaz.to_do_list.repository.UserRepository;
+import com.selaz.to_do_list.shard.TaskShards;
+
+/**
+ * Deletes a user together with their tasks in two steps, so that the request
+ * takes the same time however many tasks there are. {@link #deleteUser} only
+ * marks the user deleted, which hides it from every query for users, and
+ * publishes a single {@link UserTasksDeletedEvent}. {@link #purge} then
+ * deletes the tasks {@code users.purge.batch-size} at a time, each batch in its
+ * own transaction, and the user row last; users still marked after a restart
+ * are purged the same way.
+ * With shards it runs on the user's shard, where {@code tb_user} is linked to
+ * the home shard.
+ */
+@Service
+public class UserDeletionService {
+
+	private static final Logger log = LoggerFactory.getLogger(UserDeletionService.class);
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TaskShards taskShards;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Value("${users.purge.batch-size:1000}")
+	int batchSize;
+
+	// Usuários marcados por esta instância, cujo evento já foi publicado
+	private final Set<Long> announced = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Returns false if the user did not exist.
+	 */
+	@Transactional
+	public boolean deleteUser(Long id) {
+		if (userRepository.markDeleted(id) == 0) {
+			return false;
+		}
+
+		announced.add(id);
+		// Os ouvintes transacionais só recebem o evento após o commit
+		eventPublisher.publishEvent(new UserTasksDeletedEvent(id));
+		return true;
+	}
+
+	@Scheduled(fixedDelayString = "${users.purge.interval:PT1S}")
+	public void purge() {
+		for (Long id : userRepository.findDeletedIds()) {
+			try {
+				long start = System.nanoTime();
+				int deleted = 0;
+				int batch;
+				do {
+					batch = taskShards.onUserShard(id, () -> taskRepository.deleteBatchByUserId(id, batchSize));
+					deleted += batch;
+				} while (batch == batchSize);
+				userRepository.deleteMarkedById(id);
+
+				if (!announced.remove(id)) {
+					// Marcado antes de um reinício: o estado em memória foi refeito com as tarefas dele
+					eventPublisher.publishEvent(new UserTasksDeletedEvent(id));
+				}
+				log.info("Usuário {} expurgado: {} tarefas em {} ms", id, deleted, (System.nanoTime() - start) / 1_000_000);
+			} catch (RuntimeException e) {
+				// Fica marcado; a próxima rodada tenta de novo
+				log.warn("Falha ao expurgar o usuário {}", id, e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.selaz.to_do_list.shard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Task shards, enabled by {@code shards.urls}. The home shard (0) is still
+ * configured by {@code spring.datasource.*} and keeps the users; each URL adds
+ * a shard with its own pool and the same credentials, whose schema comes from
+ * the migrations in {@code db/shard}. Cannot be combined with read replicas.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "shards", name = "urls")
+public class ShardDataSourceConfiguration {
+
+	/**
+	 * Each shard's sequence starts 2^40 IDs after the previous one, so task
+	 * IDs stay unique across shards and a task keeps its ID when its user
+	 * moves.
+	 */
+	static final int SEQUENCE_SHIFT = 40;
+
+	public ShardDataSourceConfiguration(Environment environment) {
+		if (environment.containsProperty("datasource.replica.urls")) {
+			throw new IllegalStateException("shards.urls cannot be combined with datasource.replica.urls");
+		}
+	}
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource homeShardDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("shard-0");
+		return dataSource;
+	}
+
+	@Bean(destroyMethod = "close")
+	@Primary
+	public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource homeShardDataSource,
+			DataSourceProperties properties, MeterRegistry meterRegistry, @Value("${shards.urls}") String[] urls,
+			@Value("${shards.maximum-pool-size:10}") int maximumPoolSize) {
+		List<DataSource> shards = new ArrayList<>(urls.length + 1);
+		shards.add(homeShardDataSource);
+		for (int i = 0; i < urls.length; i++) {
+			int shard = i + 1;
+			HikariDataSource dataSource = new HikariDataSource();
+			dataSource.setPoolName("shard-" + shard);
+			dataSource.setJdbcUrl(urls[i].trim());
+			dataSource.setUsername(properties.determineUsername());
+			dataSource.setPassword(properties.determinePassword());
+			dataSource.setMaximumPoolSize(maximumPoolSize);
+			dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+			migrate(dataSource, shard);
+			shards.add(dataSource);
+		}
+		return new ShardRoutingDataSource(shards);
+	}
+
+	/**
+	 * With open-in-view, Hibernate would otherwise keep the first connection of
+	 * a request until it ends, and work on another shard would run on it.
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer connectionPerShardTransaction() {
+		return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+				PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+	}
+
+	static void migrate(DataSource dataSource, int shard) {
+		Flyway.configure().dataSource(dataSource).locations("classpath:db/shard")
+				.placeholders(Map.of("sequence_start", String.valueOf(((long) shard << SEQUENCE_SHIFT) + 1))).load()
+				.migrate();
+	}
+
+}
@@ -0,0 +1,236 @@
+package com.selaz.to_do_list.shard;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.selaz.to_do_list.dto.ShardDto;
+import com.selaz.to_do_list.dto.ShardMoveDto;
+
+/**
+ * Moves users' tasks between shards while the application keeps serving them.
+ * A move copies the user's rows to the target shard without any lock, then
+ * takes the source shard's write lock to copy what changed meanwhile (by
+ * version), switch the directory and delete the rows left behind. Only that
+ * last step pauses work on the source shard.
+ * <p>
+ * Rows are copied over plain JDBC with H2's {@code MERGE ... KEY}; task IDs are
+ * unique across shards, so they are kept.
+ */
+@Component
+public class ShardRebalancer {
+
+	private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+	@Autowired
+	private TaskShards taskShards;
+
+	@Value("${shards.rebalance.copy-batch:1000}")
+	int copyBatch;
+
+	@Value("${shards.rebalance.lock-timeout:PT0.05S}")
+	Duration lockTimeout;
+
+	@Value("${shards.rebalance.lock-attempts:200}")
+	int lockAttempts;
+
+	public List<ShardDto> shards() {
+		Map<Integer, Integer> pinned = new HashMap<>();
+		taskShards.directory().values().forEach(shard -> pinned.merge(shard, 1, Integer::sum));
+
+		List<ShardDto> shards = new ArrayList<>(taskShards.count());
+		for (int shard = 0; shard < taskShards.count(); shard++) {
+			Map<String, Object> row = new JdbcTemplate(taskShards.dataSource(shard))
+					.queryForMap("select count(*) as tasks, count(distinct user_id) as users from tb_task");
+			shards.add(new ShardDto(shard, ((Number) row.get("TASKS")).longValue(),
+					((Number) row.get("USERS")).longValue(), pinned.getOrDefault(shard, 0)));
+		}
+		return shards;
+	}
+
+	/**
+	 * Moves up to {@code limit} users that are away from their ring shard,
+	 * stopping at the first shard too busy to lock.
+	 */
+	public List<ShardMoveDto> rebalance(int limit) throws SQLException, InterruptedException {
+		List<ShardMoveDto> moves = new ArrayList<>();
+		for (Long userId : taskShards.misplaced(limit)) {
+			ShardMoveDto move = move(userId, taskShards.ringShardOf(userId));
+			if (move == null) {
+				break;
+			}
+			moves.add(move);
+		}
+		return moves;
+	}
+
+	/**
+	 * Moves the tasks of {@code userId} to {@code target}. Returns null when
+	 * the source shard stayed busy for every attempt to lock it; the user then
+	 * stays where it was.
+	 */
+	public synchronized ShardMoveDto move(Long userId, int target) throws SQLException, InterruptedException {
+		int source = taskShards.shardOf(userId);
+		if (source == target) {
+			return new ShardMoveDto(userId, source, target, 0, 0, 0);
+		}
+
+		DataSource from = taskShards.dataSource(source);
+		DataSource to = taskShards.dataSource(target);
+		long start = System.nanoTime();
+		int copied = copy(from, to, userId);
+
+		for (int attempt = 0; attempt < lockAttempts; attempt++) {
+			Lock lock = taskShards.tryLockExclusively(source, lockTimeout);
+			if (lock == null) {
+				// Leitores não ficam presos atrás de uma mudança à espera
+				Thread.sleep(lockTimeout.toMillis());
+				continue;
+			}
+
+			long locked = System.nanoTime();
+			try {
+				Map<Long, Long> tasks = versions(from, userId);
+				int changed = catchUp(from, to, userId, tasks);
+				taskShards.place(userId, target, tasks.keySet());
+				new JdbcTemplate(from).update("delete from tb_task where user_id = ?", userId);
+				long pause = (System.nanoTime() - locked) / 1_000_000;
+				log.info("Usuário {} movido do shard {} para o {}: {} tarefas em {} ms, {} ms com o shard bloqueado",
+						userId, source, target, copied, (System.nanoTime() - start) / 1_000_000, pause);
+				return new ShardMoveDto(userId, source, target, copied, changed, pause);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		log.warn("Shard {} ocupado demais; usuário {} não foi movido", source, userId);
+		return null;
+	}
+
+	/**
+	 * Copies every task of the user, {@link #copyBatch} rows per commit.
+	 */
+	private int copy(DataSource from, DataSource to, Long userId) throws SQLException {
+		int copied = 0;
+		long after = Long.MIN_VALUE;
+		try (Connection source = from.getConnection(); Connection target = to.getConnection();
+				PreparedStatement select = source.prepareStatement(
+						"select * from tb_task where user_id = ? and id > ? order by id limit ?")) {
+			target.setAutoCommit(false);
+			while (true) {
+				select.setLong(1, userId);
+				select.setLong(2, after);
+				select.setInt(3, copyBatch);
+				List<Long> ids;
+				try (ResultSet rs = select.executeQuery()) {
+					ids = merge(rs, target);
+				}
+				target.commit();
+				copied += ids.size();
+				if (ids.size() < copyBatch) {
+					return copied;
+				}
+				after = ids.get(ids.size() - 1);
+			}
+		}
+	}
+
+	/**
+	 * Brings the target up to date with the source, comparing versions: rows
+	 * new or changed since the copy are copied again and rows deleted since
+	 * are deleted. Returns the number of rows touched.
+	 */
+	private int catchUp(DataSource from, DataSource to, Long userId, Map<Long, Long> sourceVersions)
+			throws SQLException {
+		Map<Long, Long> targetVersions = versions(to, userId);
+
+		List<Long> changed = new ArrayList<>();
+		sourceVersions.forEach((id, version) -> {
+			if (!targetVersions.containsKey(id) || !Objects.equals(targetVersions.get(id), version)) {
+				changed.add(id);
+			}
+		});
+		List<Long> deleted = new ArrayList<>();
+		for (Long id : targetVersions.keySet()) {
+			if (!sourceVersions.containsKey(id)) {
+				deleted.add(id);
+			}
+		}
+
+		try (Connection source = from.getConnection(); Connection target = to.getConnection()) {
+			target.setAutoCommit(false);
+			try (PreparedStatement select = source.prepareStatement("select * from tb_task where id = ?")) {
+				for (Long id : changed) {
+					select.setLong(1, id);
+					try (ResultSet rs = select.executeQuery()) {
+						merge(rs, target);
+					}
+				}
+			}
+			try (PreparedStatement delete = target.prepareStatement("delete from tb_task where id = ?")) {
+				for (Long id : deleted) {
+					delete.setLong(1, id);
+					delete.addBatch();
+				}
+				delete.executeBatch();
+			}
+			target.commit();
+		}
+		return changed.size() + deleted.size();
+	}
+
+	private static Map<Long, Long> versions(DataSource dataSource, Long userId) {
+		Map<Long, Long> versions = new HashMap<>();
+		new JdbcTemplate(dataSource).query("select id, version from tb_task where user_id = ?", rs -> {
+			versions.put(rs.getLong(1), rs.getObject(2, Long.class));
+		}, userId);
+		return versions;
+	}
+
+	/**
+	 * Upserts the rows of {@code rs} into the target, in one JDBC batch, and
+	 * returns their IDs.
+	 */
+	private static List<Long> merge(ResultSet rs, Connection target) throws SQLException {
+		ResultSetMetaData meta = rs.getMetaData();
+		StringBuilder columns = new StringBuilder();
+		StringBuilder values = new StringBuilder();
+		for (int i = 1; i <= meta.getColumnCount(); i++) {
+			columns.append(i > 1 ? ", " : "").append(meta.getColumnName(i));
+			values.append(i > 1 ? ", ?" : "?");
+		}
+
+		List<Long> ids = new ArrayList<>();
+		try (PreparedStatement merge = target
+				.prepareStatement("merge into tb_task (" + columns + ") key(id) values (" + values + ")")) {
+			while (rs.next()) {
+				for (int i = 1; i <= meta.getColumnCount(); i++) {
+					merge.setObject(i, rs.getObject(i));
+				}
+				merge.addBatch();
+				ids.add(rs.getLong("ID"));
+			}
+			merge.executeBatch();
+		}
+		return ids;
+	}
+
+}
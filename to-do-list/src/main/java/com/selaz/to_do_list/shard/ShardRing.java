@@ -0,0 +1,64 @@
+package com.selaz.to_do_list.shard;
+
+import java.util.Arrays;
+
+/**
+ * Consistent hashing of user IDs onto shards. Each shard owns
+ * {@code virtualNodes} points of a 64-bit ring and a user belongs to the first
+ * point at or after the hash of its ID. A point depends only on its shard and
+ * its number, so adding a shard moves about 1/N of the users, all of them to
+ * the new shard, and no user between the old ones.
+ */
+public class ShardRing {
+
+	private final long[] points;
+
+	private final int[] owners;
+
+	private final int shards;
+
+	public ShardRing(int shards, int virtualNodes) {
+		if (shards < 1 || virtualNodes < 1) {
+			throw new IllegalArgumentException("A ring needs at least one shard and one virtual node");
+		}
+
+		long[][] nodes = new long[shards * virtualNodes][];
+		for (int shard = 0; shard < shards; shard++) {
+			for (int node = 0; node < virtualNodes; node++) {
+				nodes[shard * virtualNodes + node] = new long[] { mix(((long) shard << 32) | node), shard };
+			}
+		}
+		Arrays.sort(nodes, (a, b) -> Long.compare(a[0], b[0]));
+
+		this.points = new long[nodes.length];
+		this.owners = new int[nodes.length];
+		for (int i = 0; i < nodes.length; i++) {
+			points[i] = nodes[i][0];
+			owners[i] = (int) nodes[i][1];
+		}
+		this.shards = shards;
+	}
+
+	public int shardFor(long key) {
+		int i = Arrays.binarySearch(points, mix(key));
+		if (i < 0) {
+			i = -i - 1;
+		}
+		// Depois do último ponto o anel volta ao primeiro
+		return owners[i == points.length ? 0 : i];
+	}
+
+	public int size() {
+		return shards;
+	}
+
+	/**
+	 * Finalizer of SplitMix64: sequential IDs land far apart on the ring.
+	 */
+	static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+}
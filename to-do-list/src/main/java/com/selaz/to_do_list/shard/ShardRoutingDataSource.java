@@ -0,0 +1,73 @@
+package com.selaz.to_do_list.shard;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Sends each transaction to the shard set on the current thread by
+ * {@link TaskShards}, or to the home shard (0), which also holds the users,
+ * when none is set. The shard must be chosen before the transaction begins:
+ * the connection is taken when it does.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+	private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+	private final List<DataSource> shards;
+
+	public ShardRoutingDataSource(List<DataSource> shards) {
+		this.shards = List.copyOf(shards);
+
+		Map<Object, Object> targets = new HashMap<>();
+		for (int i = 0; i < shards.size(); i++) {
+			targets.put(i, shards.get(i));
+		}
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(shards.get(TaskShards.HOME));
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		Integer shard = CURRENT.get();
+		return shard == null ? TaskShards.HOME : shard;
+	}
+
+	public int size() {
+		return shards.size();
+	}
+
+	public DataSource getShard(int shard) {
+		return shards.get(shard);
+	}
+
+	static Integer current() {
+		return CURRENT.get();
+	}
+
+	static void setCurrent(Integer shard) {
+		if (shard == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(shard);
+		}
+	}
+
+	/**
+	 * Closes the pools of the other shards; the home pool is a bean of its own.
+	 */
+	public void close() {
+		for (int i = 1; i < shards.size(); i++) {
+			if (shards.get(i) instanceof HikariDataSource pool) {
+				pool.close();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,510 @@
+package com.selaz.to_do_list.shard;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.selaz.to_do_list.dto.BatchResultDto;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Places each user's tasks on one shard and runs task queries where the data
+ * is. Without {@code shards.urls} there is a single shard and every method just
+ * runs the work it is given.
+ * <p>
+ * A user belongs to the shard its ID hashes to on a {@link ShardRing}, unless
+ * the directory ({@code tb_user_shard}, on the home shard) says otherwise. The
+ * directory holds only the exceptions: users pinned where their tasks already
+ * are when a shard is added, until {@link ShardRebalancer} moves them.
+ * <p>
+ * A task is on the shard whose sequence range its ID falls in, unless it moved
+ * with its user. Those tasks are kept in memory, and found again at start as
+ * the rows a shard owns outside its range, so work on a task ID never has to
+ * look for it.
+ * <p>
+ * Work on a shard holds that shard's read lock; a move takes the write lock of
+ * the source shard only to copy the last changes and switch the directory.
+ * Cross-shard work holds the read locks of every shard, so it never sees a
+ * user in two places or in none.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class TaskShards {
+
+	public static final int HOME = 0;
+
+	private static final Logger log = LoggerFactory.getLogger(TaskShards.class);
+
+	@FunctionalInterface
+	public interface Work<T, E extends Exception> {
+
+		T run() throws E;
+
+	}
+
+	@FunctionalInterface
+	public interface ShardWork<E extends Exception> {
+
+		void run(int shard) throws E;
+
+	}
+
+	@Autowired(required = false)
+	private ShardRoutingDataSource routingDataSource;
+
+	@Value("${shards.virtual-nodes:160}")
+	int virtualNodes;
+
+	private ShardRing ring;
+
+	private final ConcurrentMap<Long, Integer> directory = new ConcurrentHashMap<>();
+
+	// Tarefas fora do shard da faixa do seu id, levadas junto com o usuário
+	private final ConcurrentMap<Long, Integer> movedTasks = new ConcurrentHashMap<>();
+
+	private ReentrantReadWriteLock[] locks;
+
+	private ExecutorService executor;
+
+	@PostConstruct
+	public void start() {
+		if (routingDataSource == null) {
+			return;
+		}
+
+		int count = routingDataSource.size();
+		ring = new ShardRing(count, virtualNodes);
+		locks = new ReentrantReadWriteLock[count];
+		for (int i = 0; i < count; i++) {
+			locks[i] = new ReentrantReadWriteLock();
+		}
+		AtomicInteger threads = new AtomicInteger();
+		executor = Executors.newFixedThreadPool(count, runnable -> {
+			Thread thread = new Thread(runnable, "shard-gather-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		linkUsers();
+		JdbcTemplate home = new JdbcTemplate(dataSource(HOME));
+		home.execute("create table if not exists tb_user_shard (user_id bigint primary key, shard int not null)");
+		home.query("select user_id, shard from tb_user_shard", rs -> {
+			directory.put(rs.getLong(1), rs.getInt(2));
+		});
+		pinPlacedUsers();
+		findMovedTasks();
+		log.info("Tarefas em {} shards ({} usuários fora da posição do anel, {} tarefas fora da faixa do id)", count,
+				directory.size(), movedTasks.size());
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	public boolean isSharded() {
+		return routingDataSource != null;
+	}
+
+	public int count() {
+		return isSharded() ? locks.length : 1;
+	}
+
+	public int shardOf(Long userId) {
+		if (!isSharded() || userId == null) {
+			return HOME;
+		}
+		Integer placed = directory.get(userId);
+		return placed != null ? placed : ring.shardFor(userId);
+	}
+
+	public int shardOfTask(Long id) {
+		if (!isSharded() || id == null) {
+			return HOME;
+		}
+		Integer moved = movedTasks.get(id);
+		return moved != null ? moved : rangeShardOf(id);
+	}
+
+	/**
+	 * Whether rows of {@code userId} read from {@code shard} are the user's
+	 * tasks and not a copy left by a move in progress.
+	 */
+	public boolean owns(int shard, Long userId) {
+		return shardOf(userId) == shard;
+	}
+
+	/**
+	 * Runs {@code work} on the shard of {@code userId}, which cannot move
+	 * meanwhile.
+	 */
+	public <T, E extends Exception> T onUserShard(Long userId, Work<T, E> work) throws E {
+		return onShard(() -> shardOf(userId), work);
+	}
+
+	/**
+	 * Runs {@code work} on the shard that holds task {@code id}, which cannot
+	 * move meanwhile. An unknown task goes to the shard of its ID range, which
+	 * reports it missing.
+	 */
+	public <T, E extends Exception> T onTaskShard(Long id, Work<T, E> work) throws E {
+		return onShard(() -> shardOfTask(id), work);
+	}
+
+	/**
+	 * Splits a batch by the shard of each item's user and runs {@code work} once
+	 * per shard, each in its own transaction. Results are put back in request
+	 * order, with their request index.
+	 */
+	public <T> List<BatchResultDto> batchByUser(List<T> items, Function<T, Long> userOf,
+			Function<List<T>, List<BatchResultDto>> work) {
+		if (!isSharded()) {
+			return work.apply(items);
+		}
+
+		return batch(items, item -> shardOf(userOf.apply(item)), work);
+	}
+
+	/**
+	 * Like {@link #batchByUser}, for items naming an existing task, routed as
+	 * {@link #onTaskShard} does.
+	 */
+	public <T> List<BatchResultDto> batchByTask(List<T> items, Function<T, Long> idOf,
+			Function<List<T>, List<BatchResultDto>> work) {
+		if (!isSharded()) {
+			return work.apply(items);
+		}
+
+		return batch(items, item -> shardOfTask(idOf.apply(item)), work);
+	}
+
+	/**
+	 * Runs {@code query} on every shard at once and concatenates the rows each
+	 * shard owns, in shard order.
+	 */
+	public <T> List<T> gather(Supplier<List<T>> query, Function<T, Long> ownerOf) {
+		List<List<T>> perShard = scatter(query, ownerOf);
+		return perShard.size() == 1 ? perShard.get(0)
+				: perShard.stream().flatMap(List::stream).collect(Collectors.toList());
+	}
+
+	/**
+	 * Runs {@code query} on every shard at once, for rows that do not belong
+	 * to a user, such as aggregates over the whole table.
+	 */
+	public <T> List<T> gather(Supplier<List<T>> query) {
+		return gather(query, null);
+	}
+
+	/**
+	 * Runs {@code work} on each shard in turn, for work that streams or pages
+	 * through a shard; it should skip rows the shard does not
+	 * {@linkplain #owns own}.
+	 */
+	public <E extends Exception> void eachShard(ShardWork<E> work) throws E {
+		if (!isSharded()) {
+			work.run(HOME);
+			return;
+		}
+
+		lockAll();
+		try {
+			for (int shard = 0; shard < locks.length; shard++) {
+				int current = shard;
+				on(shard, () -> {
+					work.run(current);
+					return null;
+				});
+			}
+		} finally {
+			unlockAll();
+		}
+	}
+
+	DataSource dataSource(int shard) {
+		return routingDataSource.getShard(shard);
+	}
+
+	int ringShardOf(Long userId) {
+		return ring.shardFor(userId);
+	}
+
+	/**
+	 * Users whose tasks are not where the ring would put them, lowest ID first.
+	 */
+	List<Long> misplaced(int limit) {
+		return new TreeSet<>(directory.keySet()).stream().filter(user -> directory.get(user) != ring.shardFor(user))
+				.limit(limit).collect(Collectors.toList());
+	}
+
+	Map<Long, Integer> directory() {
+		return Map.copyOf(directory);
+	}
+
+	/**
+	 * Records where a user's tasks are, {@code taskIds} being all of them. The
+	 * caller holds the write lock of the shard the user leaves.
+	 */
+	void place(Long userId, int shard, Collection<Long> taskIds) {
+		JdbcTemplate home = new JdbcTemplate(dataSource(HOME));
+		if (shard == ring.shardFor(userId)) {
+			home.update("delete from tb_user_shard where user_id = ?", userId);
+			directory.remove(userId);
+		} else {
+			home.update("merge into tb_user_shard key(user_id) values (?, ?)", userId, shard);
+			directory.put(userId, shard);
+		}
+		for (Long id : taskIds) {
+			if (rangeShardOf(id) == shard) {
+				movedTasks.remove(id);
+			} else {
+				movedTasks.put(id, shard);
+			}
+		}
+	}
+
+	/**
+	 * Takes the write lock of {@code shard}, giving up after {@code timeout}
+	 * so that readers are never held longer than that by a waiting move.
+	 */
+	Lock tryLockExclusively(int shard, Duration timeout) throws InterruptedException {
+		Lock lock = locks[shard].writeLock();
+		return lock.tryLock(timeout.toNanos(), TimeUnit.NANOSECONDS) ? lock : null;
+	}
+
+	private <T, E extends Exception> T onShard(IntSupplier route, Work<T, E> work) throws E {
+		if (!isSharded()) {
+			return work.run();
+		}
+
+		while (true) {
+			int shard = route.getAsInt();
+			Lock lock = locks[shard].readLock();
+			lock.lock();
+			try {
+				// Uma mudança concluída enquanto esperava o bloqueio manda para o novo shard
+				if (route.getAsInt() == shard) {
+					return on(shard, work);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private <T, E extends Exception> T on(int shard, Work<T, E> work) throws E {
+		Integer previous = ShardRoutingDataSource.current();
+		ShardRoutingDataSource.setCurrent(shard);
+		try {
+			return work.run();
+		} finally {
+			ShardRoutingDataSource.setCurrent(previous);
+		}
+	}
+
+	private <T> List<List<T>> scatter(Supplier<List<T>> query, Function<T, Long> ownerOf) {
+		if (!isSharded()) {
+			return List.of(query.get());
+		}
+
+		lockAll();
+		try {
+			List<Future<List<T>>> futures = new ArrayList<>(locks.length);
+			for (int shard = 0; shard < locks.length; shard++) {
+				int current = shard;
+				futures.add(executor.submit(() -> on(current, query::get)));
+			}
+
+			List<List<T>> results = new ArrayList<>(futures.size());
+			for (int shard = 0; shard < futures.size(); shard++) {
+				List<T> rows = futures.get(shard).get();
+				int current = shard;
+				// Cópias de uma mudança em andamento ficam de fora
+				results.add(ownerOf == null ? rows
+						: rows.stream().filter(row -> owns(current, ownerOf.apply(row))).collect(Collectors.toList()));
+			}
+			return results;
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} finally {
+			unlockAll();
+		}
+	}
+
+	/**
+	 * Routes each item and locks only the shards involved, in ascending order,
+	 * routing again if a move finished while waiting for them.
+	 */
+	private <T> List<BatchResultDto> batch(List<T> items, ToIntFunction<T> route,
+			Function<List<T>, List<BatchResultDto>> work) {
+		while (true) {
+			int[] shards = items.stream().mapToInt(route).toArray();
+			int[] involved = IntStream.of(shards).distinct().sorted().toArray();
+			for (int shard : involved) {
+				locks[shard].readLock().lock();
+			}
+			try {
+				if (Arrays.equals(shards, items.stream().mapToInt(route).toArray())) {
+					return batch(items, shards, work);
+				}
+			} finally {
+				for (int i = involved.length - 1; i >= 0; i--) {
+					locks[involved[i]].readLock().unlock();
+				}
+			}
+		}
+	}
+
+	private <T> List<BatchResultDto> batch(List<T> items, int[] shards, Function<List<T>, List<BatchResultDto>> work) {
+		Map<Integer, List<Integer>> byShard = new LinkedHashMap<>();
+		for (int i = 0; i < items.size(); i++) {
+			byShard.computeIfAbsent(shards[i], shard -> new ArrayList<>()).add(i);
+		}
+
+		BatchResultDto[] results = new BatchResultDto[items.size()];
+		for (Map.Entry<Integer, List<Integer>> entry : byShard.entrySet()) {
+			List<Integer> indexes = entry.getValue();
+			List<T> part = indexes.stream().map(items::get).collect(Collectors.toList());
+			for (BatchResultDto result : on(entry.getKey(), () -> work.apply(part))) {
+				result.setIndex(indexes.get(result.getIndex()));
+				results[result.getIndex()] = result;
+			}
+		}
+		return Arrays.asList(results);
+	}
+
+	private void lockAll() {
+		for (ReentrantReadWriteLock lock : locks) {
+			lock.readLock().lock();
+		}
+	}
+
+	private void unlockAll() {
+		for (int i = locks.length - 1; i >= 0; i--) {
+			locks[i].readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gives the other shards a {@code tb_user} linked to the home shard's, in
+	 * place of the replicated reference table a real deployment would have:
+	 * task queries join users and batch creation looks them up in the same
+	 * transaction. H2 only.
+	 */
+	private void linkUsers() {
+		if (!(dataSource(HOME) instanceof HikariDataSource home) || !home.getJdbcUrl().startsWith("jdbc:h2:")) {
+			return;
+		}
+		for (int shard = 1; shard < locks.length; shard++) {
+			new JdbcTemplate(dataSource(shard)).execute("create linked table if not exists tb_user('org.h2.Driver', '"
+					+ quote(home.getJdbcUrl()) + "', '" + quote(home.getUsername()) + "', '"
+					+ quote(home.getPassword()) + "', 'PUBLIC', 'TB_USER')");
+		}
+	}
+
+	/**
+	 * Pins users found away from their ring shard, as after adding a shard,
+	 * to where their tasks are. Rows of a user on more than one shard are the
+	 * leftovers of an interrupted move; the directory or the ring decides.
+	 */
+	private void pinPlacedUsers() {
+		Map<Long, List<Integer>> found = new HashMap<>();
+		for (int shard = 0; shard < locks.length; shard++) {
+			int current = shard;
+			new JdbcTemplate(dataSource(shard)).query("select distinct user_id from tb_task where user_id is not null",
+					rs -> {
+						found.computeIfAbsent(rs.getLong(1), user -> new ArrayList<>(1)).add(current);
+					});
+		}
+
+		JdbcTemplate home = new JdbcTemplate(dataSource(HOME));
+		for (Map.Entry<Long, List<Integer>> entry : found.entrySet()) {
+			Long userId = entry.getKey();
+			List<Integer> shards = entry.getValue();
+			if (directory.containsKey(userId) || shards.contains(ring.shardFor(userId))) {
+				continue;
+			}
+			if (shards.size() > 1) {
+				log.warn("Tarefas do usuário {} em mais de um shard {}; fixado no shard {}", userId, shards,
+						shards.get(0));
+			}
+			home.update("merge into tb_user_shard key(user_id) values (?, ?)", userId, shards.get(0));
+			directory.put(userId, shards.get(0));
+		}
+	}
+
+	/**
+	 * Finds the tasks moved off the shard of their ID range: the rows each
+	 * shard owns outside its own range.
+	 */
+	private void findMovedTasks() {
+		for (int shard = 0; shard < locks.length; shard++) {
+			int current = shard;
+			new JdbcTemplate(dataSource(shard)).query(
+					"select id, user_id from tb_task where id < ? union all select id, user_id from tb_task where id >= ?",
+					rs -> {
+						if (owns(current, rs.getObject(2, Long.class))) {
+							movedTasks.put(rs.getLong(1), current);
+						}
+					}, (long) shard << ShardDataSourceConfiguration.SEQUENCE_SHIFT,
+					(long) (shard + 1) << ShardDataSourceConfiguration.SEQUENCE_SHIFT);
+		}
+	}
+
+	/**
+	 * The shard whose sequence created {@code id}, or the home shard for IDs
+	 * outside every shard's range.
+	 */
+	private int rangeShardOf(long id) {
+		long shard = id >> ShardDataSourceConfiguration.SEQUENCE_SHIFT;
+		return shard >= 0 && shard < locks.length ? (int) shard : HOME;
+	}
+
+	private static String quote(String value) {
+		return value == null ? "" : value.replace("'", "''");
+	}
+
+}
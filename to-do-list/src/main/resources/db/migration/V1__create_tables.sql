@@ -0,0 +1,28 @@
+-- Esquema inicial, igual ao que o Hibernate gera para as entidades
+create sequence tb_task_seq start with 1 increment by 50;
+
+create table tb_user (
+	user_id bigint generated by default as identity,
+	nivel varchar(255),
+	username varchar(255),
+	primary key (user_id)
+);
+
+create table tb_task (
+	id bigint not null,
+	user_id bigint,
+	title varchar(255),
+	description varchar(255),
+	created_at timestamp(6),
+	due_date timestamp(6),
+	status tinyint check (status between 0 and 2),
+	version bigint,
+	primary key (id),
+	constraint fk_task_user foreign key (user_id) references tb_user
+);
+
+create index idx_task_user on tb_task (user_id, id);
+create index idx_task_user_status on tb_task (user_id, status, id);
+create index idx_task_user_status_due on tb_task (user_id, status, due_date, id);
+create index idx_task_user_due on tb_task (user_id, due_date, id);
+create index idx_task_user_created on tb_task (user_id, created_at, id);
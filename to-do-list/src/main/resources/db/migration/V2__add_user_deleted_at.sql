@@ -0,0 +1,2 @@
+-- Usuarios apagados ficam marcados ate o expurgo das tarefas (UserDeletionService)
+alter table tb_user add column deleted_at timestamp(6);
@@ -0,0 +1,21 @@
+-- Tarefas de um shard alem do 0. Os usuarios ficam no shard 0, por isso nao ha
+-- chave estrangeira; a sequence comeca na faixa de ids reservada ao shard.
+create sequence tb_task_seq start with ${sequence_start} increment by 50;
+
+create table tb_task (
+	id bigint not null,
+	user_id bigint,
+	title varchar(255),
+	description varchar(255),
+	created_at timestamp(6),
+	due_date timestamp(6),
+	status tinyint check (status between 0 and 2),
+	version bigint,
+	primary key (id)
+);
+
+create index idx_task_user on tb_task (user_id, id);
+create index idx_task_user_status on tb_task (user_id, status, id);
+create index idx_task_user_status_due on tb_task (user_id, status, due_date, id);
+create index idx_task_user_due on tb_task (user_id, due_date, id);
+create index idx_task_user_created on tb_task (user_id, created_at, id);
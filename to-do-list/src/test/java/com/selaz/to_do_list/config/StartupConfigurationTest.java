@@ -0,0 +1,41 @@
+package com.selaz.to_do_list.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.metrics.SqlStatementCounter;
+import com.selaz.to_do_list.service.TaskDeadlineScheduler;
+import com.selaz.to_do_list.service.TaskListVersions;
+import com.selaz.to_do_list.service.TaskSummaryCounters;
+
+public class StartupConfigurationTest {
+
+	@Test
+	void testNativeHints_ClassesCreatedByName() {
+		RuntimeHints hints = new RuntimeHints();
+		new StartupConfiguration.NativeHints().registerHints(hints, getClass().getClassLoader());
+
+		assertTrue(RuntimeHintsPredicates.reflection().onType(SqlStatementCounter.class)
+				.withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onType(TaskItemDto.class)
+				.withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+		assertTrue(RuntimeHintsPredicates.resource().forResource("db/shard/V1__create_task_table.sql").test(hints));
+	}
+
+	@Test
+	void testEagerServices_StatefulServicesOnly() {
+		LazyInitializationExcludeFilter filter = StartupConfiguration.eagerServices();
+
+		assertTrue(filter.isExcluded("taskSummaryCounters", null, TaskSummaryCounters.class));
+		assertTrue(filter.isExcluded("taskDeadlineScheduler", null, TaskDeadlineScheduler.class));
+		assertFalse(filter.isExcluded("taskListVersions", null, TaskListVersions.class));
+	}
+
+}
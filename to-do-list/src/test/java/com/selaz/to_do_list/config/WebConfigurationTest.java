@@ -0,0 +1,69 @@
+package com.selaz.to_do_list.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.selaz.to_do_list.dto.CursorPage;
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.model.Status;
+
+public class WebConfigurationTest {
+
+	private final WebConfiguration configuration = new WebConfiguration(null);
+
+	@Test
+	void testBinaryFormats_RoundTripAndSmallerThanJson() throws IOException {
+		List<TaskItemDto> items = new ArrayList<>();
+		for (long id = 1; id <= 50; id++) {
+			items.add(new TaskItemDto(id, "Relatório " + id, Status.values()[(int) (id % 3)],
+					new Date(1_700_000_000_000L + id), new Date(1_690_000_000_000L + id), 7L, id % 4));
+		}
+		CursorPage<TaskItemDto> page = new CursorPage<>(items, "next-cursor");
+
+		int json = write(new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build()), page,
+				MediaType.APPLICATION_JSON).length;
+		for (AbstractJackson2HttpMessageConverter converter : List.of(
+				configuration.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()),
+				configuration.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()))) {
+			MediaType mediaType = converter.getSupportedMediaTypes().get(0);
+			byte[] body = write(converter, page, mediaType);
+			assertTrue(body.length < json * 0.8, mediaType + ": " + body.length + " bytes, JSON " + json);
+
+			MockHttpInputMessage input = new MockHttpInputMessage(body);
+			input.getHeaders().setContentType(mediaType);
+			@SuppressWarnings("unchecked")
+			CursorPage<TaskItemDto> read = (CursorPage<TaskItemDto>) converter.read(
+					new ParameterizedTypeReference<CursorPage<TaskItemDto>>() {
+					}.getType(), null, input);
+			assertEquals("next-cursor", read.getNext());
+			assertEquals(50, read.getItems().size());
+			TaskItemDto last = read.getItems().get(49);
+			assertEquals("Relatório 50", last.getTitle());
+			assertEquals(Status.CONCLUIDA, last.getStatus());
+			assertEquals(1_700_000_000_050L, last.getDueDate().getTime());
+			assertEquals(2L, last.getVersion());
+		}
+	}
+
+	private static byte[] write(AbstractJackson2HttpMessageConverter converter, Object body, MediaType mediaType)
+			throws IOException {
+		MockHttpOutputMessage output = new MockHttpOutputMessage();
+		converter.write(body, mediaType, output);
+		return output.getBodyAsBytes();
+	}
+
+}
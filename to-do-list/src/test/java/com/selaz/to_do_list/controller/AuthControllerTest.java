@@ -0,0 +1,71 @@
+package com.selaz.to_do_list.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.selaz.to_do_list.dto.TokenDto;
+import com.selaz.to_do_list.security.TokenAuthentication;
+import com.selaz.to_do_list.security.TokenService;
+
+public class AuthControllerTest {
+
+	@InjectMocks
+	private AuthController authController;
+
+	@Mock
+	private TokenService tokenService;
+
+	private final UserDetails root = User.withUsername("root").password("{noop}123").roles("USER").build();
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void testCreateToken_WithBasicCredentials() {
+		TokenDto token = new TokenDto("token", new Date());
+		when(tokenService.issue(root)).thenReturn(token);
+		authenticate(UsernamePasswordAuthenticationToken.authenticated(root, null, root.getAuthorities()));
+
+		assertEquals(token, authController.createToken());
+	}
+
+	@Test
+	void testCreateToken_RejectsBearerToken() {
+		authenticate(new TokenAuthentication(root));
+
+		ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> authController.createToken());
+		assertEquals(401, e.getStatusCode().value());
+		verify(tokenService, never()).issue(any());
+	}
+
+	private static void authenticate(Authentication authentication) {
+		SecurityContextHolder.getContext().setAuthentication(authentication);
+	}
+
+}
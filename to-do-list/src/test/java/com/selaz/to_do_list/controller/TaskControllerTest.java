@@ -1,34 +1,77 @@
 package com.selaz.to_do_list.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selaz.to_do_list.dto.BatchResultDto;
+import com.selaz.to_do_list.dto.CursorPage;
+import com.selaz.to_do_list.dto.IngestTicketDto;
+import com.selaz.to_do_list.dto.TaskCursor;
+import com.selaz.to_do_list.dto.TaskDueAlertDto;
 import com.selaz.to_do_list.dto.TaskDto;
+import com.selaz.to_do_list.dto.TaskFilter;
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.dto.TaskPatchDto;
+import com.selaz.to_do_list.dto.TaskSort;
+import com.selaz.to_do_list.dto.TaskSummaryDto;
+import com.selaz.to_do_list.event.TaskChange;
+import com.selaz.to_do_list.event.TaskChangedEvent;
 import com.selaz.to_do_list.model.Status;
 import com.selaz.to_do_list.model.Task;
 import com.selaz.to_do_list.model.User;
 import com.selaz.to_do_list.repository.TaskRepository;
 import com.selaz.to_do_list.repository.UserRepository;
+import com.selaz.to_do_list.service.TaskBatchService;
+import com.selaz.to_do_list.service.TaskChangeStream;
+import com.selaz.to_do_list.service.TaskDeadlineScheduler;
+import com.selaz.to_do_list.service.TaskExportService;
+import com.selaz.to_do_list.service.TaskIngestQueue;
+import com.selaz.to_do_list.service.TaskListVersions;
+import com.selaz.to_do_list.service.TaskSearchIndex;
+import com.selaz.to_do_list.service.TaskSummaryCounters;
+import com.selaz.to_do_list.shard.TaskShards;
 
 public class TaskControllerTest {
 
@@ -41,15 +84,48 @@ public class TaskControllerTest {
 	@Mock
 	private UserRepository userRepository;
 
+	@Mock
+	private TaskBatchService taskBatchService;
+
+	@Mock
+	private TaskExportService taskExportService;
+
+	@Spy
+	private TaskListVersions taskListVersions = new TaskListVersions();
+
+	@Mock
+	private TaskSummaryCounters taskSummaryCounters;
+
+	@Mock
+	private TaskSearchIndex taskSearchIndex;
+
+	@Mock
+	private TaskDeadlineScheduler taskDeadlineScheduler;
+
+	@Mock
+	private TaskIngestQueue taskIngestQueue;
+
+	@Mock
+	private TaskChangeStream taskChangeStream;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
 	@Mock
 	private Authentication authentication;
 
 	@Mock
 	private UserDetails userDetails;
 
+	private ServletWebRequest request;
+
+	@Spy
+	private TaskShards taskShards = new TaskShards();
+
 	@BeforeEach
 	void setUp() {
 		MockitoAnnotations.openMocks(this);
+		request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/tasks"), new MockHttpServletResponse());
 		SecurityContextHolder.getContext().setAuthentication(authentication);
 		when(authentication.getPrincipal()).thenReturn(userDetails);
 	}
@@ -57,35 +133,117 @@ public class TaskControllerTest {
 	@Test
 	void testGetAllTasks_NoFilters() {
 		User user = new User(1L, "testUser", "nivel1");
+		TaskFilter filter = new TaskFilter();
 		when(userDetails.getUsername()).thenReturn("testUser");
 		when(userRepository.findByUsername("testUser")).thenReturn(user);
-		when(taskRepository.findByUser(user)).thenReturn(Arrays.asList(new Task(), new Task()));
+		when(taskRepository.search(filter, null, 51)).thenReturn(Arrays.asList(new TaskItemDto(), new TaskItemDto()));
 
-		List<Task> tasks = taskController.getAllTasks(null, null);
-		assertEquals(2, tasks.size());
-		verify(taskRepository, times(1)).findByUser(user);
+		CursorPage<TaskItemDto> tasks = taskController.getAllTasks(filter, null, null, request);
+		assertEquals(2, tasks.getItems().size());
+		assertNull(tasks.getNext());
+		assertEquals(1L, filter.getUserId());
+		verify(taskRepository, times(1)).search(filter, null, 51);
 	}
 
 	@Test
 	void testGetAllTasks_WithStatusFilter() {
+		User user = new User(1L, "testUser", "nivel1");
+		TaskFilter filter = new TaskFilter();
+		filter.setStatus(EnumSet.of(Status.CONCLUIDA));
+		when(userDetails.getUsername()).thenReturn("testUser");
+		when(userRepository.findByUsername("testUser")).thenReturn(user);
+		when(taskRepository.search(filter, null, 51)).thenReturn(Arrays.asList(new TaskItemDto()));
+
+		CursorPage<TaskItemDto> tasks = taskController.getAllTasks(filter, null, null, request);
+		assertEquals(1, tasks.getItems().size());
+		assertEquals(1L, filter.getUserId());
+		verify(taskRepository, times(1)).search(filter, null, 51);
+	}
+
+	@Test
+	void testGetAllTasks_UnknownUser() {
+		when(userDetails.getUsername()).thenReturn("testUser");
+		when(userRepository.findByUsername("testUser")).thenReturn(null);
+
+		CursorPage<TaskItemDto> tasks = taskController.getAllTasks(new TaskFilter(), null, null, request);
+		assertEquals(0, tasks.getItems().size());
+		verify(taskRepository, never()).search(any(), any(), anyInt());
+	}
+
+	@Test
+	void testGetAllTasks_NextCursorSeeksPastLastItem() {
+		User user = new User(1L, "testUser", "nivel1");
+		Date dueDate = new Date();
+		TaskItemDto first = new TaskItemDto(1L, "First", Status.PENDENTE, dueDate, new Date(), 1L, 0L);
+		TaskItemDto second = new TaskItemDto(2L, "Second", Status.PENDENTE, dueDate, new Date(), 1L, 0L);
+		TaskFilter filter = new TaskFilter();
+		filter.setSort(TaskSort.DUE_DATE);
+		when(userDetails.getUsername()).thenReturn("testUser");
+		when(userRepository.findByUsername("testUser")).thenReturn(user);
+		when(taskRepository.search(filter, null, 2)).thenReturn(Arrays.asList(first, second));
+
+		CursorPage<TaskItemDto> page = taskController.getAllTasks(filter, null, 1, request);
+		assertEquals(1, page.getItems().size());
+		assertNotNull(page.getNext());
+
+		taskController.getAllTasks(filter, page.getNext(), 1, request);
+		ArgumentCaptor<TaskCursor> cursor = ArgumentCaptor.forClass(TaskCursor.class);
+		verify(taskRepository, times(2)).search(eq(filter), cursor.capture(), eq(2));
+		assertNull(cursor.getAllValues().get(0));
+		assertEquals(dueDate, cursor.getValue().getKey());
+		assertEquals(1L, cursor.getValue().getId());
+	}
+
+	@Test
+	void testGetAllTasks_NotModifiedSkipsQuery() {
+		User user = new User(1L, "testUser", "nivel1");
 		when(userDetails.getUsername()).thenReturn("testUser");
-		when(userRepository.findByUsername("testUser")).thenReturn(new User());
-		when(taskRepository.findByStatus(Status.CONCLUIDA)).thenReturn(Arrays.asList(new Task()));
+		when(userRepository.findByUsername("testUser")).thenReturn(user);
+		when(taskRepository.search(any(), any(), anyInt())).thenReturn(Arrays.asList(new TaskItemDto()));
+
+		taskController.getAllTasks(new TaskFilter(), null, null, request);
+		String etag = request.getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag);
 
-		List<Task> tasks = taskController.getAllTasks("CONCLUIDA", null);
-		assertEquals(1, tasks.size());
-		verify(taskRepository, times(1)).findByStatus(Status.CONCLUIDA);
+		MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/api/tasks");
+		conditional.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		CursorPage<TaskItemDto> page = taskController.getAllTasks(new TaskFilter(), null, null,
+				new ServletWebRequest(conditional, response));
+
+		assertNull(page);
+		assertEquals(304, response.getStatus());
+		verify(taskRepository, times(1)).search(any(), any(), anyInt());
 	}
 
 	@Test
-	void testGetAllTasks_WithSortByDueDate() {
+	void testGetAllTasks_EtagChangesAfterOwnTasksChange() {
 		when(userDetails.getUsername()).thenReturn("testUser");
-		when(userRepository.findByUsername("testUser")).thenReturn(new User());
-		when(taskRepository.findAllByOrderByDueDate()).thenReturn(Arrays.asList(new Task()));
+		when(userRepository.findByUsername("testUser")).thenReturn(new User(1L, "testUser", "nivel1"));
+		when(taskRepository.search(any(), any(), anyInt())).thenReturn(Arrays.asList(new TaskItemDto()));
+
+		String before = taskListVersions.etag(1L);
+		taskListVersions.onTaskChanged(taskCreatedFor(2L));
+		assertEquals(before, taskListVersions.etag(1L));
+
+		taskListVersions.onTaskChanged(taskCreatedFor(1L));
+		MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/api/tasks");
+		conditional.addHeader(HttpHeaders.IF_NONE_MATCH, before);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		CursorPage<TaskItemDto> page = taskController.getAllTasks(new TaskFilter(), null, null,
+				new ServletWebRequest(conditional, response));
+
+		assertEquals(1, page.getItems().size());
+		assertEquals(200, response.getStatus());
+		assertEquals(taskListVersions.etag(1L), response.getHeader(HttpHeaders.ETAG));
+	}
 
-		List<Task> tasks = taskController.getAllTasks(null, "dueDate");
-		assertEquals(1, tasks.size());
-		verify(taskRepository, times(1)).findAllByOrderByDueDate();
+	@Test
+	void testGetAllTasks_InvalidCursor() {
+		when(userDetails.getUsername()).thenReturn("testUser");
+		when(userRepository.findByUsername("testUser")).thenReturn(new User(1L, "testUser", "nivel1"));
+
+		assertThrows(ResponseStatusException.class, () -> taskController.getAllTasks(new TaskFilter(), "???", null, request));
 	}
 
 	@Test
@@ -101,7 +259,7 @@ public class TaskControllerTest {
 		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 		when(taskRepository.save(any(Task.class))).thenReturn(new Task());
 
-		ResponseEntity<Task> response = taskController.createTask(taskDto);
+		ResponseEntity<TaskItemDto> response = taskController.createTask(taskDto);
 		assertEquals(200, response.getStatusCodeValue());
 		verify(taskRepository, times(1)).save(any(Task.class));
 	}
@@ -113,7 +271,7 @@ public class TaskControllerTest {
 
 		when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
-		ResponseEntity<Task> response = taskController.createTask(taskDto);
+		ResponseEntity<TaskItemDto> response = taskController.createTask(taskDto);
 		assertEquals(404, response.getStatusCodeValue());
 		verify(taskRepository, never()).save(any(Task.class));
 	}
@@ -126,14 +284,22 @@ public class TaskControllerTest {
 		taskDto.setDueDate(new Date());
 		taskDto.setStatus(Status.EM_ANDAMENTO);
 
-		Task existingTask = new Task(1L, new User(), "Old Task", "Old Description", new Date(), new Date(),
+		Task existingTask = new Task(1L, new User(7L, "owner", "nivel1"), "Old Task", "Old Description", new Date(), new Date(),
 				Status.PENDENTE);
 		when(taskRepository.findById(1L)).thenReturn(Optional.of(existingTask));
 		when(taskRepository.save(any(Task.class))).thenReturn(existingTask);
 
-		ResponseEntity<Task> response = taskController.updateTask(1L, taskDto);
+		ResponseEntity<TaskItemDto> response = taskController.updateTask(1L, taskDto);
 		assertEquals(200, response.getStatusCodeValue());
+		ArgumentCaptor<TaskChangedEvent> event = ArgumentCaptor.forClass(TaskChangedEvent.class);
+		verify(eventPublisher).publishEvent(event.capture());
+		assertEquals(Set.of(7L), event.getValue().getUserIds());
+		TaskChange change = event.getValue().getChanges().get(0);
+		assertEquals(TaskChange.Type.UPDATED, change.getType());
+		assertEquals(Status.PENDENTE, change.getBefore().getStatus());
+		assertEquals(Status.EM_ANDAMENTO, change.getAfter().getStatus());
 		assertEquals("Updated Task", response.getBody().getTitle());
+		assertEquals(Status.EM_ANDAMENTO, response.getBody().getStatus());
 		verify(taskRepository, times(1)).save(existingTask);
 	}
 
@@ -143,46 +309,288 @@ public class TaskControllerTest {
 
 		when(taskRepository.findById(1L)).thenReturn(Optional.empty());
 
-		ResponseEntity<Task> response = taskController.updateTask(1L, taskDto);
+		ResponseEntity<TaskItemDto> response = taskController.updateTask(1L, taskDto);
 		assertEquals(404, response.getStatusCodeValue());
 	}
 
+	@Test
+	void testIngestTask_Accepted() {
+		TaskDto taskDto = new TaskDto();
+		taskDto.setUser_id(1L);
+		IngestTicketDto ticket = new IngestTicketDto(5L, IngestTicketDto.State.QUEUED, null, null);
+		when(taskIngestQueue.isEnabled()).thenReturn(true);
+		when(userRepository.findById(1L)).thenReturn(Optional.of(new User(1L, "testUser", "nivel1")));
+		when(taskIngestQueue.submit(taskDto)).thenReturn(ticket);
+
+		ResponseEntity<IngestTicketDto> response = taskController.ingestTask(taskDto);
+		assertEquals(202, response.getStatusCode().value());
+		assertEquals(ticket, response.getBody());
+		verify(taskRepository, never()).save(any(Task.class));
+	}
+
+	@Test
+	void testIngestTask_QueueFull() {
+		TaskDto taskDto = new TaskDto();
+		taskDto.setUser_id(1L);
+		when(taskIngestQueue.isEnabled()).thenReturn(true);
+		when(userRepository.findById(1L)).thenReturn(Optional.of(new User(1L, "testUser", "nivel1")));
+
+		ResponseEntity<IngestTicketDto> response = taskController.ingestTask(taskDto);
+		assertEquals(429, response.getStatusCode().value());
+		assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+	}
+
+	@Test
+	void testIngestTask_Disabled() {
+		TaskDto taskDto = new TaskDto();
+		taskDto.setUser_id(1L);
+
+		assertEquals(404, taskController.ingestTask(taskDto).getStatusCode().value());
+		verify(taskIngestQueue, never()).submit(any());
+	}
+
+	@Test
+	void testPatchTask_AppliesGivenFields() {
+		TaskPatchDto patch = new TaskPatchDto();
+		patch.setTitle("Patched");
+		patch.setVersion(3L);
+		Date dueDate = new Date();
+		when(taskRepository.patch(1L, patch)).thenReturn(List.<Object[]>of(
+				new Object[] { 1L, 7L, "Old Task", "Old Description", (byte) Status.PENDENTE.ordinal(), dueDate, dueDate }));
+
+		ResponseEntity<TaskItemDto> response = taskController.patchTask(1L, patch);
+		assertEquals(200, response.getStatusCode().value());
+		assertEquals("Patched", response.getBody().getTitle());
+		assertEquals(Status.PENDENTE, response.getBody().getStatus());
+		assertEquals(4L, response.getBody().getVersion());
+		verify(taskRepository, never()).findById(any());
+		verify(taskRepository, never()).save(any(Task.class));
+
+		ArgumentCaptor<TaskChangedEvent> event = ArgumentCaptor.forClass(TaskChangedEvent.class);
+		verify(eventPublisher).publishEvent(event.capture());
+		TaskChange change = event.getValue().getChanges().get(0);
+		assertEquals("Old Task", change.getBefore().getTitle());
+		assertEquals(3L, change.getBefore().getVersion());
+		assertEquals("Old Description", change.getDescription());
+	}
+
+	@Test
+	void testPatchTask_ExplicitNullClearsDueDate() throws Exception {
+		TaskPatchDto patch = new ObjectMapper().readValue("{\"dueDate\":null,\"version\":3}", TaskPatchDto.class);
+		assertTrue(patch.hasDueDate());
+		assertFalse(patch.hasTitle());
+		Date dueDate = new Date();
+		when(taskRepository.patch(1L, patch)).thenReturn(List.<Object[]>of(
+				new Object[] { 1L, 7L, "Old Task", "Old Description", (byte) Status.PENDENTE.ordinal(), dueDate, dueDate }));
+
+		ResponseEntity<TaskItemDto> response = taskController.patchTask(1L, patch);
+		assertEquals(200, response.getStatusCode().value());
+		assertNull(response.getBody().getDueDate());
+		assertEquals("Old Task", response.getBody().getTitle());
+	}
+
+	@Test
+	void testChangeStatus_VersionConflict() {
+		when(taskRepository.patch(eq(1L), any(TaskPatchDto.class))).thenReturn(List.of());
+		when(taskRepository.existsById(1L)).thenReturn(true);
+
+		ResponseStatusException e = assertThrows(ResponseStatusException.class,
+				() -> taskController.changeStatus(1L, Status.CONCLUIDA, 3L));
+		assertEquals(409, e.getStatusCode().value());
+		verify(eventPublisher, never()).publishEvent(any());
+	}
+
+	@Test
+	void testChangeStatus_TaskNotFound() {
+		when(taskRepository.patch(eq(1L), any(TaskPatchDto.class))).thenReturn(List.of());
+
+		ResponseEntity<TaskItemDto> response = taskController.changeStatus(1L, Status.CONCLUIDA, 3L);
+		assertEquals(404, response.getStatusCode().value());
+	}
+
 	@Test
 	void testDeleteTask_TaskExists() {
-		Task taskToDelete = new Task(1L, new User(), "Task to Delete", "Description", new Date(), new Date(),
-				Status.PENDENTE);
-		when(taskRepository.findById(1L)).thenReturn(Optional.of(taskToDelete));
+		TaskItemDto deleted = new TaskItemDto(1L, "Task to Delete", Status.PENDENTE, new Date(), new Date(), 7L, 0L);
+		when(taskRepository.deleteItemById(1L)).thenReturn(List.of(deleted));
 
 		ResponseEntity<Void> response = taskController.deleteTask(1L);
 		assertEquals(204, response.getStatusCodeValue());
-		verify(taskRepository, times(1)).delete(taskToDelete);
+		verify(taskRepository, never()).findById(any());
+		ArgumentCaptor<TaskChangedEvent> event = ArgumentCaptor.forClass(TaskChangedEvent.class);
+		verify(eventPublisher).publishEvent(event.capture());
+		assertEquals(TaskChange.Type.DELETED, event.getValue().getChanges().get(0).getType());
 	}
 
 	@Test
 	void testDeleteTask_TaskNotFound() {
-		when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+		when(taskRepository.deleteItemById(1L)).thenReturn(List.of());
 
 		ResponseEntity<Void> response = taskController.deleteTask(1L);
 		assertEquals(404, response.getStatusCodeValue());
+		verify(eventPublisher, never()).publishEvent(any());
+	}
+
+	@Test
+	void testDeleteMatchingTasks_CurrentUserOnly() {
+		when(userDetails.getUsername()).thenReturn("testUser");
+		when(userRepository.findByUsername("testUser")).thenReturn(new User(1L, "testUser", "nivel1"));
+		when(taskRepository.deleteMatching(any())).thenReturn(List.of(
+				new TaskItemDto(3L, "A", Status.CONCLUIDA, null, new Date(), 1L, 0L),
+				new TaskItemDto(4L, "B", Status.CONCLUIDA, null, new Date(), 1L, 2L)));
+		TaskFilter filter = new TaskFilter();
+		filter.setStatus(EnumSet.of(Status.CONCLUIDA));
+
+		assertEquals(2L, taskController.deleteMatchingTasks(filter).getDeleted());
+		ArgumentCaptor<TaskFilter> used = ArgumentCaptor.forClass(TaskFilter.class);
+		verify(taskRepository).deleteMatching(used.capture());
+		assertEquals(1L, used.getValue().getUserId());
+		ArgumentCaptor<TaskChangedEvent> event = ArgumentCaptor.forClass(TaskChangedEvent.class);
+		verify(eventPublisher).publishEvent(event.capture());
+		assertEquals(2, event.getValue().getChanges().size());
+	}
+
+	@Test
+	void testDeleteMatchingTasks_RequiresAFilter() {
+		assertThrows(ResponseStatusException.class, () -> taskController.deleteMatchingTasks(new TaskFilter()));
+		verify(taskRepository, never()).deleteMatching(any());
+	}
+
+	@Test
+	void testCreateTasks_DelegatesToBatchService() {
+		List<TaskDto> taskDtos = Arrays.asList(new TaskDto(), new TaskDto());
+		when(taskBatchService.createTasks(taskDtos)).thenReturn(
+				Arrays.asList(new BatchResultDto(0, 1L, 200, null), new BatchResultDto(1, null, 404, "User not found")));
+
+		List<BatchResultDto> results = taskController.createTasks(taskDtos);
+		assertEquals(2, results.size());
+		verify(taskBatchService, times(1)).createTasks(taskDtos);
+	}
+
+	@Test
+	void testDeleteTasks_RejectsOversizedBatch() {
+		List<Long> ids = Collections.nCopies(TaskController.MAX_BATCH_SIZE + 1, 1L);
+
+		assertThrows(ResponseStatusException.class, () -> taskController.deleteTasks(ids));
+		verify(taskBatchService, never()).deleteTasks(any());
+	}
+
+	@Test
+	void testExportTasks_StreamsFromExportService() throws Exception {
+		when(userRepository.findById(1L)).thenReturn(Optional.of(new User(1L, "testUser", "nivel1")));
+
+		ResponseEntity<StreamingResponseBody> response = taskController.exportTasks(1L, request);
+		assertEquals(200, response.getStatusCode().value());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		response.getBody().writeTo(out);
+		verify(taskExportService, times(1)).export(1L, out);
+	}
+
+	@Test
+	void testExportTasks_UserNotFound() throws Exception {
+		when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+		ResponseEntity<StreamingResponseBody> response = taskController.exportTasks(1L, request);
+		assertEquals(404, response.getStatusCode().value());
+		verify(taskExportService, never()).export(any(), any());
+	}
+
+	@Test
+	void testGetSummary_CurrentUser() {
+		TaskSummaryDto summary = new TaskSummaryDto(1L, null, 0, 0);
+		when(userDetails.getUsername()).thenReturn("testUser");
+		when(userRepository.findByUsername("testUser")).thenReturn(new User(1L, "testUser", "nivel1"));
+		when(taskSummaryCounters.summary(1L)).thenReturn(summary);
+
+		ResponseEntity<TaskSummaryDto> response = taskController.getSummary();
+		assertEquals(200, response.getStatusCode().value());
+		assertEquals(summary, response.getBody());
+		verify(taskRepository, never()).search(any(), any(), anyInt());
+	}
+
+	@Test
+	void testGetSummaryByUser_UserNotFound() {
+		when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+		ResponseEntity<TaskSummaryDto> response = taskController.getSummaryByUser(1L);
+		assertEquals(404, response.getStatusCode().value());
+		verify(taskSummaryCounters, never()).summary(any());
+	}
+
+	@Test
+	void testGetAlerts_CurrentUserAfterSequence() {
+		List<TaskDueAlertDto> alerts = List.of(new TaskDueAlertDto(8L, TaskDueAlertDto.Type.OVERDUE, 3L, 1L,
+				new Date(), new Date()));
+		when(userDetails.getUsername()).thenReturn("testUser");
+		when(userRepository.findByUsername("testUser")).thenReturn(new User(1L, "testUser", "nivel1"));
+		when(taskDeadlineScheduler.alerts(1L, 7L, TaskController.MAX_PAGE_SIZE)).thenReturn(alerts);
+
+		assertEquals(alerts, taskController.getAlerts(7L, 10_000));
+		verify(taskRepository, never()).search(any(), any(), anyInt());
+	}
+
+	@Test
+	void testStreamTasks_ResumesFromLastEventId() {
+		SseEmitter emitter = new SseEmitter();
+		when(userDetails.getUsername()).thenReturn("testUser");
+		when(userRepository.findByUsername("testUser")).thenReturn(new User(1L, "testUser", "nivel1"));
+		when(taskChangeStream.subscribe(1L, "abc-7")).thenReturn(emitter);
+
+		ResponseEntity<SseEmitter> response = taskController.streamTasks("abc-7");
+		assertEquals(200, response.getStatusCode().value());
+		assertSame(emitter, response.getBody());
+	}
+
+	@Test
+	void testStreamTasks_TooManyStreams() {
+		when(userDetails.getUsername()).thenReturn("testUser");
+		when(userRepository.findByUsername("testUser")).thenReturn(new User(1L, "testUser", "nivel1"));
+
+		ResponseStatusException e = assertThrows(ResponseStatusException.class,
+				() -> taskController.streamTasks(null));
+		assertEquals(503, e.getStatusCode().value());
+	}
+
+	@Test
+	void testSearchTasks_KeepsRelevanceOrder() {
+		when(userDetails.getUsername()).thenReturn("testUser");
+		when(userRepository.findByUsername("testUser")).thenReturn(new User(1L, "testUser", "nivel1"));
+		when(taskSearchIndex.search(1L, "relatorio", TaskController.DEFAULT_PAGE_SIZE))
+				.thenReturn(Arrays.asList(3L, 1L, 2L));
+		when(taskRepository.findItemsByIdIn(Arrays.asList(3L, 1L, 2L))).thenReturn(Arrays.asList(
+				new TaskItemDto(1L, "A", Status.PENDENTE, null, new Date(), 1L, 0L),
+				new TaskItemDto(3L, "C", Status.PENDENTE, null, new Date(), 1L, 0L)));
+
+		List<TaskItemDto> results = taskController.searchTasks("relatorio", null);
+		assertEquals(2, results.size());
+		assertEquals(3L, results.get(0).getId());
+		assertEquals(1L, results.get(1).getId());
 	}
 
 	@Test
 	void testGetAllTasksByUser_UserExists() {
 		User user = new User(1L, "testUser", "nivel1");
+		TaskFilter filter = new TaskFilter();
 		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-		when(taskRepository.findByUser(user)).thenReturn(Arrays.asList(new Task()));
+		when(taskRepository.search(filter, null, 51)).thenReturn(Arrays.asList(new TaskItemDto()));
 
-		List<Task> tasks = taskController.getAllTasksByUser(1L);
-		assertEquals(1, tasks.size());
-		verify(taskRepository, times(1)).findByUser(user);
+		CursorPage<TaskItemDto> tasks = taskController.getAllTasksByUser(1L, filter, null, null, request);
+		assertEquals(1, tasks.getItems().size());
+		assertEquals(1L, filter.getUserId());
+		verify(taskRepository, times(1)).search(filter, null, 51);
 	}
 
 	@Test
 	void testGetAllTasksByUser_UserNotFound() {
 		when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
-		List<Task> tasks = taskController.getAllTasksByUser(1L);
+		CursorPage<TaskItemDto> tasks = taskController.getAllTasksByUser(1L, new TaskFilter(), null, null, request);
 		assertNull(tasks);
 	}
 
+	private static TaskChangedEvent taskCreatedFor(Long userId) {
+		TaskItemDto task = new TaskItemDto(5L, "Task", Status.PENDENTE, null, new Date(), userId, 0L);
+		return new TaskChangedEvent(List.of(TaskChange.created(task, null)));
+	}
+
 }
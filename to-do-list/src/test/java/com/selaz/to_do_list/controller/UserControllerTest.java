@@ -2,8 +2,10 @@ package com.selaz.to_do_list.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -17,10 +19,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.ResponseEntity;
 
 import com.selaz.to_do_list.model.User;
 import com.selaz.to_do_list.repository.UserRepository;
+import com.selaz.to_do_list.service.UserCacheEvictor;
+import com.selaz.to_do_list.service.UserDeletionService;
+import com.selaz.to_do_list.shard.TaskShards;
 
 public class UserControllerTest {
 
@@ -30,6 +36,15 @@ public class UserControllerTest {
 	@Mock
 	private UserRepository userRepository;
 
+	@Mock
+	private UserCacheEvictor userCacheEvictor;
+
+	@Mock
+	private UserDeletionService userDeletionService;
+
+	@Spy
+	private TaskShards taskShards = new TaskShards();
+
 	@BeforeEach
 	void setUp() {
 		MockitoAnnotations.openMocks(this);
@@ -62,13 +77,30 @@ public class UserControllerTest {
 		User oldUser = new User(1L, "oldUser", "nivelOld");
 		User newUser = new User(null, "updatedUser", "nivelUpdated");
 		when(userRepository.findById(anyLong())).thenReturn(Optional.of(oldUser));
-		when(userRepository.save(any(User.class))).thenReturn(oldUser);
+		when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
 		ResponseEntity<User> response = userController.updateUser(1L, newUser);
 		assertEquals(200, response.getStatusCodeValue());
 		assertEquals("updatedUser", response.getBody().getUsername());
+		assertEquals(1L, response.getBody().getId());
+		// A entidade em cache não é alterada
+		assertEquals("oldUser", oldUser.getUsername());
 		verify(userRepository, times(1)).findById(1L);
-		verify(userRepository, times(1)).save(oldUser);
+		verify(userRepository, times(1)).save(any(User.class));
+		verify(userCacheEvictor, times(1)).evict(1L, "oldUser");
+	}
+
+	@Test
+	void testUpdateUser_SaveFails() {
+		User oldUser = new User(1L, "oldUser", "nivelOld");
+		User newUser = new User(null, "updatedUser", "nivelUpdated");
+		when(userRepository.findById(anyLong())).thenReturn(Optional.of(oldUser));
+		when(userRepository.save(any(User.class))).thenThrow(new IllegalStateException("constraint"));
+
+		assertThrows(IllegalStateException.class, () -> userController.updateUser(1L, newUser));
+		assertEquals("oldUser", oldUser.getUsername());
+		assertEquals("nivelOld", oldUser.getNivel());
+		verify(userCacheEvictor, never()).evict(anyLong(), any());
 	}
 
 	@Test
@@ -89,7 +121,8 @@ public class UserControllerTest {
 		ResponseEntity<Void> response = userController.deleteUser(1L);
 		assertEquals(204, response.getStatusCodeValue());
 		verify(userRepository, times(1)).findById(1L);
-		verify(userRepository, times(1)).delete(userToDelete);
+		verify(userDeletionService, times(1)).deleteUser(1L);
+		verify(userCacheEvictor, times(1)).evict(1L, "userToDelete");
 	}
 
 	@Test
@@ -99,6 +132,7 @@ public class UserControllerTest {
 		ResponseEntity<Void> response = userController.deleteUser(1L);
 		assertEquals(404, response.getStatusCodeValue());
 		verify(userRepository, times(1)).findById(1L);
+		verify(userDeletionService, never()).deleteUser(anyLong());
 	}
 
 }
@@ -0,0 +1,101 @@
+package com.selaz.to_do_list.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class H2ReplicationStandInTest {
+
+	private HikariDataSource primary;
+
+	private HikariDataSource replica;
+
+	private H2ReplicationStandIn standIn;
+
+	@BeforeEach
+	void setUp() {
+		primary = pool("jdbc:h2:mem:standin-primary;DB_CLOSE_DELAY=-1");
+		replica = pool("jdbc:h2:mem:standin-replica;DB_CLOSE_DELAY=-1");
+
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(primary);
+		jdbcTemplate.execute("create table tb_user (id bigint primary key, username varchar(50))");
+		jdbcTemplate.execute("create table tb_task (id bigint primary key, title varchar(100), version bigint, "
+				+ "user_id bigint references tb_user(id))");
+		jdbcTemplate.execute("create index idx_task_user on tb_task(user_id)");
+		jdbcTemplate.execute("create table \"flyway_schema_history\" (\"installed_rank\" int primary key)");
+		jdbcTemplate.execute("insert into tb_user values (1, 'root')");
+		jdbcTemplate.execute("insert into tb_task values (1, 'relatorio', 0, 1), (2, 'planilha', 0, 1)");
+
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.<DataSource>of(replica),
+				Duration.ofSeconds(5), 100, meterRegistry);
+		standIn = new H2ReplicationStandIn();
+		ReflectionTestUtils.setField(standIn, "primaryDataSource", primary);
+		ReflectionTestUtils.setField(standIn, "routingDataSource", routing);
+		ReflectionTestUtils.setField(standIn, "meterRegistry", meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		standIn.stop();
+		new JdbcTemplate(primary).execute("drop all objects");
+		new JdbcTemplate(replica).execute("drop all objects");
+		primary.close();
+		replica.close();
+	}
+
+	@Test
+	void testCopiesSchemaAndRowsAtStart() throws Exception {
+		standIn.start();
+
+		JdbcTemplate onReplica = new JdbcTemplate(replica);
+		assertEquals(List.of("planilha", "relatorio"),
+				onReplica.queryForList("select title from tb_task order by title", String.class));
+		assertEquals(1, onReplica.queryForObject(
+				"select count(*) from information_schema.indexes where index_name = 'IDX_TASK_USER'", Integer.class));
+	}
+
+	@Test
+	void testSyncAppliesInsertsUpdatesAndDeletes() throws Exception {
+		standIn.start();
+
+		JdbcTemplate onPrimary = new JdbcTemplate(primary);
+		onPrimary.execute("insert into tb_user values (2, 'admin')");
+		onPrimary.execute("insert into tb_task values (3, 'orcamento', 0, 2)");
+		onPrimary.execute("update tb_task set title = 'relatorio final', version = 1 where id = 1");
+		onPrimary.execute("delete from tb_task where id = 2");
+		onPrimary.execute("insert into \"flyway_schema_history\" values (1)");
+
+		JdbcTemplate onReplica = new JdbcTemplate(replica);
+		assertEquals(2, onReplica.queryForObject("select count(*) from tb_task", Integer.class));
+
+		standIn.sync();
+
+		assertEquals(List.of("1:relatorio final:1", "3:orcamento:0"), onReplica.queryForList(
+				"select id || ':' || title || ':' || version from tb_task order by id", String.class));
+		assertEquals(2, onReplica.queryForObject("select count(*) from tb_user", Integer.class));
+		assertEquals(1, onReplica.queryForObject("select count(*) from \"flyway_schema_history\"", Integer.class));
+	}
+
+	private static HikariDataSource pool(String url) {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setJdbcUrl(url);
+		dataSource.setUsername("sa");
+		dataSource.setPassword("");
+		return dataSource;
+	}
+
+}
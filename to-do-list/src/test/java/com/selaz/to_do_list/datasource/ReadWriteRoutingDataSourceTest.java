@@ -0,0 +1,102 @@
+package com.selaz.to_do_list.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ReadWriteRoutingDataSourceTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private ReadWriteRoutingDataSource routing;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		routing = new ReadWriteRoutingDataSource(mock(DataSource.class),
+				List.of(mock(DataSource.class), mock(DataSource.class)), Duration.ofMinutes(1), 100, meterRegistry);
+		routing.afterPropertiesSet();
+		SecurityContextHolder.getContext()
+				.setAuthentication(UsernamePasswordAuthenticationToken.authenticated("root", null, null));
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		RequestContextHolder.resetRequestAttributes();
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void testWritesAndNonTransactionalWorkGoToPrimary() {
+		assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+	}
+
+	@Test
+	void testReadOnlyTransactionsTakeTurnsOnReplicas() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		assertEquals(0, routing.determineCurrentLookupKey());
+		assertEquals(1, routing.determineCurrentLookupKey());
+		assertEquals(0, routing.determineCurrentLookupKey());
+		assertEquals(3.0, meterRegistry.get(ReadWriteRoutingDataSource.METRIC).tag("target", "replica").counter()
+				.count());
+	}
+
+	@Test
+	void testReadsOfAWriteRequestStayOnPrimary() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		RequestContextHolder.setRequestAttributes(
+				new ServletRequestAttributes(new MockHttpServletRequest("PATCH", "/api/tasks/1")));
+
+		assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+		RequestContextHolder.setRequestAttributes(
+				new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/tasks")));
+		assertEquals(0, routing.determineCurrentLookupKey());
+	}
+
+	@Test
+	void testCallerReadsItsOwnWritesFromPrimary() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		routing.recordWrite("root");
+
+		assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+		assertEquals(1.0, meterRegistry.get(ReadWriteRoutingDataSource.METRIC).tag("target", "primary").counter()
+				.count());
+
+		// Outros usuários continuam nas réplicas
+		SecurityContextHolder.getContext()
+				.setAuthentication(UsernamePasswordAuthenticationToken.authenticated("admin", null, null));
+		assertEquals(0, routing.determineCurrentLookupKey());
+	}
+
+	@Test
+	void testStickinessExpiresAfterMaxLag() throws InterruptedException {
+		routing = new ReadWriteRoutingDataSource(mock(DataSource.class), List.of(mock(DataSource.class)),
+				Duration.ofMillis(50), 100, meterRegistry);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		routing.recordWrite("root");
+		assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+		Thread.sleep(100);
+		assertEquals(0, routing.determineCurrentLookupKey());
+	}
+
+}
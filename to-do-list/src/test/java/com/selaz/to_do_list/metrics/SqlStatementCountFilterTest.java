@@ -0,0 +1,77 @@
+package com.selaz.to_do_list.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SqlStatementCountFilterTest {
+
+	@Spy
+	private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@InjectMocks
+	private SqlStatementCountFilter filter;
+
+	private final SqlStatementCounter inspector = new SqlStatementCounter();
+
+	@BeforeEach
+	public void setUp() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(filter, "warnThreshold", 20);
+	}
+
+	@Test
+	public void testCountsStatementsOfTheRequest() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/1");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request, response, (req, res) -> {
+			req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/tasks/{id}");
+			inspector.inspect("select 1");
+			inspector.inspect("select 2");
+		});
+
+		assertEquals("2", response.getHeader(SqlStatementCountFilter.HEADER));
+		DistributionSummary summary = meterRegistry.get(SqlStatementCountFilter.METRIC).tag("uri", "/api/tasks/{id}")
+				.tag("method", "GET").summary();
+		assertEquals(1, summary.count());
+		assertEquals(2, summary.totalAmount());
+		assertEquals(0, SqlStatementCounter.current());
+	}
+
+	@Test
+	public void testHeaderIsWrittenBeforeTheResponseIsCommitted() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request, response, (req, res) -> {
+			inspector.inspect("select 1");
+			res.getWriter().write("[]");
+			res.flushBuffer();
+			// Comandos após o commit não alteram o cabeçalho já enviado
+			inspector.inspect("select 2");
+		});
+
+		assertEquals("1", response.getHeader(SqlStatementCountFilter.HEADER));
+		assertEquals(2, meterRegistry.get(SqlStatementCountFilter.METRIC).summary().totalAmount());
+	}
+
+	@Test
+	public void testStatementsOutsideRequestsAreNotCounted() {
+		inspector.inspect("select 1");
+
+		assertEquals(0, SqlStatementCounter.current());
+	}
+
+}
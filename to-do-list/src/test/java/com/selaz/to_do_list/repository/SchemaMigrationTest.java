@@ -0,0 +1,33 @@
+package com.selaz.to_do_list.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The schema built by the Flyway migrations must be the one the entities
+ * expect: Hibernate validates it instead of generating it.
+ */
+@DataJpaTest(properties = { "spring.flyway.enabled=true", "spring.jpa.hibernate.ddl-auto=validate",
+		"spring.datasource.url=jdbc:h2:mem:migrations;DB_CLOSE_DELAY=-1" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class SchemaMigrationTest {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void testMigrations_MatchTheEntities() {
+		assertEquals(2, jdbcTemplate.queryForObject(
+				"select count(*) from \"flyway_schema_history\" where \"version\" in ('1', '2') and \"success\" = true",
+				Integer.class));
+		assertEquals(5, jdbcTemplate.queryForObject(
+				"select count(*) from information_schema.indexes where table_name = 'TB_TASK' and index_name like 'IDX_TASK_%'",
+				Integer.class));
+	}
+
+}
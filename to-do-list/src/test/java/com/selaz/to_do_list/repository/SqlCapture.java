@@ -0,0 +1,30 @@
+package com.selaz.to_do_list.repository;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records every statement Hibernate prepares. Enable with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlCapture implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final String PROPERTY = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.selaz.to_do_list.repository.SqlCapture";
+
+	public static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+	@Override
+	public String inspect(String sql) {
+		STATEMENTS.add(sql);
+		return sql;
+	}
+
+	public static long count(String prefix) {
+		return STATEMENTS.stream().filter(sql -> sql.startsWith(prefix)).count();
+	}
+
+}
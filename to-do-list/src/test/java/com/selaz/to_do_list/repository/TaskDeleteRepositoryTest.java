@@ -0,0 +1,125 @@
+package com.selaz.to_do_list.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+
+import com.selaz.to_do_list.dto.TaskFilter;
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.model.Task;
+import com.selaz.to_do_list.model.User;
+
+@DataJpaTest(properties = SqlCapture.PROPERTY)
+public class TaskDeleteRepositoryTest {
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private User user;
+
+	private User other;
+
+	private Task first;
+
+	private long count;
+
+	@BeforeEach
+	void setUp() {
+		user = userRepository.save(new User(null, "owner", "nivel1"));
+		other = userRepository.save(new User(null, "other", "nivel1"));
+		first = taskRepository.save(new Task(null, user, "First", null, new Date(0L), null, Status.PENDENTE));
+		for (int i = 0; i < 6; i++) {
+			taskRepository.save(new Task(null, user, "Task " + i, null, new Date(1_000L * i), null,
+					Status.values()[i % 3]));
+			taskRepository.save(new Task(null, other, "Other " + i, null, new Date(1_000L * i), null,
+					Status.CONCLUIDA));
+		}
+		taskRepository.flush();
+		count = taskRepository.count();
+		SqlCapture.STATEMENTS.clear();
+	}
+
+	@Test
+	void testDeleteItemById_ReturnsTheDeletedRow() {
+		Task task = first;
+		List<TaskItemDto> deleted = taskRepository.deleteItemById(task.getId());
+
+		assertEquals(1, SqlCapture.STATEMENTS.size());
+		assertEquals(1, deleted.size());
+		assertEquals(task.getId(), deleted.get(0).getId());
+		assertEquals(task.getTitle(), deleted.get(0).getTitle());
+		assertEquals(task.getStatus(), deleted.get(0).getStatus());
+		assertEquals(user.getId(), deleted.get(0).getUserId());
+		assertTrue(taskRepository.deleteItemById(task.getId()).isEmpty());
+	}
+
+	@Test
+	void testDeleteMatching_StatusOfOneUser() {
+		TaskFilter filter = new TaskFilter();
+		filter.setUserId(user.getId());
+		filter.setStatus(EnumSet.of(Status.CONCLUIDA));
+
+		List<TaskItemDto> deleted = taskRepository.deleteMatching(filter);
+
+		assertEquals(1, SqlCapture.STATEMENTS.size());
+		assertEquals(2, deleted.size());
+		assertTrue(deleted.stream().allMatch(task -> task.getStatus() == Status.CONCLUIDA));
+		assertEquals(count - 2, taskRepository.count());
+	}
+
+	@Test
+	void testDeleteMatching_CreatedBefore() {
+		TaskFilter filter = new TaskFilter();
+		filter.setUserId(user.getId());
+		filter.setCreatedTo(new Date(2_000L));
+
+		// "First" e as tarefas 0 e 1
+		assertEquals(3, taskRepository.deleteMatching(filter).size());
+		assertEquals(count - 3, taskRepository.count());
+	}
+
+	@Test
+	void testDeleteMatching_EmptyFilterRejected() {
+		assertThrows(InvalidDataAccessApiUsageException.class, () -> taskRepository.deleteMatching(new TaskFilter()));
+		assertTrue(SqlCapture.STATEMENTS.isEmpty());
+		assertEquals(count, taskRepository.count());
+	}
+
+	@Test
+	void testDeleteBatchByUserId_MarkedUserPurgedInBatches() {
+		assertEquals(1, userRepository.markDeleted(other.getId()));
+		assertEquals(0, userRepository.markDeleted(other.getId()));
+		entityManager.clear();
+		assertFalse(userRepository.findById(other.getId()).isPresent());
+		assertEquals(List.of(other.getId()), userRepository.findDeletedIds());
+
+		SqlCapture.STATEMENTS.clear();
+		assertEquals(4, taskRepository.deleteBatchByUserId(other.getId(), 4));
+		assertEquals(2, taskRepository.deleteBatchByUserId(other.getId(), 4));
+		assertEquals(2, SqlCapture.STATEMENTS.size());
+		assertEquals(0, userRepository.deleteMarkedById(user.getId()));
+		assertEquals(1, userRepository.deleteMarkedById(other.getId()));
+		assertEquals(List.of(), userRepository.findDeletedIds());
+		assertEquals(count - 6, taskRepository.count());
+	}
+
+}
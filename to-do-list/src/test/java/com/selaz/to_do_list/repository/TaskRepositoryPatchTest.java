@@ -0,0 +1,110 @@
+package com.selaz.to_do_list.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.selaz.to_do_list.dto.TaskPatchDto;
+import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.model.Task;
+import com.selaz.to_do_list.model.User;
+
+@DataJpaTest(properties = SqlCapture.PROPERTY)
+public class TaskRepositoryPatchTest {
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private User user;
+
+	private Task task;
+
+	@BeforeEach
+	void setUp() {
+		user = userRepository.save(new User(null, "owner", "nivel1"));
+		task = taskRepository.saveAndFlush(
+				new Task(null, user, "Title", "Description", new Date(1_000L), new Date(2_000L), Status.PENDENTE));
+		SqlCapture.STATEMENTS.clear();
+	}
+
+	@Test
+	void testPatch_OnlyGivenFieldsInOneStatement() {
+		List<Object[]> rows = taskRepository.patch(task.getId(), patch(task.getVersion(), Status.CONCLUIDA));
+
+		assertEquals(1, SqlCapture.STATEMENTS.size());
+		assertEquals(1, rows.size());
+		Object[] before = rows.get(0);
+		assertEquals(task.getId(), before[0]);
+		assertEquals(user.getId(), before[1]);
+		assertEquals("Title", before[2]);
+		assertEquals("Description", before[3]);
+		assertEquals(Status.PENDENTE.ordinal(), ((Number) before[4]).intValue());
+		assertEquals(2_000L, ((Date) before[5]).getTime());
+		assertEquals(1_000L, ((Date) before[6]).getTime());
+
+		assertEquals(Status.CONCLUIDA.ordinal(),
+				jdbcTemplate.queryForObject("select status from tb_task where id = ?", Integer.class, task.getId()));
+		assertEquals("Title",
+				jdbcTemplate.queryForObject("select title from tb_task where id = ?", String.class, task.getId()));
+		assertEquals(task.getVersion() + 1,
+				jdbcTemplate.queryForObject("select version from tb_task where id = ?", Long.class, task.getId()));
+	}
+
+	@Test
+	void testPatch_StaleVersionChangesNothing() {
+		TaskPatchDto stale = patch(task.getVersion() + 1, null);
+		stale.setTitle("New");
+		stale.setDueDate(new Date(3_000L));
+		assertTrue(taskRepository.patch(task.getId(), stale).isEmpty());
+		TaskPatchDto missing = patch(0L, null);
+		missing.setTitle("New");
+		assertTrue(taskRepository.patch(task.getId() + 1000, missing).isEmpty());
+
+		assertEquals("Title",
+				jdbcTemplate.queryForObject("select title from tb_task where id = ?", String.class, task.getId()));
+		assertEquals(task.getVersion(),
+				jdbcTemplate.queryForObject("select version from tb_task where id = ?", Long.class, task.getId()));
+	}
+
+	@Test
+	void testPatch_ExplicitNullClearsTheField() {
+		TaskPatchDto patch = patch(task.getVersion(), null);
+		patch.setDueDate(null);
+		patch.setDescription(null);
+
+		assertEquals(1, taskRepository.patch(task.getId(), patch).size());
+
+		Map<String, Object> row = jdbcTemplate.queryForMap(
+				"select title, description, due_date, status from tb_task where id = ?", task.getId());
+		assertEquals("Title", row.get("TITLE"));
+		assertNull(row.get("DESCRIPTION"));
+		assertNull(row.get("DUE_DATE"));
+		assertEquals(Status.PENDENTE.ordinal(), ((Number) row.get("STATUS")).intValue());
+	}
+
+	private static TaskPatchDto patch(Long version, Status status) {
+		TaskPatchDto patch = new TaskPatchDto();
+		patch.setVersion(version);
+		if (status != null) {
+			patch.setStatus(status);
+		}
+		return patch;
+	}
+
+}
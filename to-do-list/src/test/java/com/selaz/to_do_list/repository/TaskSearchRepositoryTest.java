@@ -0,0 +1,155 @@
+package com.selaz.to_do_list.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.selaz.to_do_list.dto.TaskCursor;
+import com.selaz.to_do_list.dto.TaskFilter;
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.dto.TaskSort;
+import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.model.Task;
+import com.selaz.to_do_list.model.User;
+
+@DataJpaTest(properties = SqlCapture.PROPERTY)
+public class TaskSearchRepositoryTest {
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = userRepository.save(new User(null, "owner", "nivel1"));
+		User other = userRepository.save(new User(null, "other", "nivel1"));
+		for (int i = 0; i < 10; i++) {
+			Date dueDate = i % 3 == 0 ? null : new Date(1_000_000L * (10 - i));
+			taskRepository.save(new Task(null, user, "Task " + i, null, new Date(i), dueDate, Status.values()[i % 3]));
+			taskRepository.save(new Task(null, other, "Other " + i, null, new Date(i), dueDate, Status.PENDENTE));
+		}
+		taskRepository.flush();
+		jdbcTemplate.execute("ANALYZE");
+		SqlCapture.STATEMENTS.clear();
+	}
+
+	@Test
+	void testPlan_OwnerOnly() {
+		assertPlanUses(filter(), null, "IDX_TASK_USER");
+	}
+
+	@Test
+	void testPlan_OwnerAndStatus() {
+		TaskFilter filter = filter();
+		filter.setStatus(EnumSet.of(Status.PENDENTE));
+		assertPlanUses(filter, null, "IDX_TASK_USER_STATUS");
+	}
+
+	@Test
+	void testPlan_OwnerAndStatusSet() {
+		TaskFilter filter = filter();
+		filter.setStatus(EnumSet.of(Status.PENDENTE, Status.EM_ANDAMENTO));
+		assertPlanUses(filter, null, "IDX_TASK_USER_STATUS");
+	}
+
+	@Test
+	void testPlan_OwnerStatusAndDueRange() {
+		TaskFilter filter = filter();
+		filter.setStatus(EnumSet.of(Status.PENDENTE));
+		filter.setDueFrom(new Date(0));
+		filter.setDueTo(new Date(5_000_000L));
+		filter.setSort(TaskSort.DUE_DATE);
+		assertPlanUses(filter, null, "IDX_TASK_USER_STATUS_DUE");
+	}
+
+	@Test
+	void testPlan_OwnerAndDueRange() {
+		TaskFilter filter = filter();
+		filter.setDueFrom(new Date(0));
+		filter.setSort(TaskSort.DUE_DATE);
+		assertPlanUses(filter, null, "IDX_TASK_USER_DUE");
+	}
+
+	@Test
+	void testPlan_OwnerSortedByDueDateAfterCursor() {
+		TaskFilter filter = filter();
+		filter.setSort(TaskSort.DUE_DATE);
+		assertPlanUses(filter, new TaskCursor(new Date(2_000_000L), 1L), "IDX_TASK_USER_DUE");
+	}
+
+	@Test
+	void testPlan_OwnerAndCreatedRange() {
+		TaskFilter filter = filter();
+		filter.setCreatedFrom(new Date(0));
+		filter.setCreatedTo(new Date(5));
+		filter.setSort(TaskSort.CREATED_AT);
+		assertPlanUses(filter, null, "IDX_TASK_USER_CREATED");
+	}
+
+	@Test
+	void testSearch_PagesThroughNullDueDatesLast() {
+		TaskFilter filter = filter();
+		filter.setSort(TaskSort.DUE_DATE);
+
+		List<TaskItemDto> seen = new ArrayList<>();
+		TaskCursor cursor = null;
+		List<TaskItemDto> page;
+		do {
+			page = taskRepository.search(filter, cursor, 3);
+			seen.addAll(page);
+			cursor = page.isEmpty() ? null : TaskCursor.of(page.get(page.size() - 1), TaskSort.DUE_DATE);
+		} while (page.size() == 3);
+
+		assertEquals(10, seen.size());
+		for (int i = 1; i < 6; i++) {
+			assertTrue(seen.get(i - 1).getDueDate().before(seen.get(i).getDueDate()));
+		}
+		for (int i = 6; i < 10; i++) {
+			assertEquals(null, seen.get(i).getDueDate());
+			assertEquals(user.getId(), seen.get(i).getUserId());
+		}
+	}
+
+	@Test
+	void testSearch_SelectsOnlyProjectedColumns() {
+		taskRepository.search(filter(), null, 10);
+
+		assertEquals(1, SqlCapture.STATEMENTS.size());
+		String sql = SqlCapture.STATEMENTS.get(0);
+		assertFalse(sql.contains("tb_user"), sql);
+		assertFalse(sql.contains("description"), sql);
+	}
+
+	private TaskFilter filter() {
+		TaskFilter filter = new TaskFilter();
+		filter.setUserId(user.getId());
+		return filter;
+	}
+
+	private void assertPlanUses(TaskFilter filter, TaskCursor cursor, String index) {
+		taskRepository.search(filter, cursor, 10);
+
+		String sql = SqlCapture.STATEMENTS.stream().filter(s -> s.contains("tb_task")).findFirst().orElseThrow();
+		String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+		assertTrue(plan.contains("PUBLIC." + index + ":"), () -> "Expected " + index + " in plan:\n" + plan);
+	}
+
+}
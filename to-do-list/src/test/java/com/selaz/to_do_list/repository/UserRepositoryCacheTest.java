@@ -0,0 +1,83 @@
+package com.selaz.to_do_list.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selaz.to_do_list.config.CacheConfiguration;
+import com.selaz.to_do_list.model.User;
+import com.selaz.to_do_list.service.UserCacheEvictor;
+
+@DataJpaTest(properties = SqlCapture.PROPERTY)
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ CacheConfiguration.class, UserCacheEvictor.class })
+public class UserRepositoryCacheTest {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserCacheEvictor userCacheEvictor;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = userRepository.save(new User(null, "cached", "nivel1"));
+		userCacheEvictor.evict(user.getId(), user.getUsername());
+		SqlCapture.STATEMENTS.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		userRepository.delete(user);
+		userCacheEvictor.evict(user.getId(), user.getUsername());
+	}
+
+	@Test
+	void testFindByIdHitsDatabaseOnce() {
+		userRepository.findById(user.getId());
+		userRepository.findById(user.getId());
+
+		assertEquals(1, SqlCapture.count("select"));
+	}
+
+	@Test
+	void testFindByUsernameHitsDatabaseOnce() {
+		userRepository.findByUsername("cached");
+		userRepository.findByUsername("cached");
+
+		assertEquals(1, SqlCapture.count("select"));
+	}
+
+	@Test
+	void testMissesAreNotCached() {
+		assertNull(userRepository.findByUsername("nobody"));
+		assertNull(userRepository.findByUsername("nobody"));
+
+		assertEquals(2, SqlCapture.count("select"));
+	}
+
+	@Test
+	void testEvictForcesReload() {
+		userRepository.findById(user.getId());
+		userRepository.findByUsername("cached");
+		userCacheEvictor.evict(user.getId(), "cached");
+		userRepository.findById(user.getId());
+		userRepository.findByUsername("cached");
+
+		assertEquals(4, SqlCapture.count("select"));
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.selaz.to_do_list.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public class CachingDaoAuthenticationProviderTest {
+
+	private PasswordEncoder passwordEncoder;
+
+	private UserDetailsService userDetailsService;
+
+	private Clock clock;
+
+	private VerifiedCredentialsCache cache;
+
+	private CachingDaoAuthenticationProvider provider;
+
+	@BeforeEach
+	void setUp() {
+		passwordEncoder = spy(new BCryptPasswordEncoder(4));
+		userDetailsService = mock(UserDetailsService.class);
+		clock = mock(Clock.class);
+		cache = new VerifiedCredentialsCache(2, Duration.ofMinutes(5), clock);
+		provider = new CachingDaoAuthenticationProvider(passwordEncoder, cache);
+		provider.setUserDetailsService(userDetailsService);
+
+		UserDetails root = user("root", "123");
+		when(userDetailsService.loadUserByUsername("root")).thenReturn(root);
+	}
+
+	@Test
+	void testRepeatedLoginSkipsEncoder() {
+		provider.authenticate(login("root", "123"));
+		provider.authenticate(login("root", "123"));
+
+		verify(passwordEncoder, times(1)).matches(anyString(), anyString());
+	}
+
+	@Test
+	void testWrongPasswordIsNeitherAcceptedNorCached() {
+		provider.authenticate(login("root", "123"));
+
+		assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("root", "456")));
+		assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("root", "456")));
+		verify(passwordEncoder, times(3)).matches(anyString(), anyString());
+	}
+
+	@Test
+	void testPasswordChangeEvictsEntry() {
+		provider.authenticate(login("root", "123"));
+		UserDetails changed = user("root", "456");
+		when(userDetailsService.loadUserByUsername("root")).thenReturn(changed);
+
+		assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("root", "123")));
+		provider.authenticate(login("root", "456"));
+		verify(passwordEncoder, times(3)).matches(anyString(), anyString());
+	}
+
+	@Test
+	void testEntryExpiresAfterTtl() {
+		when(clock.millis()).thenReturn(0L);
+		provider.authenticate(login("root", "123"));
+
+		when(clock.millis()).thenReturn(Duration.ofMinutes(5).toMillis());
+		provider.authenticate(login("root", "123"));
+		verify(passwordEncoder, times(2)).matches(anyString(), anyString());
+	}
+
+	@Test
+	void testCacheIsBounded() {
+		UserDetails a = user("a", "1");
+		UserDetails b = user("b", "2");
+		when(userDetailsService.loadUserByUsername("a")).thenReturn(a);
+		when(userDetailsService.loadUserByUsername("b")).thenReturn(b);
+
+		provider.authenticate(login("root", "123"));
+		provider.authenticate(login("a", "1"));
+		provider.authenticate(login("b", "2"));
+
+		assertEquals(2, cache.size());
+		provider.authenticate(login("root", "123"));
+		verify(passwordEncoder, times(4)).matches(any(), anyString());
+	}
+
+	private UserDetails user(String username, String password) {
+		return User.withUsername(username).password(passwordEncoder.encode(password)).roles("USER").build();
+	}
+
+	private static UsernamePasswordAuthenticationToken login(String username, String password) {
+		return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+	}
+
+}
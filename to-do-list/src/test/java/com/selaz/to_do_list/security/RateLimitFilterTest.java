@@ -0,0 +1,125 @@
+package com.selaz.to_do_list.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RateLimitFilterTest {
+
+	@Spy
+	private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@InjectMocks
+	private RateLimitFilter filter;
+
+	@BeforeEach
+	public void setUp() {
+		MockitoAnnotations.openMocks(this);
+		filter.enabled = true;
+		filter.readCapacity = 200;
+		filter.readPerSecond = 100;
+		filter.writeCapacity = 50;
+		filter.writePerSecond = 20;
+		filter.bulkCapacity = 2;
+		filter.bulkPerSecond = 0.5;
+		filter.maxUsers = 1_000;
+		filter.idle = Duration.ofMinutes(10);
+		filter.maxConcurrent = 1;
+		filter.clock = mock(Clock.class);
+		when(filter.clock.millis()).thenReturn(0L);
+		filter.start();
+
+		SecurityContextHolder.getContext()
+				.setAuthentication(UsernamePasswordAuthenticationToken.authenticated("root", null, null));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	public void testRejectsWithRetryAfterWhenBucketIsEmpty() throws Exception {
+		assertEquals(200, export().getStatus());
+		assertEquals(200, export().getStatus());
+
+		MockHttpServletResponse rejected = export();
+		assertEquals(429, rejected.getStatus());
+		assertEquals("2", rejected.getHeader("Retry-After"));
+		assertEquals(1.0, meterRegistry.get(RateLimitFilter.METRIC).tag("reason", "rate").counter().count());
+
+		when(filter.clock.millis()).thenReturn(2_000L);
+		assertEquals(200, export().getStatus());
+	}
+
+	@Test
+	public void testShedsRequestsBeyondMaxConcurrent() throws Exception {
+		AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+		MockHttpServletResponse outer = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks"), outer, (req, res) -> {
+			MockHttpServletResponse inner = new MockHttpServletResponse();
+			filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks/1"), inner, (r, s) -> {
+			});
+			nested.set(inner);
+		});
+
+		assertEquals(200, outer.getStatus());
+		assertEquals(429, nested.get().getStatus());
+		assertEquals("1", nested.get().getHeader("Retry-After"));
+		assertEquals(1.0, meterRegistry.get(RateLimitFilter.METRIC).tag("reason", "concurrency").counter().count());
+
+		// A permissão é devolvida ao fim da requisição
+		MockHttpServletResponse after = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks"), after, (req, res) -> {
+		});
+		assertEquals(200, after.getStatus());
+	}
+
+	@Test
+	public void testOtherPathsAreNotLimited() throws Exception {
+		filter.maxConcurrent = 0;
+		filter.start();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, (req, res) -> {
+		});
+		assertEquals(200, response.getStatus());
+		assertNull(response.getHeader("Retry-After"));
+	}
+
+	@Test
+	public void testKind() {
+		assertEquals(RateLimiter.Kind.READ, RateLimitFilter.kind(new MockHttpServletRequest("GET", "/api/tasks/1")));
+		assertEquals(RateLimiter.Kind.READ, RateLimitFilter.kind(new MockHttpServletRequest("HEAD", "/api/tasks")));
+		assertEquals(RateLimiter.Kind.WRITE, RateLimitFilter.kind(new MockHttpServletRequest("PATCH", "/api/tasks/1")));
+		assertEquals(RateLimiter.Kind.WRITE, RateLimitFilter.kind(new MockHttpServletRequest("DELETE", "/api/tasks/1")));
+		assertEquals(RateLimiter.Kind.BULK, RateLimitFilter.kind(new MockHttpServletRequest("POST", "/api/tasks/batch")));
+		assertEquals(RateLimiter.Kind.BULK, RateLimitFilter.kind(new MockHttpServletRequest("GET", "/api/tasks/export")));
+		assertEquals(RateLimiter.Kind.BULK, RateLimitFilter.kind(new MockHttpServletRequest("DELETE", "/api/tasks")));
+	}
+
+	private MockHttpServletResponse export() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks/export"), response, (req, res) -> {
+		});
+		return response;
+	}
+
+}
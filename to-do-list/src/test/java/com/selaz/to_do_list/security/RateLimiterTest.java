@@ -0,0 +1,99 @@
+package com.selaz.to_do_list.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RateLimiterTest {
+
+	private Clock clock;
+
+	private RateLimiter limiter;
+
+	@BeforeEach
+	void setUp() {
+		clock = mock(Clock.class);
+		when(clock.millis()).thenReturn(0L);
+		limiter = limiter(1_000);
+	}
+
+	@Test
+	void testBurstUpToCapacityThenWait() {
+		for (int i = 0; i < 5; i++) {
+			assertEquals(0L, limiter.tryAcquire("root", RateLimiter.Kind.BULK));
+		}
+		// 0.5 ficha por segundo: a próxima em 2 s
+		assertEquals(2_000L, limiter.tryAcquire("root", RateLimiter.Kind.BULK));
+
+		when(clock.millis()).thenReturn(1_500L);
+		assertEquals(500L, limiter.tryAcquire("root", RateLimiter.Kind.BULK));
+
+		when(clock.millis()).thenReturn(2_000L);
+		assertEquals(0L, limiter.tryAcquire("root", RateLimiter.Kind.BULK));
+		assertTrue(limiter.tryAcquire("root", RateLimiter.Kind.BULK) > 0);
+	}
+
+	@Test
+	void testKindsAndUsersAreIndependent() {
+		for (int i = 0; i < 5; i++) {
+			limiter.tryAcquire("root", RateLimiter.Kind.BULK);
+		}
+		assertTrue(limiter.tryAcquire("root", RateLimiter.Kind.BULK) > 0);
+		assertEquals(0L, limiter.tryAcquire("root", RateLimiter.Kind.READ));
+		assertEquals(0L, limiter.tryAcquire("root", RateLimiter.Kind.WRITE));
+		assertEquals(0L, limiter.tryAcquire("admin", RateLimiter.Kind.BULK));
+	}
+
+	@Test
+	void testRefillIsCappedAtCapacity() {
+		limiter.tryAcquire("root", RateLimiter.Kind.BULK);
+		when(clock.millis()).thenReturn(3_600_000L);
+		for (int i = 0; i < 5; i++) {
+			assertEquals(0L, limiter.tryAcquire("root", RateLimiter.Kind.BULK));
+		}
+		assertTrue(limiter.tryAcquire("root", RateLimiter.Kind.BULK) > 0);
+	}
+
+	@Test
+	void testUsersAreBounded() {
+		limiter = limiter(160);
+		for (int i = 0; i < 10_000; i++) {
+			limiter.tryAcquire("user" + i, RateLimiter.Kind.READ);
+		}
+		assertTrue(limiter.size() <= 160, "size " + limiter.size());
+	}
+
+	@Test
+	void testIdleUsersAreDroppedOnlyAfterTheirBucketsRefill() {
+		for (int i = 0; i < 100; i++) {
+			limiter.tryAcquire("user" + i, RateLimiter.Kind.READ);
+		}
+		assertEquals(100, limiter.size());
+
+		// O balde de lote leva 10 s para encher, mais que o idle configurado (1 s)
+		when(clock.millis()).thenReturn(9_999L);
+		limiter.tryAcquire("new", RateLimiter.Kind.READ);
+		assertEquals(101, limiter.size());
+
+		when(clock.millis()).thenReturn(20_000L);
+		for (int i = 0; i < 100; i++) {
+			limiter.tryAcquire("later" + i, RateLimiter.Kind.READ);
+		}
+		assertTrue(limiter.size() < 200, "size " + limiter.size());
+	}
+
+	private RateLimiter limiter(int maxUsers) {
+		return new RateLimiter(Map.of(RateLimiter.Kind.READ, new RateLimiter.Limit(200, 100),
+				RateLimiter.Kind.WRITE, new RateLimiter.Limit(50, 20),
+				RateLimiter.Kind.BULK, new RateLimiter.Limit(5, 0.5)), maxUsers, Duration.ofSeconds(1), clock);
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.selaz.to_do_list.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+public class TokenAuthenticationFilterTest {
+
+	private TokenService tokenService;
+
+	private TokenAuthenticationFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		tokenService = mock(TokenService.class);
+		filter = new TokenAuthenticationFilter(tokenService);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void testValidToken_Authenticates() throws Exception {
+		UserDetails root = User.withUsername("root").password("{noop}123").roles("USER").build();
+		when(tokenService.verify("abc")).thenReturn(root);
+
+		Authentication authentication = filter("Bearer abc");
+
+		assertInstanceOf(TokenAuthentication.class, authentication);
+		assertEquals(root, authentication.getPrincipal());
+	}
+
+	@Test
+	void testLockedOrDisabledUser_NotAuthenticated() throws Exception {
+		when(tokenService.verify("locked"))
+				.thenReturn(User.withUsername("root").password("{noop}123").roles("USER").accountLocked(true).build());
+		when(tokenService.verify("disabled"))
+				.thenReturn(User.withUsername("root").password("{noop}123").roles("USER").disabled(true).build());
+
+		assertNull(filter("Bearer locked"));
+		assertNull(filter("Bearer disabled"));
+	}
+
+	private Authentication filter(String authorization) throws Exception {
+		SecurityContextHolder.clearContext();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+		request.addHeader("Authorization", authorization);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.selaz.to_do_list.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+public class TokenServiceTest {
+
+	private UserDetailsService userDetailsService;
+
+	private Clock clock;
+
+	private TokenService tokenService;
+
+	private UserDetails root;
+
+	@BeforeEach
+	void setUp() {
+		userDetailsService = mock(UserDetailsService.class);
+		clock = mock(Clock.class);
+		tokenService = new TokenService(new byte[32], Duration.ofMinutes(15), clock, userDetailsService);
+		root = User.withUsername("root").password("{noop}123").roles("USER").build();
+
+		when(clock.instant()).thenReturn(Instant.ofEpochSecond(1_000));
+		when(userDetailsService.loadUserByUsername("root")).thenReturn(root);
+	}
+
+	@Test
+	void testIssuedTokenVerifies() {
+		String token = tokenService.issue(root).getToken();
+
+		assertEquals(root, tokenService.verify(token));
+	}
+
+	@Test
+	void testExpiredTokenIsRejected() {
+		String token = tokenService.issue(root).getToken();
+		when(clock.instant()).thenReturn(Instant.ofEpochSecond(1_000).plus(Duration.ofMinutes(15)));
+
+		assertNull(tokenService.verify(token));
+	}
+
+	@Test
+	void testTamperedTokenIsRejected() {
+		String[] parts = tokenService.issue(root).getToken().split("\\.");
+
+		assertNull(tokenService.verify(parts[0] + "." + (Long.parseLong(parts[1]) + 60) + "." + parts[2]));
+		assertNull(tokenService.verify("not-a-token"));
+	}
+
+	@Test
+	void testPasswordChangeRevokesToken() {
+		String token = tokenService.issue(root).getToken();
+		when(userDetailsService.loadUserByUsername("root"))
+				.thenReturn(User.withUsername("root").password("{noop}456").roles("USER").build());
+
+		assertNull(tokenService.verify(token));
+	}
+
+	@Test
+	void testUnknownUserIsRejected() {
+		String token = tokenService.issue(root).getToken();
+		when(userDetailsService.loadUserByUsername("root")).thenThrow(new UsernameNotFoundException("root"));
+
+		assertNull(tokenService.verify(token));
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.selaz.to_do_list.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.ZipFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.selaz.to_do_list.dto.BackupDto;
+
+public class DatabaseBackupServiceTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void testBackup_FileDatabaseWhileOpen() throws Exception {
+		SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+				"jdbc:h2:file:" + dir.resolve("db") + ";DB_CLOSE_ON_EXIT=FALSE", "sa", "", true);
+		try {
+			JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+			jdbcTemplate.execute("create table t (id bigint primary key)");
+			jdbcTemplate.execute("insert into t values (1)");
+			DatabaseBackupService service = service(jdbcTemplate);
+
+			assertTrue(service.isSupported());
+			BackupDto backup = service.backup();
+
+			assertTrue(Files.size(Paths.get(backup.getFile())) > 0);
+			try (ZipFile zip = new ZipFile(backup.getFile())) {
+				assertTrue(zip.stream().anyMatch(entry -> entry.getName().endsWith(".mv.db")));
+			}
+			// O banco continua aberto para escrita depois do backup
+			jdbcTemplate.execute("insert into t values (2)");
+		} finally {
+			dataSource.destroy();
+		}
+	}
+
+	@Test
+	void testIsSupported_NotForInMemory() {
+		SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:h2:mem:backup", "sa", "", true);
+		try {
+			assertFalse(service(new JdbcTemplate(dataSource)).isSupported());
+		} finally {
+			dataSource.destroy();
+		}
+	}
+
+	private DatabaseBackupService service(JdbcTemplate jdbcTemplate) {
+		DatabaseBackupService service = new DatabaseBackupService();
+		ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+		service.directory = dir.resolve("backups").toString();
+		return service;
+	}
+
+}
@@ -0,0 +1,121 @@
+package com.selaz.to_do_list.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import com.selaz.to_do_list.dto.BatchResultDto;
+import com.selaz.to_do_list.dto.TaskBatchUpdateDto;
+import com.selaz.to_do_list.dto.TaskDto;
+import com.selaz.to_do_list.event.TaskChangedEvent;
+import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.model.User;
+import com.selaz.to_do_list.repository.SqlCapture;
+import com.selaz.to_do_list.repository.TaskRepository;
+import com.selaz.to_do_list.repository.UserRepository;
+
+@DataJpaTest(properties = SqlCapture.PROPERTY)
+@Import(TaskBatchService.class)
+@RecordApplicationEvents
+public class TaskBatchServiceTest {
+
+	@Autowired
+	private TaskBatchService taskBatchService;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ApplicationEvents events;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = userRepository.save(new User(null, "owner", "nivel1"));
+		SqlCapture.STATEMENTS.clear();
+	}
+
+	@Test
+	void testCreateTasks_BatchesInsertsAndLooksUpOwnersOnce() {
+		List<TaskDto> taskDtos = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			taskDtos.add(taskDto(user.getId(), "Task " + i));
+		}
+		taskDtos.add(taskDto(-1L, "Orphan"));
+
+		List<BatchResultDto> results = taskBatchService.createTasks(taskDtos);
+		taskRepository.flush();
+
+		assertEquals(121, results.size());
+		assertEquals(200, results.get(0).getStatus());
+		assertNotNull(results.get(0).getId());
+		assertEquals(404, results.get(120).getStatus());
+		assertEquals(120, taskRepository.count());
+		assertEquals(1, SqlCapture.count("select u1_0.user_id"));
+		// Um PreparedStatement por lote de 50, não um por tarefa
+		assertEquals(3, SqlCapture.count("insert into tb_task"));
+	}
+
+	@Test
+	void testUpdateTasks_ReportsMissingIds() {
+		List<BatchResultDto> created = taskBatchService
+				.createTasks(Arrays.asList(taskDto(user.getId(), "A"), taskDto(user.getId(), "B")));
+
+		TaskBatchUpdateDto update = new TaskBatchUpdateDto();
+		update.setId(created.get(1).getId());
+		update.setTitle("B2");
+		update.setStatus(Status.CONCLUIDA);
+		TaskBatchUpdateDto missing = new TaskBatchUpdateDto();
+		missing.setId(-1L);
+
+		List<BatchResultDto> results = taskBatchService.updateTasks(Arrays.asList(update, missing));
+
+		assertEquals(200, results.get(0).getStatus());
+		assertEquals(404, results.get(1).getStatus());
+		assertEquals(1, results.get(1).getIndex());
+		assertEquals("B2", taskRepository.findById(created.get(1).getId()).get().getTitle());
+	}
+
+	@Test
+	void testDeleteTasks_DeletesExistingInOneStatement() {
+		List<BatchResultDto> created = taskBatchService
+				.createTasks(Arrays.asList(taskDto(user.getId(), "A"), taskDto(user.getId(), "B")));
+		SqlCapture.STATEMENTS.clear();
+
+		List<BatchResultDto> results = taskBatchService
+				.deleteTasks(Arrays.asList(created.get(0).getId(), -1L, created.get(1).getId()));
+
+		assertEquals(204, results.get(0).getStatus());
+		assertEquals(404, results.get(1).getStatus());
+		assertEquals(204, results.get(2).getStatus());
+		assertEquals(0, taskRepository.count());
+		assertEquals(1, SqlCapture.count("delete from tb_task"));
+		assertEquals(Set.of(user.getId()),
+				events.stream(TaskChangedEvent.class).reduce((first, last) -> last).get().getUserIds());
+	}
+
+	private static TaskDto taskDto(Long userId, String title) {
+		TaskDto taskDto = new TaskDto();
+		taskDto.setUser_id(userId);
+		taskDto.setTitle(title);
+		taskDto.setStatus(Status.PENDENTE);
+		return taskDto;
+	}
+
+}
@@ -0,0 +1,215 @@
+package com.selaz.to_do_list.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.event.TaskChange;
+import com.selaz.to_do_list.event.TaskChangedEvent;
+import com.selaz.to_do_list.event.UserTasksDeletedEvent;
+import com.selaz.to_do_list.model.Status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TaskChangeStreamTest {
+
+	@InjectMocks
+	private TaskChangeStream stream;
+
+	@Spy
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	// Envios ficam retidos até o teste rodá-los, como um cliente que não lê
+	private final Deque<Runnable> sends = new ArrayDeque<>();
+
+	private boolean held;
+
+	/**
+	 * Keeps the events instead of writing them to a response.
+	 */
+	private static class RecordingEmitter extends SseEmitter {
+
+		final List<String> events = new ArrayList<>();
+
+		boolean completed;
+
+		@Override
+		public synchronized void send(Set<DataWithMediaType> items) {
+			StringBuilder event = new StringBuilder();
+			for (DataWithMediaType item : items) {
+				event.append(item.getData() instanceof TaskItemDto task ? "task " + task.getId() : item.getData());
+			}
+			events.add(event.toString());
+		}
+
+		@Override
+		public synchronized void complete() {
+			completed = true;
+		}
+
+		// Nomes dos eventos depois da mensagem de abertura (retry)
+		List<String> names() {
+			return events.stream().skip(1).map(event -> field(event, "event:")).toList();
+		}
+
+		String lastId() {
+			return field(events.get(events.size() - 1), "id:");
+		}
+
+		private static String field(String event, String name) {
+			for (String line : event.split("\n")) {
+				if (line.startsWith(name)) {
+					return line.substring(name.length());
+				}
+			}
+			return null;
+		}
+
+	}
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		stream.history = 8;
+		stream.subscriberBuffer = 4;
+		stream.maxSubscribers = 3;
+		stream.timeout = Duration.ofMinutes(1);
+		stream.senders = runnable -> {
+			if (held) {
+				sends.add(runnable);
+			} else {
+				runnable.run();
+			}
+		};
+		stream.start();
+	}
+
+	@Test
+	void testLiveEvents_OnlyToTheOwner() {
+		RecordingEmitter owner = subscribe(1L, null);
+		RecordingEmitter other = subscribe(2L, null);
+
+		TaskItemDto created = task(10L, 1L, 0L);
+		TaskItemDto updated = task(10L, 1L, 1L);
+		publish(TaskChange.created(created, null), TaskChange.updated(created, updated, null));
+		publish(TaskChange.deleted(updated));
+
+		assertTrue(owner.events.get(0).startsWith("retry:"));
+		assertEquals(List.of("created", "updated", "deleted"), owner.names());
+		assertTrue(owner.events.get(3).contains("task 10"));
+		assertEquals(1, other.events.size());
+	}
+
+	@Test
+	void testResume_ReplaysOnlyMissedEvents() {
+		RecordingEmitter first = subscribe(1L, null);
+		publish(TaskChange.created(task(10L, 1L, 0L), null));
+		String lastId = first.lastId();
+
+		publish(TaskChange.created(task(11L, 1L, 0L), null));
+		publish(TaskChange.created(task(12L, 2L, 0L), null));
+		publish(TaskChange.created(task(13L, 1L, 0L), null));
+
+		RecordingEmitter resumed = subscribe(1L, lastId);
+		assertEquals(3, resumed.events.size());
+		assertTrue(resumed.events.get(1).contains("task 11"));
+		assertTrue(resumed.events.get(2).contains("task 13"));
+
+		// Id de outra execução ou malformado: o cliente precisa recarregar
+		assertEquals(List.of(TaskChangeStream.RESET), subscribe(1L, "old-3").names());
+	}
+
+	@Test
+	void testResume_EventsGoneFromTheRing() {
+		RecordingEmitter first = subscribe(1L, null);
+		publish(TaskChange.created(task(10L, 1L, 0L), null));
+		String lastId = first.lastId();
+		for (long id = 11; id < 20; id++) {
+			publish(TaskChange.created(task(id, 2L, 0L), null));
+		}
+
+		RecordingEmitter resumed = subscribe(1L, lastId);
+		assertEquals(List.of(TaskChangeStream.RESET), resumed.names());
+
+		// A partir do id do reset, o cliente segue sem lacunas
+		String resetId = resumed.lastId();
+		publish(TaskChange.created(task(20L, 1L, 0L), null));
+		RecordingEmitter again = subscribe(1L, resetId);
+		assertEquals(List.of("created"), again.names());
+	}
+
+	@Test
+	void testUserTasksDeleted_SentAsReset() {
+		RecordingEmitter live = subscribe(1L, null);
+		publish(TaskChange.created(task(10L, 1L, 0L), null));
+		String lastId = live.lastId();
+
+		stream.onUserTasksDeleted(new UserTasksDeletedEvent(1L));
+		assertEquals(List.of("created", TaskChangeStream.RESET), live.names());
+
+		// Quem perdeu a exclusão também recarrega, em vez de receber só os eventos por tarefa
+		assertEquals(List.of(TaskChangeStream.RESET), subscribe(1L, lastId).names());
+		assertEquals(List.of(), subscribe(1L, live.lastId()).names());
+	}
+
+	@Test
+	void testSlowConsumer_IsEvicted() {
+		held = true;
+		RecordingEmitter slow = subscribe(1L, null);
+		for (long id = 10; id < 15; id++) {
+			publish(TaskChange.created(task(id, 1L, 0L), null));
+		}
+		assertEquals(1.0, meterRegistry.get("tasks.stream.evicted").counter().count());
+
+		held = false;
+		while (!sends.isEmpty()) {
+			sends.poll().run();
+		}
+		assertTrue(slow.completed);
+		assertTrue(slow.events.isEmpty());
+		assertEquals(0, stream.subscribers());
+		assertEquals(0.0, meterRegistry.get("tasks.stream.subscribers").gauge().value());
+	}
+
+	@Test
+	void testMaxSubscribers() {
+		for (int i = 0; i < 3; i++) {
+			subscribe(1L, null);
+		}
+		assertFalse(stream.subscribe(1L, null, new RecordingEmitter()));
+		assertEquals(3, stream.subscribers());
+	}
+
+	private RecordingEmitter subscribe(Long userId, String lastEventId) {
+		RecordingEmitter emitter = new RecordingEmitter();
+		assertTrue(stream.subscribe(userId, lastEventId, emitter));
+		return emitter;
+	}
+
+	private void publish(TaskChange... changes) {
+		stream.onTaskChanged(new TaskChangedEvent(List.of(changes)));
+	}
+
+	private static TaskItemDto task(Long id, Long userId, Long version) {
+		return new TaskItemDto(id, "Task", Status.PENDENTE, null, new Date(), userId, version);
+	}
+
+}
@@ -0,0 +1,186 @@
+package com.selaz.to_do_list.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.selaz.to_do_list.dto.TaskDueAlertDto;
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.event.TaskChange;
+import com.selaz.to_do_list.event.TaskChangedEvent;
+import com.selaz.to_do_list.event.TaskDueEvent;
+import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.repository.TaskRepository;
+import com.selaz.to_do_list.shard.TaskShards;
+
+public class TaskDeadlineSchedulerTest {
+
+	private static final long NOW = 1_700_000_000_000L;
+
+	private static final long HOUR = 3_600_000L;
+
+	@InjectMocks
+	private TaskDeadlineScheduler scheduler;
+
+	@Mock
+	private TaskRepository taskRepository;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private Clock clock;
+
+	@Spy
+	private TaskShards taskShards = new TaskShards();
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		scheduler.clock = clock;
+		scheduler.dueSoon = Duration.ofHours(1);
+		when(clock.millis()).thenReturn(NOW);
+		when(taskRepository.findOpenDueAfter(any())).thenReturn(Collections.emptyList());
+		scheduler.rebuild();
+	}
+
+	@Test
+	void testDueSoonThenOverdue_EachOnce() {
+		publish(TaskChange.created(task(10L, Status.PENDENTE, NOW + 2 * HOUR), null));
+
+		at(NOW + HOUR - 1);
+		assertTrue(alerts().isEmpty());
+
+		at(NOW + HOUR);
+		at(NOW + HOUR + 1_000);
+		assertEquals(List.of(TaskDueAlertDto.Type.DUE_SOON), types(alerts()));
+
+		at(NOW + 2 * HOUR);
+		at(NOW + 3 * HOUR);
+		assertEquals(List.of(TaskDueAlertDto.Type.DUE_SOON, TaskDueAlertDto.Type.OVERDUE), types(alerts()));
+		assertEquals(0, scheduler.scheduled());
+		verify(eventPublisher, times(2)).publishEvent(any(TaskDueEvent.class));
+
+		// Editar a tarefa sem mudar o prazo não repete o alerta
+		TaskItemDto late = task(10L, Status.PENDENTE, NOW + 2 * HOUR);
+		publish(TaskChange.updated(late, task(10L, Status.EM_ANDAMENTO, NOW + 2 * HOUR), null));
+		at(NOW + 4 * HOUR);
+		assertEquals(2, alerts().size());
+	}
+
+	@Test
+	void testCompletedOrDeleted_NoAlerts() {
+		TaskItemDto open = task(10L, Status.PENDENTE, NOW + 2 * HOUR);
+		TaskItemDto other = task(11L, Status.PENDENTE, NOW + 2 * HOUR);
+		publish(TaskChange.created(open, null));
+		publish(TaskChange.created(other, null));
+		publish(TaskChange.updated(open, task(10L, Status.CONCLUIDA, NOW + 2 * HOUR), null));
+		publish(TaskChange.deleted(other));
+
+		at(NOW + 3 * HOUR);
+		assertTrue(alerts().isEmpty());
+		assertEquals(0, scheduler.scheduled());
+	}
+
+	@Test
+	void testPostponed_FiresForTheNewDueDate() {
+		TaskItemDto open = task(10L, Status.PENDENTE, NOW + 2 * HOUR);
+		publish(TaskChange.created(open, null));
+		at(NOW + HOUR);
+
+		publish(TaskChange.updated(open, task(10L, Status.PENDENTE, NOW + 5 * HOUR), null));
+		at(NOW + 3 * HOUR);
+		assertEquals(List.of(TaskDueAlertDto.Type.DUE_SOON), types(alerts()));
+
+		at(NOW + 4 * HOUR);
+		at(NOW + 5 * HOUR);
+		List<TaskDueAlertDto> alerts = alerts();
+		assertEquals(List.of(TaskDueAlertDto.Type.DUE_SOON, TaskDueAlertDto.Type.DUE_SOON,
+				TaskDueAlertDto.Type.OVERDUE), types(alerts));
+		assertEquals(NOW + 5 * HOUR, alerts.get(2).getDueDate().getTime());
+	}
+
+	@Test
+	void testCreatedAlreadyLate_OnlyOverdue() {
+		publish(TaskChange.created(task(10L, Status.PENDENTE, NOW - HOUR), null));
+
+		at(NOW);
+		assertEquals(List.of(TaskDueAlertDto.Type.OVERDUE), types(alerts()));
+	}
+
+	@Test
+	void testRebuild_ThresholdsAlreadyPassedAreSilent() {
+		when(taskRepository.findOpenDueAfter(new Date(NOW))).thenReturn(Arrays.asList(
+				new Object[] { 10L, 1L, new Date(NOW + HOUR / 2) }, new Object[] { 11L, 1L, new Date(NOW + 2 * HOUR) }));
+		scheduler.rebuild();
+
+		at(NOW + HOUR);
+		assertEquals(List.of(10L, 11L), taskIds(alerts()));
+		assertEquals(List.of(TaskDueAlertDto.Type.OVERDUE, TaskDueAlertDto.Type.DUE_SOON), types(alerts()));
+
+		// Uma tarefa atrasada que não estava no heap continua silenciosa ao ser editada
+		TaskItemDto late = task(12L, Status.PENDENTE, NOW - HOUR);
+		publish(TaskChange.updated(late, task(12L, Status.EM_ANDAMENTO, NOW - HOUR), null));
+		at(NOW + 2 * HOUR);
+		assertEquals(List.of(10L, 11L, 11L), taskIds(alerts()));
+	}
+
+	@Test
+	void testAlerts_AfterSequenceAndLimit() {
+		for (long id = 1; id <= 5; id++) {
+			publish(TaskChange.created(task(id, Status.PENDENTE, NOW + 2 * HOUR + id), null));
+		}
+		at(NOW + 2 * HOUR);
+		at(NOW + 3 * HOUR);
+
+		List<TaskDueAlertDto> all = scheduler.alerts(1L, 0L, 100);
+		assertEquals(10, all.size());
+		List<TaskDueAlertDto> page = scheduler.alerts(1L, all.get(3).getSequence(), 2);
+		assertEquals(Arrays.asList(all.get(4), all.get(5)), page);
+		assertTrue(scheduler.alerts(2L, 0L, 100).isEmpty());
+	}
+
+	private void at(long millis) {
+		when(clock.millis()).thenReturn(millis);
+		scheduler.tick();
+	}
+
+	private void publish(TaskChange change) {
+		scheduler.onTaskChanged(new TaskChangedEvent(List.of(change)));
+	}
+
+	private List<TaskDueAlertDto> alerts() {
+		return scheduler.alerts(1L, 0L, 100);
+	}
+
+	private static List<TaskDueAlertDto.Type> types(List<TaskDueAlertDto> alerts) {
+		return alerts.stream().map(TaskDueAlertDto::getType).toList();
+	}
+
+	private static List<Long> taskIds(List<TaskDueAlertDto> alerts) {
+		return alerts.stream().map(TaskDueAlertDto::getTaskId).toList();
+	}
+
+	private static TaskItemDto task(Long id, Status status, long dueAt) {
+		return new TaskItemDto(id, "Task", status, new Date(dueAt), new Date(NOW), 1L, 0L);
+	}
+
+}
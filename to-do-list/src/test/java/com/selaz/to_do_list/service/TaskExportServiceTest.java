@@ -0,0 +1,81 @@
+package com.selaz.to_do_list.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.model.Task;
+import com.selaz.to_do_list.model.User;
+import com.selaz.to_do_list.repository.TaskRepository;
+import com.selaz.to_do_list.repository.UserRepository;
+
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(TaskExportService.class)
+public class TaskExportServiceTest {
+
+	@Autowired
+	private TaskExportService taskExportService;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private User owner;
+
+	@BeforeEach
+	void setUp() {
+		owner = userRepository.save(new User(null, "owner", "nivel1"));
+		User other = userRepository.save(new User(null, "other", "nivel1"));
+		for (int i = 0; i < TaskExportService.CLEAR_INTERVAL + 50; i++) {
+			taskRepository.save(new Task(null, i % 2 == 0 ? owner : other, "Task " + i, null, new Date(), null,
+					Status.PENDENTE));
+		}
+		taskRepository.flush();
+	}
+
+	@Test
+	void testExportAll_OneJsonDocumentPerLine() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long count = taskExportService.export(null, out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(TaskExportService.CLEAR_INTERVAL + 50, count);
+		assertEquals(count, lines.length);
+		assertEquals("Task 0", objectMapper.readTree(lines[0]).get("title").asText());
+		JsonNode last = objectMapper.readTree(lines[lines.length - 1]);
+		assertEquals("other", last.get("user").get("username").asText());
+	}
+
+	@Test
+	void testExportByUser_OnlyThatUsersTasks() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long count = taskExportService.export(owner.getId(), out);
+
+		assertEquals((TaskExportService.CLEAR_INTERVAL + 50) / 2, count);
+		for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+			assertEquals(owner.getId().longValue(), objectMapper.readTree(line).get("user").get("id").asLong());
+		}
+	}
+
+}
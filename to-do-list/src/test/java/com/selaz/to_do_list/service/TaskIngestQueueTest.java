@@ -0,0 +1,158 @@
+package com.selaz.to_do_list.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import com.selaz.to_do_list.dto.BatchResultDto;
+import com.selaz.to_do_list.dto.IngestTicketDto;
+import com.selaz.to_do_list.dto.TaskDto;
+import com.selaz.to_do_list.shard.TaskShards;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TaskIngestQueueTest {
+
+	@InjectMocks
+	private TaskIngestQueue queue;
+
+	@Mock
+	private TaskBatchService taskBatchService;
+
+	@Spy
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final List<Integer> batches = new ArrayList<>();
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@Spy
+	private TaskShards taskShards = new TaskShards();
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		queue.enabled = true;
+		queue.capacity = 3;
+		queue.batchSize = 500;
+		queue.linger = Duration.ofMillis(20);
+
+		// O writer fica preso no primeiro lote até o teste liberar
+		when(taskBatchService.createTasks(anyList())).thenAnswer(invocation -> {
+			release.await();
+			List<TaskDto> tasks = invocation.getArgument(0);
+			// Um título inválido derruba a transação inteira, como faria o banco
+			if (tasks.stream().anyMatch(task -> "Invalid".equals(task.getTitle()))) {
+				throw new IllegalStateException("value too long for column TITLE");
+			}
+			List<BatchResultDto> results = new ArrayList<>();
+			for (int i = 0; i < tasks.size(); i++) {
+				results.add(tasks.get(i).getUser_id() == 1L ? new BatchResultDto(i, 100L + batches.size() * 10 + i, 200, null)
+						: new BatchResultDto(i, null, 404, "User not found"));
+			}
+			batches.add(tasks.size());
+			return results;
+		});
+		queue.start();
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		release.countDown();
+		queue.stop();
+	}
+
+	@Test
+	void testFullQueue_RejectsAndStopFlushes() throws InterruptedException {
+		IngestTicketDto first = queue.submit(task(1L));
+		waitUntilTaken();
+
+		List<IngestTicketDto> queued = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			queued.add(queue.submit(task(i == 2 ? 2L : 1L)));
+		}
+		assertNull(queue.submit(task(1L)));
+		assertEquals(1.0, meterRegistry.get("tasks.ingest.rejected").counter().count());
+		assertEquals(3.0, meterRegistry.get("tasks.ingest.queue.depth").gauge().value());
+		assertEquals(IngestTicketDto.State.QUEUED, queue.status(queued.get(0).getTicket()).getState());
+
+		release.countDown();
+		queue.stop();
+
+		assertEquals(List.of(1, 3), batches);
+		assertEquals(0, queue.depth());
+		assertEquals(IngestTicketDto.State.COMMITTED, queue.status(first.getTicket()).getState());
+		IngestTicketDto committed = queue.status(queued.get(1).getTicket());
+		assertEquals(IngestTicketDto.State.COMMITTED, committed.getState());
+		assertEquals(111L, committed.getTaskId());
+		assertEquals(IngestTicketDto.State.FAILED, queue.status(queued.get(2).getTicket()).getState());
+		assertEquals(2L, meterRegistry.get("tasks.ingest.commit").timer().count());
+
+		assertNull(queue.submit(task(1L)));
+	}
+
+	@Test
+	void testFailedBatch_OnlyInvalidTaskFails() throws InterruptedException {
+		queue.submit(task(1L));
+		waitUntilTaken();
+
+		List<IngestTicketDto> queued = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			TaskDto task = task(1L);
+			if (i == 1) {
+				task.setTitle("Invalid");
+			}
+			queued.add(queue.submit(task));
+		}
+
+		release.countDown();
+		queue.stop();
+
+		assertEquals(List.of(1, 1, 1), batches);
+		assertEquals(IngestTicketDto.State.COMMITTED, queue.status(queued.get(0).getTicket()).getState());
+		IngestTicketDto failed = queue.status(queued.get(1).getTicket());
+		assertEquals(IngestTicketDto.State.FAILED, failed.getState());
+		assertEquals("value too long for column TITLE", failed.getError());
+		assertEquals(IngestTicketDto.State.COMMITTED, queue.status(queued.get(2).getTicket()).getState());
+		assertEquals(2L, meterRegistry.get("tasks.ingest.commit").timer().count());
+	}
+
+	@Test
+	void testStatus_UnknownTicket() {
+		assertNotNull(queue.submit(task(1L)));
+		assertNull(queue.status(99L));
+	}
+
+	private void waitUntilTaken() throws InterruptedException {
+		for (int i = 0; i < 200 && queue.depth() > 0; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, queue.depth());
+		// Deixa passar a espera por um lote maior
+		Thread.sleep(queue.linger.toMillis() * 5);
+	}
+
+	private static TaskDto task(Long userId) {
+		TaskDto task = new TaskDto();
+		task.setUser_id(userId);
+		task.setTitle("Task");
+		return task;
+	}
+
+}
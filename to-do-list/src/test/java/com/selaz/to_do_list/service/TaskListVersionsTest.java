@@ -0,0 +1,62 @@
+package com.selaz.to_do_list.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.event.TaskChange;
+import com.selaz.to_do_list.event.TaskChangedEvent;
+import com.selaz.to_do_list.model.Status;
+
+public class TaskListVersionsTest {
+
+	private TaskListVersions versions;
+
+	@BeforeEach
+	void setUp() {
+		versions = new TaskListVersions();
+		versions.clock = mock(Clock.class);
+		when(versions.clock.millis()).thenReturn(1_000L);
+	}
+
+	@Test
+	void testEtagChangesAfterEachChange() {
+		String before = versions.etag(7L);
+		versions.onTaskChanged(changed(7L));
+
+		assertNotEquals(before, versions.etag(7L));
+		assertEquals(1L, versions.version(7L));
+		assertEquals(before.replace("-u7-0", "-u8-0"), versions.etag(8L));
+	}
+
+	@Test
+	void testNoEtagWhileReplicasMayLag() {
+		versions.replicaLag = Duration.ofSeconds(5);
+		versions.onTaskChanged(changed(7L));
+
+		assertNull(versions.etag(7L));
+		assertNull(versions.globalEtag());
+		assertNotNull(versions.etag(8L));
+
+		when(versions.clock.millis()).thenReturn(6_000L);
+		assertNotNull(versions.etag(7L));
+		assertNotNull(versions.globalEtag());
+	}
+
+	private static TaskChangedEvent changed(Long userId) {
+		TaskItemDto task = new TaskItemDto(1L, "Relatório", Status.PENDENTE, null, null, userId, 0L);
+		return new TaskChangedEvent(List.of(TaskChange.created(task, null)));
+	}
+
+}
@@ -0,0 +1,141 @@
+package com.selaz.to_do_list.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.event.TaskChange;
+import com.selaz.to_do_list.event.TaskChangedEvent;
+import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.repository.TaskRepository;
+import com.selaz.to_do_list.shard.TaskShards;
+
+public class TaskSearchIndexTest {
+
+	@InjectMocks
+	private TaskSearchIndex index;
+
+	@Mock
+	private TaskRepository taskRepository;
+
+	@Spy
+	private TaskShards taskShards = new TaskShards();
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		index.index(1L, 1L, 0L, "Relatório financeiro", "Enviar para a diretoria");
+		index.index(2L, 1L, 0L, "Reunião de equipe", "Discutir o relatório trimestral");
+		index.index(3L, 1L, 0L, "Comprar café", null);
+		index.index(4L, 2L, 0L, "Relatório de vendas", null);
+	}
+
+	@Test
+	void testTokenize_FoldsAccentsAndDropsStopwords() {
+		assertEquals(Arrays.asList("relatorio", "acoes", "2024"), TaskSearchIndex.tokenize("Relatório DE Ações, 2024!"));
+	}
+
+	@Test
+	void testSearch_RanksTitleMatchesFirstAndScopesByUser() {
+		assertEquals(Arrays.asList(1L, 2L), index.search(1L, "RELATORIO", 10));
+		assertEquals(List.of(4L), index.search(2L, "relatorio", 10));
+		assertEquals(List.of(1L), index.search(1L, "relatorio", 1));
+	}
+
+	@Test
+	void testSearch_AllTermsMustMatchAndLastIsPrefix() {
+		assertEquals(List.of(2L), index.search(1L, "relatório trim", 10));
+		assertEquals(List.of(1L), index.search(1L, "relatorio fin", 10));
+		assertEquals(Collections.emptyList(), index.search(1L, "cafe relatorio", 10));
+		assertEquals(Collections.emptyList(), index.search(1L, "de", 10));
+	}
+
+	@Test
+	void testEvents_UpdateReplacesTermsAndDeleteRemoves() {
+		TaskItemDto before = new TaskItemDto(3L, "Comprar café", Status.PENDENTE, null, new Date(), 1L, 0L);
+		TaskItemDto after = new TaskItemDto(3L, "Comprar chá", Status.PENDENTE, null, new Date(), 1L, 1L);
+		index.onTaskChanged(new TaskChangedEvent(List.of(TaskChange.updated(before, after, "Mercado"))));
+
+		assertTrue(index.search(1L, "cafe", 10).isEmpty());
+		assertEquals(List.of(3L), index.search(1L, "cha mercado", 10));
+
+		index.onTaskChanged(new TaskChangedEvent(List.of(TaskChange.deleted(after))));
+		assertTrue(index.search(1L, "cha", 10).isEmpty());
+		assertEquals(3, index.size());
+	}
+
+	@Test
+	void testEvents_BulkDeleteFiltersPostings() {
+		List<TaskChange> deleted = new ArrayList<>();
+		for (long id = 100; id < 300; id++) {
+			index.index(id, 1L, 0L, "Relatório " + id, null);
+			deleted.add(TaskChange.deleted(new TaskItemDto(id, "Relatório", Status.PENDENTE, null, new Date(), 1L, 0L)));
+		}
+		deleted.add(TaskChange.deleted(new TaskItemDto(3L, "Comprar café", Status.PENDENTE, null, new Date(), 1L, 0L)));
+
+		index.onTaskChanged(new TaskChangedEvent(deleted));
+
+		assertEquals(3, index.size());
+		assertEquals(List.of(1L, 2L), index.search(1L, "relatorio", 10));
+		assertTrue(index.search(1L, "150", 10).isEmpty());
+		assertTrue(index.search(1L, "cafe", 10).isEmpty());
+		assertEquals(List.of(4L), index.search(2L, "relatorio", 10));
+	}
+
+	@Test
+	void testIndex_IgnoresOlderVersions() {
+		index.index(1L, 1L, 5L, "Planejamento", null);
+		index.index(1L, 1L, 4L, "Relatório antigo", null);
+
+		assertEquals(List.of(1L), index.search(1L, "planejamento", 10));
+		assertEquals(List.of(2L), index.search(1L, "relatorio", 10));
+	}
+
+	@Test
+	void testRebuild_PagesThroughTable() {
+		when(taskRepository.findTextAfter(eq(0L), any()))
+				.thenReturn(Collections.singletonList(new Object[] { 7L, 3L, 0L, "Pagar boleto", "Conta de luz" }));
+
+		index.rebuild();
+
+		assertEquals(1, index.size());
+		assertEquals(List.of(7L), index.search(3L, "luz", 10));
+	}
+
+	@Test
+	void testSnapshot_RoundTripOnlyForMatchingTable(@TempDir Path directory) throws Exception {
+		Path snapshot = directory.resolve("index.bin");
+		long[] stats = { 4L, 4L, 0L };
+		index.write(snapshot, stats);
+
+		TaskSearchIndex restored = new TaskSearchIndex();
+		assertFalse(restored.load(snapshot, new long[] { 5L, 5L, 0L }));
+		assertTrue(restored.load(snapshot, stats));
+		assertEquals(4, restored.size());
+		assertEquals(Arrays.asList(1L, 2L), restored.search(1L, "relatorio", 10));
+
+		// O índice restaurado continua atualizável
+		restored.remove(1L, 1L);
+		assertEquals(List.of(2L), restored.search(1L, "relatorio", 10));
+	}
+
+}
@@ -0,0 +1,152 @@
+package com.selaz.to_do_list.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import com.selaz.to_do_list.dto.TaskItemDto;
+import com.selaz.to_do_list.dto.TaskSummaryDto;
+import com.selaz.to_do_list.event.TaskChange;
+import com.selaz.to_do_list.event.TaskChangedEvent;
+import com.selaz.to_do_list.event.UserTasksDeletedEvent;
+import com.selaz.to_do_list.model.Status;
+import com.selaz.to_do_list.repository.TaskRepository;
+import com.selaz.to_do_list.shard.TaskShards;
+
+public class TaskSummaryCountersTest {
+
+	private static final long NOW = 1_700_000_000_000L;
+
+	@InjectMocks
+	private TaskSummaryCounters counters;
+
+	@Mock
+	private TaskRepository taskRepository;
+
+	@Mock
+	private Clock clock;
+
+	@Spy
+	private TaskShards taskShards = new TaskShards();
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		counters.clock = clock;
+		when(clock.millis()).thenReturn(NOW);
+		when(taskRepository.countByUserAndStatus()).thenReturn(Collections.emptyList());
+		when(taskRepository.countOpenByUserAndDueDate()).thenReturn(Collections.emptyList());
+		counters.rebuild();
+	}
+
+	@Test
+	void testRebuild_FromAggregates() {
+		when(taskRepository.countByUserAndStatus()).thenReturn(Arrays.asList(
+				new Object[] { 1L, Status.PENDENTE, 3L }, new Object[] { 1L, Status.CONCLUIDA, 2L },
+				new Object[] { 2L, Status.EM_ANDAMENTO, 4L }));
+		when(taskRepository.countOpenByUserAndDueDate()).thenReturn(Arrays.asList(
+				new Object[] { 1L, new Date(NOW - 60_000), 2L }, new Object[] { 1L, new Date(NOW + 60_000), 1L }));
+
+		counters.rebuild();
+
+		TaskSummaryDto summary = counters.summary(1L);
+		assertEquals(3L, summary.getByStatus().get(Status.PENDENTE));
+		assertEquals(0L, summary.getByStatus().get(Status.EM_ANDAMENTO));
+		assertEquals(2L, summary.getByStatus().get(Status.CONCLUIDA));
+		assertEquals(5L, summary.getTotal());
+		assertEquals(2L, summary.getOverdue());
+
+		TaskSummaryDto global = counters.globalSummary();
+		assertEquals(9L, global.getTotal());
+		assertEquals(4L, global.getByStatus().get(Status.EM_ANDAMENTO));
+	}
+
+	@Test
+	void testCreateUpdateDelete() {
+		TaskItemDto created = task(Status.PENDENTE, null);
+		TaskItemDto started = task(Status.EM_ANDAMENTO, null);
+
+		publish(TaskChange.created(created, null));
+		publish(TaskChange.updated(created, started, null));
+		assertEquals(0L, counters.summary(1L).getByStatus().get(Status.PENDENTE));
+		assertEquals(1L, counters.summary(1L).getByStatus().get(Status.EM_ANDAMENTO));
+
+		publish(TaskChange.deleted(started));
+		assertEquals(0L, counters.summary(1L).getTotal());
+		assertEquals(0L, counters.globalSummary().getTotal());
+		assertEquals(0L, counters.summary(2L).getTotal());
+	}
+
+	@Test
+	void testOverdue_CountedOnceTheDueDatePasses() {
+		TaskItemDto open = task(Status.PENDENTE, new Date(NOW + 5_000));
+		publish(TaskChange.created(open, null));
+		assertEquals(0L, counters.summary(1L).getOverdue());
+
+		when(clock.millis()).thenReturn(NOW + 6_000);
+		assertEquals(1L, counters.summary(1L).getOverdue());
+		assertEquals(1L, counters.globalSummary().getOverdue());
+
+		// Concluir uma tarefa atrasada a remove da contagem de atrasadas
+		publish(TaskChange.updated(open, task(Status.CONCLUIDA, open.getDueDate()), null));
+		assertEquals(0L, counters.summary(1L).getOverdue());
+		assertEquals(1L, counters.summary(1L).getByStatus().get(Status.CONCLUIDA));
+	}
+
+	@Test
+	void testOverdue_MovingTheDueDateOut() {
+		TaskItemDto late = task(Status.PENDENTE, new Date(NOW - 1_000));
+		publish(TaskChange.created(late, null));
+		assertEquals(1L, counters.summary(1L).getOverdue());
+
+		TaskItemDto postponed = task(Status.PENDENTE, new Date(NOW + 60_000));
+		publish(TaskChange.updated(late, postponed, null));
+		assertEquals(0L, counters.summary(1L).getOverdue());
+
+		when(clock.millis()).thenReturn(NOW + 61_000);
+		assertEquals(1L, counters.summary(1L).getOverdue());
+	}
+
+	@Test
+	void testUserTasksDeleted_DropsTheUsersCounts() {
+		when(taskRepository.countByUserAndStatus()).thenReturn(Arrays.asList(
+				new Object[] { 1L, Status.PENDENTE, 3L }, new Object[] { 2L, Status.EM_ANDAMENTO, 4L }));
+		when(taskRepository.countOpenByUserAndDueDate()).thenReturn(Arrays.asList(
+				new Object[] { 1L, new Date(NOW - 60_000), 1L }, new Object[] { 1L, new Date(NOW + 60_000), 2L }));
+		counters.rebuild();
+
+		counters.onUserTasksDeleted(new UserTasksDeletedEvent(1L));
+
+		assertEquals(0L, counters.summary(1L).getTotal());
+		TaskSummaryDto global = counters.globalSummary();
+		assertEquals(4L, global.getTotal());
+		assertEquals(0L, global.getByStatus().get(Status.PENDENTE));
+		assertEquals(0L, global.getOverdue());
+
+		// As tarefas que ainda iam vencer também saem da linha do tempo
+		when(clock.millis()).thenReturn(NOW + 61_000);
+		assertEquals(0L, counters.globalSummary().getOverdue());
+		assertEquals(0L, counters.summary(1L).getOverdue());
+	}
+
+	private void publish(TaskChange change) {
+		counters.onTaskChanged(new TaskChangedEvent(List.of(change)));
+	}
+
+	private static TaskItemDto task(Status status, Date dueDate) {
+		return new TaskItemDto(10L, "Task", status, dueDate, new Date(NOW), 1L, 0L);
+	}
+
+}
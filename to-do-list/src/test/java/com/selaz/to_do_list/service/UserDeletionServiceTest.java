@@ -0,0 +1,109 @@
+package com.selaz.to_do_list.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.selaz.to_do_list.event.UserTasksDeletedEvent;
+import com.selaz.to_do_list.repository.TaskRepository;
+import com.selaz.to_do_list.repository.UserRepository;
+import com.selaz.to_do_list.shard.TaskShards;
+
+public class UserDeletionServiceTest {
+
+	@InjectMocks
+	private UserDeletionService userDeletionService;
+
+	@Mock
+	private TaskRepository taskRepository;
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Spy
+	private TaskShards taskShards = new TaskShards();
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		userDeletionService.batchSize = 2;
+	}
+
+	@Test
+	void testDeleteUser_OnlyMarksTheUser() {
+		when(userRepository.markDeleted(1L)).thenReturn(1);
+
+		assertTrue(userDeletionService.deleteUser(1L));
+		verify(eventPublisher, times(1)).publishEvent((Object) argThat(event -> isDeletionOf(event, 1L)));
+		verify(taskRepository, never()).deleteBatchByUserId(any(), any(Integer.class));
+	}
+
+	@Test
+	void testDeleteUser_UnknownUser() {
+		when(userRepository.markDeleted(1L)).thenReturn(0);
+
+		assertFalse(userDeletionService.deleteUser(1L));
+		verify(eventPublisher, never()).publishEvent(any(Object.class));
+	}
+
+	@Test
+	void testPurge_DeletesTasksInBatchesThenTheUser() {
+		when(userRepository.markDeleted(1L)).thenReturn(1);
+		userDeletionService.deleteUser(1L);
+		when(userRepository.findDeletedIds()).thenReturn(List.of(1L));
+		when(taskRepository.deleteBatchByUserId(1L, 2)).thenReturn(2, 2, 1);
+
+		userDeletionService.purge();
+
+		verify(taskRepository, times(3)).deleteBatchByUserId(1L, 2);
+		verify(userRepository, times(1)).deleteMarkedById(1L);
+		// O evento já saiu na marcação
+		verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+	}
+
+	@Test
+	void testPurge_UserMarkedBeforeARestartIsAnnounced() {
+		when(userRepository.findDeletedIds()).thenReturn(List.of(2L));
+		when(taskRepository.deleteBatchByUserId(2L, 2)).thenReturn(0);
+
+		userDeletionService.purge();
+
+		verify(userRepository, times(1)).deleteMarkedById(2L);
+		verify(eventPublisher, times(1)).publishEvent((Object) argThat(event -> isDeletionOf(event, 2L)));
+	}
+
+	@Test
+	void testPurge_FailureKeepsTheUserMarked() {
+		when(userRepository.findDeletedIds()).thenReturn(List.of(1L, 2L));
+		when(taskRepository.deleteBatchByUserId(1L, 2)).thenThrow(new IllegalStateException("lock timeout"));
+		when(taskRepository.deleteBatchByUserId(2L, 2)).thenReturn(1);
+
+		userDeletionService.purge();
+
+		verify(userRepository, never()).deleteMarkedById(1L);
+		verify(userRepository, times(1)).deleteMarkedById(2L);
+	}
+
+	private static boolean isDeletionOf(Object event, Long userId) {
+		return event instanceof UserTasksDeletedEvent deleted && deleted.getUserId().equals(userId);
+	}
+
+}
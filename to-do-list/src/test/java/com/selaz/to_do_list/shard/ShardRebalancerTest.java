@@ -0,0 +1,166 @@
+package com.selaz.to_do_list.shard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.selaz.to_do_list.dto.ShardMoveDto;
+import com.zaxxer.hikari.HikariDataSource;
+
+public class ShardRebalancerTest {
+
+	private HikariDataSource home;
+
+	private HikariDataSource other;
+
+	private ShardRoutingDataSource routing;
+
+	private TaskShards taskShards;
+
+	private ShardRebalancer rebalancer;
+
+	private long user;
+
+	@BeforeEach
+	void setUp() {
+		// Bancos novos a cada teste: um teste que falhe não deixa tabelas para o próximo
+		String suffix = UUID.randomUUID().toString();
+		home = pool("jdbc:h2:mem:rebalance-home-" + suffix + ";DB_CLOSE_DELAY=-1");
+		other = pool("jdbc:h2:mem:rebalance-other-" + suffix + ";DB_CLOSE_DELAY=-1");
+		// As migrações exigem esquema vazio; tb_user vem depois, como no shard 0 da aplicação
+		ShardDataSourceConfiguration.migrate(home, 0);
+		ShardDataSourceConfiguration.migrate(other, 1);
+		new JdbcTemplate(home).execute("create table tb_user (user_id bigint primary key, username varchar(255))");
+		routing = new ShardRoutingDataSource(List.<DataSource>of(home, other));
+		routing.afterPropertiesSet();
+
+		// Usuário do shard 1 cujas tarefas ainda estão no 0, como depois de acrescentar um shard
+		ShardRing ring = new ShardRing(2, 160);
+		user = 1;
+		while (ring.shardFor(user) != 1) {
+			user++;
+		}
+		JdbcTemplate onHome = new JdbcTemplate(home);
+		for (long id = 1; id <= 25; id++) {
+			onHome.update("insert into tb_task (id, user_id, title, version) values (?, ?, ?, ?)", id, user,
+					"tarefa " + id, id % 3);
+		}
+		onHome.update("insert into tb_task (id, user_id, title, version) values (100, ?, 'outra', 0)", user + 1000);
+
+		taskShards = new TaskShards();
+		taskShards.virtualNodes = 160;
+		ReflectionTestUtils.setField(taskShards, "routingDataSource", routing);
+		taskShards.start();
+
+		rebalancer = new ShardRebalancer();
+		rebalancer.copyBatch = 10;
+		rebalancer.lockTimeout = Duration.ofMillis(50);
+		rebalancer.lockAttempts = 3;
+		ReflectionTestUtils.setField(rebalancer, "taskShards", taskShards);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (taskShards != null) {
+			taskShards.stop();
+		}
+		for (HikariDataSource pool : new HikariDataSource[] { home, other }) {
+			if (pool != null) {
+				new JdbcTemplate(pool).execute("drop all objects");
+				pool.close();
+			}
+		}
+	}
+
+	@Test
+	void testRebalanceMovesPinnedUsersToTheirRingShard() throws Exception {
+		List<String> before = rows(home, user);
+
+		List<ShardMoveDto> moves = rebalancer.rebalance(10);
+
+		assertTrue(moves.stream().anyMatch(move -> move.getUserId() == user && move.getTo() == 1));
+		assertEquals(25, moves.stream().filter(move -> move.getUserId() == user).findFirst().get().getTasks());
+		assertEquals(before, rows(other, user));
+		assertEquals(List.of(), rows(home, user));
+		assertEquals(1, taskShards.shardOf(user));
+		assertEquals(1, taskShards.shardOfTask(1L));
+		assertEquals(TaskShards.HOME, taskShards.shardOfTask(100L));
+		assertEquals(0, new JdbcTemplate(home).queryForObject(
+				"select count(*) from tb_user_shard where user_id = ?", Integer.class, user));
+	}
+
+	@Test
+	void testMovedTasksAreFoundAgainAtStart() throws Exception {
+		rebalancer.move(user, 1);
+		taskShards.stop();
+
+		taskShards = new TaskShards();
+		taskShards.virtualNodes = 160;
+		ReflectionTestUtils.setField(taskShards, "routingDataSource", routing);
+		taskShards.start();
+
+		assertEquals(1, taskShards.shardOfTask(1L));
+		assertEquals(1, taskShards.shardOfTask(25L));
+		assertEquals(TaskShards.HOME, taskShards.shardOfTask(100L));
+	}
+
+	@Test
+	void testMoveBackPinsTheUser() throws Exception {
+		rebalancer.move(user, 1);
+		new JdbcTemplate(other).update("update tb_task set version = version + 1 where id = 1");
+
+		ShardMoveDto move = rebalancer.move(user, 0);
+
+		assertEquals(1, move.getFrom());
+		assertEquals(25, rows(home, user).size());
+		assertEquals("1:tarefa 1:2", rows(home, user).get(0));
+		assertEquals(0, taskShards.shardOf(user));
+		assertEquals(TaskShards.HOME, taskShards.shardOfTask(1L));
+		assertEquals(List.of(user), taskShards.misplaced(10));
+	}
+
+	@Test
+	void testBusySourceShardLeavesUserInPlace() throws Exception {
+		// Um leitor longo no shard de origem
+		Thread reader = new Thread(() -> {
+			try {
+				taskShards.eachShard(shard -> Thread.sleep(500));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		reader.start();
+		Thread.sleep(100);
+
+		assertEquals(null, rebalancer.move(user, 1));
+		assertEquals(0, taskShards.shardOf(user));
+		assertEquals(25, rows(home, user).size());
+		reader.join();
+	}
+
+	private static List<String> rows(DataSource dataSource, long user) {
+		return new JdbcTemplate(dataSource).queryForList(
+				"select id || ':' || title || ':' || version from tb_task where user_id = ? order by id", String.class,
+				user);
+	}
+
+	private static HikariDataSource pool(String url) {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setJdbcUrl(url);
+		dataSource.setUsername("sa");
+		dataSource.setPassword("");
+		return dataSource;
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.selaz.to_do_list.shard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class ShardRingTest {
+
+	private static final int USERS = 100_000;
+
+	@Test
+	void testUsersSpreadEvenly() {
+		ShardRing ring = new ShardRing(4, 160);
+		int[] users = new int[4];
+		for (long user = 1; user <= USERS; user++) {
+			users[ring.shardFor(user)]++;
+		}
+
+		for (int count : users) {
+			assertTrue(Math.abs(count - USERS / 4) < USERS / 4 * 0.2, "users per shard: " + count);
+		}
+	}
+
+	@Test
+	void testAddingAShardMovesUsersOnlyToIt() {
+		ShardRing before = new ShardRing(4, 160);
+		ShardRing after = new ShardRing(5, 160);
+		int moved = 0;
+		for (long user = 1; user <= USERS; user++) {
+			int from = before.shardFor(user);
+			int to = after.shardFor(user);
+			if (from != to) {
+				assertEquals(4, to);
+				moved++;
+			}
+		}
+
+		assertTrue(Math.abs(moved - USERS / 5) < USERS / 5 * 0.2, "users moved: " + moved);
+	}
+
+	@Test
+	void testSameUserSameShard() {
+		assertEquals(new ShardRing(3, 160).shardFor(42L), new ShardRing(3, 160).shardFor(42L));
+		assertEquals(0, new ShardRing(1, 1).shardFor(42L));
+	}
+
+}
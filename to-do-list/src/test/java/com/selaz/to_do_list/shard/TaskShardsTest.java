@@ -0,0 +1,183 @@
+package com.selaz.to_do_list.shard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.selaz.to_do_list.dto.BatchResultDto;
+import com.zaxxer.hikari.HikariDataSource;
+
+public class TaskShardsTest {
+
+	private HikariDataSource home;
+
+	private HikariDataSource other;
+
+	private ShardRoutingDataSource routing;
+
+	private TaskShards taskShards;
+
+	private final ShardRing ring = new ShardRing(2, 160);
+
+	// Primeiro id da sequence do shard 1
+	private static final long ON_OTHER = (1L << ShardDataSourceConfiguration.SEQUENCE_SHIFT) + 1;
+
+	@BeforeEach
+	void setUp() {
+		// Bancos novos a cada teste: um teste que falhe não deixa tabelas para o próximo
+		String suffix = UUID.randomUUID().toString();
+		home = pool("jdbc:h2:mem:shards-home-" + suffix + ";DB_CLOSE_DELAY=-1");
+		other = pool("jdbc:h2:mem:shards-other-" + suffix + ";DB_CLOSE_DELAY=-1");
+		// As migrações exigem esquema vazio; tb_user vem depois, como no shard 0 da aplicação
+		ShardDataSourceConfiguration.migrate(home, 0);
+		ShardDataSourceConfiguration.migrate(other, 1);
+		new JdbcTemplate(home).execute("create table tb_user (user_id bigint primary key, username varchar(255))");
+		routing = new ShardRoutingDataSource(List.<DataSource>of(home, other));
+		routing.afterPropertiesSet();
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (taskShards != null) {
+			taskShards.stop();
+		}
+		for (HikariDataSource pool : new HikariDataSource[] { home, other }) {
+			if (pool != null) {
+				new JdbcTemplate(pool).execute("drop all objects");
+				pool.close();
+			}
+		}
+	}
+
+	@Test
+	void testUserWorkRunsOnTheUsersShard() {
+		start();
+		long user = userOn(1);
+
+		taskShards.onUserShard(user, () -> insert(new JdbcTemplate(routing), ON_OTHER, user, null));
+
+		assertEquals(1, count(other));
+		assertEquals(0, count(home));
+		assertEquals(1, (int) taskShards.onTaskShard(ON_OTHER, ShardRoutingDataSource::current));
+		assertEquals(TaskShards.HOME, (int) taskShards.onTaskShard(2L, ShardRoutingDataSource::current));
+		// O linked table deixa o shard ver os usuários do shard 0
+		new JdbcTemplate(home).update("insert into tb_user values (?, 'root')", user);
+		assertEquals(1, new JdbcTemplate(other).queryForObject("select count(*) from tb_user", Integer.class));
+	}
+
+	@Test
+	void testTaskWorkLocksOnlyTheTasksShard() throws Exception {
+		start();
+		// Uma mudança saindo do shard 0 não segura quem trabalha numa tarefa do shard 1
+		Lock lock = taskShards.tryLockExclusively(TaskShards.HOME, Duration.ofSeconds(1));
+		try {
+			assertEquals(1, (int) CompletableFuture
+					.supplyAsync(() -> taskShards.onTaskShard(ON_OTHER, ShardRoutingDataSource::current))
+					.get(1, TimeUnit.SECONDS));
+			assertEquals(List.of(1L), CompletableFuture.supplyAsync(() -> taskShards.batchByTask(List.of(ON_OTHER),
+					id -> id, part -> List.of(new BatchResultDto(0, (long) ShardRoutingDataSource.current(), 200, null))))
+					.get(1, TimeUnit.SECONDS).stream().map(BatchResultDto::getId).toList());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Test
+	void testBatchRunsOncePerShardAndKeepsRequestOrder() {
+		start();
+		List<Long> users = List.of(userOn(0), userOn(1), userOn(0));
+
+		List<BatchResultDto> results = taskShards.batchByUser(users, user -> user, part -> {
+			List<BatchResultDto> partResults = new ArrayList<>();
+			for (int i = 0; i < part.size(); i++) {
+				// O id devolvido diz em que shard o item foi gravado
+				partResults.add(new BatchResultDto(i, (long) ShardRoutingDataSource.current(), 200, null));
+			}
+			return partResults;
+		});
+
+		assertEquals(List.of(0, 1, 2), results.stream().map(BatchResultDto::getIndex).toList());
+		assertEquals(List.of(0L, 1L, 0L), results.stream().map(BatchResultDto::getId).toList());
+	}
+
+	@Test
+	void testGatherConcatenatesShardsAndSkipsCopiesOfOtherShards() {
+		start();
+		long user0 = userOn(0);
+		long user1 = userOn(1);
+		insert(new JdbcTemplate(home), 1L, user0, "2024-01-02");
+		insert(new JdbcTemplate(home), 2L, user0, null);
+		insert(new JdbcTemplate(other), 3L, user1, "2024-01-01");
+		insert(new JdbcTemplate(other), 4L, user1, "2024-01-03");
+		// Cópia deixada por uma mudança em andamento
+		insert(new JdbcTemplate(home), 3L, user1, "2024-01-01");
+
+		List<Object[]> tasks = taskShards.gather(
+				() -> new JdbcTemplate(routing).query(
+						"select id, user_id, due_date from tb_task order by due_date",
+						(rs, i) -> new Object[] { rs.getLong(1), rs.getLong(2), rs.getString(3) }),
+				row -> (Long) row[1]);
+
+		assertEquals(List.of(2L, 1L, 3L, 4L), tasks.stream().map(row -> row[0]).toList());
+	}
+
+	@Test
+	void testUsersFoundAwayFromTheirRingShardArePinned() {
+		long user = userOn(1);
+		insert(new JdbcTemplate(home), 1L, user, null);
+
+		start();
+
+		assertEquals(TaskShards.HOME, taskShards.shardOf(user));
+		assertEquals(List.of(user), taskShards.misplaced(10));
+		assertEquals(0, new JdbcTemplate(home).queryForObject("select shard from tb_user_shard where user_id = ?",
+				Integer.class, user));
+	}
+
+	private void start() {
+		taskShards = new TaskShards();
+		taskShards.virtualNodes = 160;
+		ReflectionTestUtils.setField(taskShards, "routingDataSource", routing);
+		taskShards.start();
+	}
+
+	private long userOn(int shard) {
+		for (long user = 1;; user++) {
+			if (ring.shardFor(user) == shard) {
+				return user;
+			}
+		}
+	}
+
+	private static int insert(JdbcTemplate jdbcTemplate, Long id, Long user, String dueDate) {
+		return jdbcTemplate.update("insert into tb_task (id, user_id, title, due_date, version) values (?, ?, 'tarefa', ?, 0)",
+				id, user, dueDate);
+	}
+
+	private static int count(DataSource dataSource) {
+		return new JdbcTemplate(dataSource).queryForObject("select count(*) from tb_task", Integer.class);
+	}
+
+	private static HikariDataSource pool(String url) {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setJdbcUrl(url);
+		dataSource.setUsername("sa");
+		dataSource.setPassword("");
+		return dataSource;
+	}
+
+}